@@ -0,0 +1,207 @@
+package com.gwill.tools.graphics.excelcombochartplotter.benchmark;
+
+import com.gwill.tools.graphics.excelcombochartplotter.data.ColumnarTable;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ChartConfiguration;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ChartType;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ImageSettings;
+import com.gwill.tools.graphics.excelcombochartplotter.model.SizeUnit;
+import com.gwill.tools.graphics.excelcombochartplotter.model.YAxisSeriesConfig;
+import com.gwill.tools.graphics.excelcombochartplotter.service.ExcelDataService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 基准测试数据：生成合成工作簿，并提供与之对应的数据表和图表配置。
+ * <p>
+ * 工作簿的第一个工作表包含四列：日期（带日期格式的序列号）、两列纯数值，以及一列“脏”数据，
+ * 其中混有文本形式的数字、无法转换的文本和空单元格。数据由固定种子生成，每次运行相同。
+ */
+final class BenchmarkData {
+
+    static final String DATE_COLUMN = "日期";
+    static final String SALES_COLUMN = "销售额";
+    static final String PROFIT_COLUMN = "利润";
+    static final String DIRTY_COLUMN = "备注值";
+
+    private static final long SEED = 42;
+
+    // 第一个日期序列号（2023-03-15）
+    private static final int FIRST_DATE = 45000;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * 在指定目录中生成工作簿
+     *
+     * @param directory 目录
+     * @param rows      数据行数（不含表头）
+     * @return 工作簿路径
+     * @throws IOException 如果写入失败
+     */
+    static Path createWorkbook( Path directory, int rows ) throws IOException {
+        Path path = directory.resolve( "synthetic-" + rows + ".xlsx" );
+        try( ZipOutputStream zip = new ZipOutputStream( Files.newOutputStream( path ) ) ) {
+            writeEntry( zip, "[Content_Types].xml", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">\
+                <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>\
+                <Default Extension="xml" ContentType="application/xml"/>\
+                <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>\
+                <Override PartName="/xl/worksheets/sheet1.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml"/>\
+                <Override PartName="/xl/sharedStrings.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml"/>\
+                <Override PartName="/xl/styles.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml"/>\
+                </Types>""" );
+            writeEntry( zip, "_rels/.rels", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+                <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>\
+                </Relationships>""" );
+            writeEntry( zip, "xl/workbook.xml", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" \
+                xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">\
+                <sheets><sheet name="Data" sheetId="1" r:id="rId1"/></sheets>\
+                </workbook>""" );
+            writeEntry( zip, "xl/_rels/workbook.xml.rels", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+                <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet" Target="worksheets/sheet1.xml"/>\
+                <Relationship Id="rId2" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/sharedStrings" Target="sharedStrings.xml"/>\
+                <Relationship Id="rId3" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles" Target="styles.xml"/>\
+                </Relationships>""" );
+            writeEntry( zip, "xl/styles.xml", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <styleSheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main">\
+                <numFmts count="1"><numFmt numFmtId="164" formatCode="yyyy/mm/dd"/></numFmts>\
+                <cellXfs count="2"><xf numFmtId="0"/><xf numFmtId="164" applyNumberFormat="1"/></cellXfs>\
+                </styleSheet>""" );
+            // 表头和无法转换的文本使用共享字符串
+            writeEntry( zip, "xl/sharedStrings.xml", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <sst xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" count="5" uniqueCount="5">\
+                <si><t>%s</t></si><si><t>%s</t></si><si><t>%s</t></si><si><t>%s</t></si><si><t>n/a</t></si>\
+                </sst>""".formatted( DATE_COLUMN, SALES_COLUMN, PROFIT_COLUMN, DIRTY_COLUMN ) );
+
+            // 工作表逐行写出，不在内存中拼接；写入器只刷新不关闭，ZIP流由外层关闭
+            zip.putNextEntry( new ZipEntry( "xl/worksheets/sheet1.xml" ) );
+            Writer out = new BufferedWriter( new OutputStreamWriter( zip, StandardCharsets.UTF_8 ), 64 * 1024 );
+            writeSheet( out, rows );
+            out.flush();
+            zip.closeEntry();
+        }
+        return path;
+    }
+
+    /**
+     * 生成工作簿并完整加载为数据表，随后删除工作簿
+     *
+     * @param rows 数据行数
+     * @return 数据表
+     * @throws Exception 如果生成或加载失败
+     */
+    static ColumnarTable loadTable( int rows ) throws Exception {
+        Path directory = Files.createTempDirectory( "eccp-bench-" );
+        Path workbook = createWorkbook( directory, rows );
+        try {
+            return new ExcelDataService( null, null ).loadData( workbook.toString() );
+        } finally {
+            deleteDirectory( directory );
+        }
+    }
+
+    /**
+     * 基准测试使用的图表配置：日期为X轴，销售额为主轴柱形图，利润为次轴折线图
+     *
+     * @param width  宽度（像素）
+     * @param height 高度（像素）
+     */
+    static ChartConfiguration configuration( int width, int height ) {
+        return new ChartConfiguration(
+            DATE_COLUMN,
+            List.of(
+                new YAxisSeriesConfig( SALES_COLUMN, ChartType.BAR, false ),
+                new YAxisSeriesConfig( PROFIT_COLUMN, ChartType.LINE, true )
+            ),
+            new ImageSettings( width, SizeUnit.PIXEL, height, SizeUnit.PIXEL, "基准测试", true )
+        );
+    }
+
+    /**
+     * 解析 {@code 宽x高} 形式的图片尺寸
+     *
+     * @return 宽度和高度
+     */
+    static int[] parseSize( String size ) {
+        int x = size.indexOf( 'x' );
+        if( x <= 0 ) {
+            throw new IllegalArgumentException( "尺寸格式应为 宽x高: " + size );
+        }
+        return new int[]{ Integer.parseInt( size.substring( 0, x ) ), Integer.parseInt( size.substring( x + 1 ) ) };
+    }
+
+    /**
+     * 删除目录及其中的文件
+     */
+    static void deleteDirectory( Path directory ) throws IOException {
+        try( var files = Files.list( directory ) ) {
+            for( Path file : files.toList() ) {
+                Files.deleteIfExists( file );
+            }
+        }
+        Files.deleteIfExists( directory );
+    }
+
+    private static void writeSheet( Writer out, int rows ) throws IOException {
+        out.write( "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" );
+        out.write( "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">" );
+        out.write( "<dimension ref=\"A1:D" + ( rows + 1 ) + "\"/><sheetData>" );
+        out.write( "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c><c r=\"B1\" t=\"s\"><v>1</v></c>"
+            + "<c r=\"C1\" t=\"s\"><v>2</v></c><c r=\"D1\" t=\"s\"><v>3</v></c></row>" );
+
+        SplittableRandom random = new SplittableRandom( SEED );
+        for( int i = 0; i < rows; i++ ) {
+            int r = i + 2;
+            double sales = 1000 + random.nextDouble() * 9000;
+            double profit = sales * ( 0.05 + random.nextDouble() * 0.25 );
+            out.write( "<row r=\"" + r + "\">" );
+            out.write( "<c r=\"A" + r + "\" s=\"1\"><v>" + ( FIRST_DATE + i ) + "</v></c>" );
+            out.write( "<c r=\"B" + r + "\"><v>" + format( sales ) + "</v></c>" );
+            out.write( "<c r=\"C" + r + "\"><v>" + format( profit ) + "</v></c>" );
+            // 脏数据列：多数为数值，其余为文本形式的数字、无法转换的文本或空单元格
+            switch( i % 8 ) {
+                case 1 -> out.write( "<c r=\"D" + r + "\" t=\"inlineStr\"><is><t>" + format( profit ) + "</t></is></c>" );
+                case 3 -> out.write( "<c r=\"D" + r + "\" t=\"s\"><v>4</v></c>" );
+                case 5 -> {
+                    // 空单元格
+                }
+                default -> out.write( "<c r=\"D" + r + "\"><v>" + format( profit ) + "</v></c>" );
+            }
+            out.write( "</row>" );
+        }
+        out.write( "</sheetData></worksheet>" );
+    }
+
+    /**
+     * 保留两位小数（生成百万行时比格式化字符串快得多）
+     */
+    private static String format( double value ) {
+        return Double.toString( Math.round( value * 100 ) / 100.0 );
+    }
+
+    private static void writeEntry( ZipOutputStream zip, String name, String content ) throws IOException {
+        zip.putNextEntry( new ZipEntry( name ) );
+        zip.write( content.getBytes( StandardCharsets.UTF_8 ) );
+        zip.closeEntry();
+    }
+}
@@ -0,0 +1,37 @@
+package com.gwill.tools.graphics.excelcombochartplotter.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口：接受与JMH相同的命令行参数，并始终启用GC分析器，每个基准都报告分配速率（gc.alloc.rate.norm 等）。
+ * <p>
+ * 用法：{@code java -jar target/benchmarks.jar [JMH参数] [基准名正则]}，
+ * 例如 {@code java -jar target/benchmarks.jar LoadBenchmark -p rows=100000}
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main( String[] args ) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions( args );
+        if( commandLine.shouldHelp() ) {
+            commandLine.showHelp();
+            return;
+        }
+        if( commandLine.shouldList() ) {
+            new Runner( commandLine ).list();
+            return;
+        }
+
+        Options options = new OptionsBuilder()
+            .parent( commandLine )
+            .addProfiler( GCProfiler.class )
+            .build();
+        new Runner( options ).run();
+    }
+}
@@ -0,0 +1,68 @@
+package com.gwill.tools.graphics.excelcombochartplotter.benchmark;
+
+import com.gwill.tools.graphics.excelcombochartplotter.chart.CategorySeries;
+import com.gwill.tools.graphics.excelcombochartplotter.chart.ColumnarCategoryDataset;
+import com.gwill.tools.graphics.excelcombochartplotter.data.ColumnarTable;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ChartConfiguration;
+import com.gwill.tools.graphics.excelcombochartplotter.service.ChartGenerationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据集构建：
+ * <ul>
+ *     <li>extractSeries：{@link ChartGenerationService#extractSeries} 提取X轴分类和系列数值并按分类对齐</li>
+ *     <li>buildDataset：由已对齐的系列数据构建JFreeChart使用的列式数据集</li>
+ * </ul>
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class DatasetBenchmark {
+
+    @Param( { "10000", "100000", "1000000" } )
+    public int rows;
+
+    private ColumnarTable table;
+
+    private ChartConfiguration configuration;
+
+    private CategorySeries series;
+
+    @Setup( Level.Trial )
+    public void setUp() throws Exception {
+        table = BenchmarkData.loadTable( rows );
+        configuration = BenchmarkData.configuration( 1024, 768 );
+        series = ChartGenerationService.extractSeries( table, configuration );
+    }
+
+    @Benchmark
+    public CategorySeries extractSeries() {
+        return ChartGenerationService.extractSeries( table, configuration );
+    }
+
+    @Benchmark
+    public ColumnarCategoryDataset buildDataset() {
+        ColumnarCategoryDataset.Builder builder = ColumnarCategoryDataset.builder( series.categories() );
+        for( Map.Entry<String, double[]> entry : series.values().entrySet() ) {
+            builder.addSeries( entry.getKey(), entry.getValue() );
+        }
+        return builder.build();
+    }
+}
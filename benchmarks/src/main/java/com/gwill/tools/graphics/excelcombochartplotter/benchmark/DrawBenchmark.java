@@ -0,0 +1,72 @@
+package com.gwill.tools.graphics.excelcombochartplotter.benchmark;
+
+import com.gwill.tools.graphics.excelcombochartplotter.chart.CategorySeries;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ChartConfiguration;
+import com.gwill.tools.graphics.excelcombochartplotter.model.RenderOptions;
+import com.gwill.tools.graphics.excelcombochartplotter.model.RenderProfile;
+import com.gwill.tools.graphics.excelcombochartplotter.service.ChartGenerationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 图表绘制：{@link ChartGenerationService#renderPreview} 按像素预算合并、降采样后借用图表模板，
+ * 由 {@code JFreeChart.draw} 绘制到指定尺寸的图片上，分别测量成品和草稿质量。
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class DrawBenchmark {
+
+    @Param( { "800x600", "1920x1080", "3840x2160" } )
+    public String size;
+
+    @Param( { "FINAL", "DRAFT" } )
+    public RenderProfile profile;
+
+    @Param( { "100000" } )
+    public int rows;
+
+    private ChartGenerationService chartGenerationService;
+
+    private CategorySeries series;
+
+    private ChartConfiguration configuration;
+
+    private RenderOptions options;
+
+    private int width;
+
+    private int height;
+
+    @Setup( Level.Trial )
+    public void setUp() throws Exception {
+        int[] dimensions = BenchmarkData.parseSize( size );
+        width = dimensions[0];
+        height = dimensions[1];
+        configuration = BenchmarkData.configuration( width, height );
+        series = ChartGenerationService.extractSeries( BenchmarkData.loadTable( rows ), configuration );
+        chartGenerationService = new ChartGenerationService( null );
+        options = RenderOptions.defaults().withProfile( profile );
+    }
+
+    @Benchmark
+    public BufferedImage draw() throws Exception {
+        return chartGenerationService.renderPreview( series, configuration, width, height, options );
+    }
+}
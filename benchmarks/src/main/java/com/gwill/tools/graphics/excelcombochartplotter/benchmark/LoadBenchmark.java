@@ -0,0 +1,60 @@
+package com.gwill.tools.graphics.excelcombochartplotter.benchmark;
+
+import com.gwill.tools.graphics.excelcombochartplotter.data.ColumnarTable;
+import com.gwill.tools.graphics.excelcombochartplotter.service.ExcelDataService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 加载工作簿：{@link ExcelDataService#loadData(String)} 解析整个工作表并构建列式数据表。
+ * 不使用进程内缓存和磁盘缓存，每次调用都完整解析。
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 5 )
+@Measurement( iterations = 5, time = 5 )
+@Fork( 1 )
+public class LoadBenchmark {
+
+    @Param( { "10000", "100000", "1000000" } )
+    public int rows;
+
+    private Path directory;
+
+    private Path workbook;
+
+    private ExcelDataService excelDataService;
+
+    @Setup( Level.Trial )
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory( "eccp-bench-" );
+        workbook = BenchmarkData.createWorkbook( directory, rows );
+        excelDataService = new ExcelDataService( null, null );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() throws Exception {
+        BenchmarkData.deleteDirectory( directory );
+    }
+
+    @Benchmark
+    public ColumnarTable loadData() throws Exception {
+        return excelDataService.loadData( workbook.toString() );
+    }
+}
@@ -0,0 +1,72 @@
+package com.gwill.tools.graphics.excelcombochartplotter.benchmark;
+
+import com.gwill.tools.graphics.excelcombochartplotter.service.ExcelDataService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数值转换：{@link ExcelDataService#getNumericColumnData(String)} 转换一列并逐个读取结果。
+ * clean 为纯数值列；dirty 列混有文本形式的数字、无法转换的文本和空单元格，按文本列存储，需要逐个解析。
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class NumericColumnBenchmark {
+
+    @Param( { "100000", "1000000" } )
+    public int rows;
+
+    @Param( { "clean", "dirty" } )
+    public String column;
+
+    private ExcelDataService excelDataService;
+
+    private String columnName;
+
+    @Setup( Level.Trial )
+    public void setUp() throws Exception {
+        Path directory = Files.createTempDirectory( "eccp-bench-" );
+        try {
+            Path workbook = BenchmarkData.createWorkbook( directory, rows );
+            excelDataService = new ExcelDataService( null, null );
+            excelDataService.loadData( workbook.toString() );
+        } finally {
+            BenchmarkData.deleteDirectory( directory );
+        }
+        columnName = "dirty".equals( column ) ? BenchmarkData.DIRTY_COLUMN : BenchmarkData.SALES_COLUMN;
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() {
+        excelDataService.clear();
+    }
+
+    @Benchmark
+    public double getNumericColumnData() {
+        List<Number> values = excelDataService.getNumericColumnData( columnName );
+        double sum = 0;
+        for( Number value : values ) {
+            sum += value.doubleValue();
+        }
+        return sum;
+    }
+}
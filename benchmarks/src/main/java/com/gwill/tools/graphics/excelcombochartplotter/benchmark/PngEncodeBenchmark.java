@@ -0,0 +1,65 @@
+package com.gwill.tools.graphics.excelcombochartplotter.benchmark;
+
+import com.gwill.tools.graphics.excelcombochartplotter.io.PngEncoder;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ChartConfiguration;
+import com.gwill.tools.graphics.excelcombochartplotter.model.PngCompression;
+import com.gwill.tools.graphics.excelcombochartplotter.model.RenderOptions;
+import com.gwill.tools.graphics.excelcombochartplotter.service.ChartGenerationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PNG编码：用 {@link PngEncoder} 编码一张已绘制好的图表，输出直接丢弃，只测量过滤和压缩
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class PngEncodeBenchmark {
+
+    @Param( { "800x600", "1920x1080", "3840x2160" } )
+    public String size;
+
+    @Param( { "FAST", "BALANCED", "SMALL" } )
+    public PngCompression compression;
+
+    @Param( { "true", "false" } )
+    public boolean parallel;
+
+    private BufferedImage image;
+
+    private PngEncoder encoder;
+
+    private final OutputStream sink = OutputStream.nullOutputStream();
+
+    @Setup( Level.Trial )
+    public void setUp() throws Exception {
+        int[] dimensions = BenchmarkData.parseSize( size );
+        ChartConfiguration configuration = BenchmarkData.configuration( dimensions[0], dimensions[1] );
+        image = new ChartGenerationService( null ).renderPreview(
+            ChartGenerationService.extractSeries( BenchmarkData.loadTable( 10_000 ), configuration ),
+            configuration, dimensions[0], dimensions[1], RenderOptions.defaults() );
+        encoder = new PngEncoder( compression.getLevel(), parallel );
+    }
+
+    @Benchmark
+    public void encode() throws Exception {
+        encoder.encode( image, sink );
+    }
+}
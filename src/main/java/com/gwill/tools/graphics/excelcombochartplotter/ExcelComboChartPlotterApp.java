@@ -1,9 +1,12 @@
 package com.gwill.tools.graphics.excelcombochartplotter;
 
+import com.gwill.tools.graphics.excelcombochartplotter.cli.BatchRunner;
+import com.gwill.tools.graphics.excelcombochartplotter.server.ChartServer;
 import com.gwill.tools.graphics.excelcombochartplotter.ui.MainFrame;
 
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
+import java.util.Arrays;
 
 /**
  * Excel组合图表绘制器应用程序入口
@@ -11,6 +14,22 @@ import javax.swing.UIManager;
 public class ExcelComboChartPlotterApp {
 
     public static void main( String[] args ) {
+        // batch 子命令：无界面批量生成图表，必须在任何AWT类初始化之前开启headless模式
+        if( args.length > 0 && "batch".equals( args[0] ) ) {
+            System.setProperty( "java.awt.headless", "true" );
+            System.exit( BatchRunner.run( Arrays.copyOfRange( args, 1, args.length ), System.out, System.err ) );
+        }
+
+        // server 子命令：无界面HTTP渲染服务，启动成功后由服务线程维持进程运行
+        if( args.length > 0 && "server".equals( args[0] ) ) {
+            System.setProperty( "java.awt.headless", "true" );
+            int status = ChartServer.run( Arrays.copyOfRange( args, 1, args.length ), System.out, System.err );
+            if( status != 0 ) {
+                System.exit( status );
+            }
+            return;
+        }
+
         // 设置系统外观
         try {
             UIManager.setLookAndFeel( UIManager.getSystemLookAndFeelClassName() );
@@ -0,0 +1,91 @@
+package com.gwill.tools.graphics.excelcombochartplotter.chart;
+
+import com.gwill.tools.graphics.excelcombochartplotter.model.AggregationReducer;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 分类分箱：把相邻的分类合并为不超过像素预算的分箱，每个系列在分箱内按指定方式归约。
+ * 合并了多个分类的分箱标签为"首个分类 ~ 最后一个分类 (分类数)"，使合并在坐标轴上可见。
+ */
+public final class CategoryBinner {
+
+    private static final String RANGE_SEPARATOR = " ~ ";
+
+    private CategoryBinner() {
+    }
+
+    /**
+     * 合并分类
+     *
+     * @param data          按分类对齐的系列数据
+     * @param maxCategories 合并后的最大分类数
+     * @param reducer       归约方式
+     * @return 合并后的数据；分类数未超过上限或不合并时返回原数据
+     */
+    public static CategorySeries bin( CategorySeries data, int maxCategories, AggregationReducer reducer ) {
+        int size = data.size();
+        if( reducer == AggregationReducer.NONE || maxCategories < 1 || size <= maxCategories ) {
+            return data;
+        }
+
+        int bins = maxCategories;
+        int[] starts = new int[bins + 1];
+        for( int bin = 0; bin <= bins; bin++ ) {
+            starts[bin] = (int) ( (long) bin * size / bins );
+        }
+
+        CategoryIndex source = data.categories();
+        String[] labels = new String[bins];
+        for( int bin = 0; bin < bins; bin++ ) {
+            int first = starts[bin];
+            int last = starts[bin + 1] - 1;
+            labels[bin] = first == last
+                ? source.getKey( first )
+                : source.getKey( first ) + RANGE_SEPARATOR + source.getKey( last ) + " (" + ( last - first + 1 ) + ")";
+        }
+        CategoryIndex categories = CategoryIndex.of( labels );
+
+        Map<String, double[]> binned = new LinkedHashMap<>();
+        for( Map.Entry<String, double[]> entry : data.values().entrySet() ) {
+            double[] values = entry.getValue();
+            double[] reduced = new double[bins];
+            for( int bin = 0; bin < bins; bin++ ) {
+                reduced[bin] = reduce( values, starts[bin], starts[bin + 1], reducer );
+            }
+            binned.put( entry.getKey(), categories.toCategoryValues( reduced ) );
+        }
+        return new CategorySeries( categories, Collections.unmodifiableMap( binned ), data.reports() );
+    }
+
+    /**
+     * 归约 [start, end) 区间内的数值，忽略缺失值（NaN）；全部缺失时返回NaN
+     */
+    static double reduce( double[] values, int start, int end, AggregationReducer reducer ) {
+        double result = Double.NaN;
+        int count = 0;
+        for( int i = start; i < end; i++ ) {
+            double value = values[i];
+            if( Double.isNaN( value ) ) {
+                continue;
+            }
+            if( count == 0 ) {
+                result = value;
+            } else {
+                result = switch( reducer ) {
+                    case SUM, MEAN -> result + value;
+                    case MIN -> Math.min( result, value );
+                    case MAX -> Math.max( result, value );
+                    case LAST, NONE -> value;
+                };
+            }
+            count++;
+        }
+        if( reducer == AggregationReducer.MEAN && count > 0 ) {
+            result /= count;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,147 @@
+package com.gwill.tools.graphics.excelcombochartplotter.chart;
+
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * X轴分类索引：按首次出现的顺序去重，并记录每一行对应的分类序号。
+ * 与逐点调用DefaultCategoryDataset.addValue的语义一致：重复分类只占一个位置，取最后一次出现的值。
+ */
+public final class CategoryIndex {
+
+    private final String[] keys;
+    private final int[] rowToCategory;
+    private final Map<String, Integer> indexByKey;
+    private final boolean identity;
+
+    private CategoryIndex( String[] keys, int[] rowToCategory, Map<String, Integer> indexByKey, boolean identity ) {
+        this.keys = keys;
+        this.rowToCategory = rowToCategory;
+        this.indexByKey = indexByKey;
+        this.identity = identity;
+    }
+
+    /**
+     * 由每行的分类值构建索引
+     */
+    public static CategoryIndex of( String[] rowCategories ) {
+        Map<String, Integer> indexByKey = new HashMap<>( rowCategories.length * 4 / 3 + 1 );
+        int[] rowToCategory = new int[rowCategories.length];
+        String[] keys = new String[rowCategories.length];
+        int count = 0;
+        for( int row = 0; row < rowCategories.length; row++ ) {
+            Integer index = indexByKey.putIfAbsent( rowCategories[row], count );
+            if( index == null ) {
+                keys[count] = rowCategories[row];
+                rowToCategory[row] = count++;
+            } else {
+                rowToCategory[row] = index;
+            }
+        }
+        boolean identity = count == rowCategories.length;
+        if( !identity ) {
+            String[] trimmed = new String[count];
+            System.arraycopy( keys, 0, trimmed, 0, count );
+            keys = trimmed;
+        }
+        return new CategoryIndex( keys, rowToCategory, indexByKey, identity );
+    }
+
+    /**
+     * 分类个数
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * 行数
+     */
+    public int rowCount() {
+        return rowToCategory.length;
+    }
+
+    /**
+     * 每行是否都是不同的分类（此时行号即分类序号）
+     */
+    public boolean isIdentity() {
+        return identity;
+    }
+
+    public String getKey( int index ) {
+        return keys[index];
+    }
+
+    /**
+     * 获取分类的序号，不存在时返回-1
+     */
+    public int indexOf( Object key ) {
+        Integer index = indexByKey.get( key );
+        return index != null ? index : -1;
+    }
+
+    /**
+     * 获取指定行对应的分类序号
+     */
+    public int categoryOfRow( int row ) {
+        return rowToCategory[row];
+    }
+
+    /**
+     * 将按行排列的数值归并为按分类排列，重复分类取最后一行的值；各行分类互不相同时直接返回原数组
+     */
+    public double[] toCategoryValues( double[] rowValues ) {
+        if( identity ) {
+            return rowValues;
+        }
+        double[] values = new double[keys.length];
+        for( int row = 0; row < rowToCategory.length; row++ ) {
+            values[rowToCategory[row]] = rowValues[row];
+        }
+        return values;
+    }
+
+    /**
+     * 只保留指定序号（升序）的分类，返回新的索引，其行与分类一一对应
+     */
+    public CategoryIndex select( int[] categoryIndices ) {
+        String[] selected = new String[categoryIndices.length];
+        int[] rows = new int[categoryIndices.length];
+        Map<String, Integer> selectedIndex = new HashMap<>( categoryIndices.length * 4 / 3 + 1 );
+        for( int i = 0; i < categoryIndices.length; i++ ) {
+            selected[i] = keys[categoryIndices[i]];
+            rows[i] = i;
+            selectedIndex.put( selected[i], i );
+        }
+        return new CategoryIndex( selected, rows, selectedIndex, true );
+    }
+
+    /**
+     * 分类键的只读列表视图
+     */
+    public List<String> keys() {
+        return new KeyList( keys );
+    }
+
+    private static final class KeyList extends AbstractList<String> implements RandomAccess {
+
+        private final String[] keys;
+
+        KeyList( String[] keys ) {
+            this.keys = keys;
+        }
+
+        @Override
+        public String get( int index ) {
+            return keys[index];
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+    }
+}
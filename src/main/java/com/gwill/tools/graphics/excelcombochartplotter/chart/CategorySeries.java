@@ -0,0 +1,73 @@
+package com.gwill.tools.graphics.excelcombochartplotter.chart;
+
+import com.gwill.tools.graphics.excelcombochartplotter.data.ChartData;
+import com.gwill.tools.graphics.excelcombochartplotter.data.CoercionReport;
+import com.gwill.tools.graphics.excelcombochartplotter.data.NumericSeries;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按X轴分类对齐的系列数据：每个系列数组的长度等于分类个数
+ *
+ * @param categories 分类索引
+ * @param values     以列名为键、按分类排列的系列数值
+ * @param reports    以列名为键的数值转换报告，统计的是提取时的原始数据行，不随分类合并或降采样变化
+ */
+public record CategorySeries(
+    CategoryIndex categories,
+    Map<String, double[]> values,
+    Map<String, CoercionReport> reports
+) {
+
+    /**
+     * 由按行提取的图表数据构建，重复分类只保留最后一行的值
+     */
+    public static CategorySeries of( ChartData chartData ) {
+        CategoryIndex categories = CategoryIndex.of( chartData.categories() );
+        Map<String, double[]> values = new LinkedHashMap<>();
+        Map<String, CoercionReport> reports = new LinkedHashMap<>();
+        for( Map.Entry<String, NumericSeries> entry : chartData.series().entrySet() ) {
+            values.put( entry.getKey(), categories.toCategoryValues( entry.getValue().values() ) );
+            reports.put( entry.getKey(), entry.getValue().report() );
+        }
+        return new CategorySeries( categories, Collections.unmodifiableMap( values ), Collections.unmodifiableMap( reports ) );
+    }
+
+    /**
+     * 分类个数
+     */
+    public int size() {
+        return categories.size();
+    }
+
+    /**
+     * 获取指定列的系列数值
+     *
+     * @throws IllegalArgumentException 如果该列不存在
+     */
+    public double[] getValues( String columnName ) {
+        double[] series = values.get( columnName );
+        if( series == null ) {
+            throw new IllegalArgumentException( "系列不存在: " + columnName );
+        }
+        return series;
+    }
+
+    /**
+     * 只保留指定序号（升序）的分类
+     */
+    public CategorySeries select( int[] categoryIndices ) {
+        Map<String, double[]> selected = new LinkedHashMap<>();
+        for( Map.Entry<String, double[]> entry : values.entrySet() ) {
+            double[] source = entry.getValue();
+            double[] target = new double[categoryIndices.length];
+            for( int i = 0; i < categoryIndices.length; i++ ) {
+                target[i] = source[categoryIndices[i]];
+            }
+            selected.put( entry.getKey(), target );
+        }
+        return new CategorySeries( categories.select( categoryIndices ), Collections.unmodifiableMap( selected ), reports );
+    }
+}
@@ -0,0 +1,139 @@
+package com.gwill.tools.graphics.excelcombochartplotter.chart;
+
+import org.jfree.chart.util.Args;
+import org.jfree.data.UnknownKeyException;
+import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.general.AbstractDataset;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 基于列式数组的只读CategoryDataset：所有系列共享同一个分类索引，每个系列一个double[]，不复制也不装箱存储。
+ * 数组中的NaN（空单元格或无法转换的单元格）返回null，绘图时显示为缺口。
+ */
+@SuppressWarnings( { "rawtypes", "unchecked" } )
+public class ColumnarCategoryDataset extends AbstractDataset implements CategoryDataset {
+
+    private final CategoryIndex categories;
+    private final List<String> seriesKeys;
+    private final List<double[]> seriesValues;
+    private final List<String> columnKeys;
+
+    private ColumnarCategoryDataset( CategoryIndex categories, List<String> seriesKeys, List<double[]> seriesValues ) {
+        this.categories = categories;
+        this.seriesKeys = Collections.unmodifiableList( seriesKeys );
+        this.seriesValues = seriesValues;
+        this.columnKeys = Collections.unmodifiableList( categories.keys() );
+    }
+
+    /**
+     * 创建构建器
+     *
+     * @param categories 共享的分类索引
+     */
+    public static Builder builder( CategoryIndex categories ) {
+        return new Builder( categories );
+    }
+
+    @Override
+    public Comparable getRowKey( int row ) {
+        return seriesKeys.get( row );
+    }
+
+    @Override
+    public int getRowIndex( Comparable key ) {
+        Args.nullNotPermitted( key, "key" );
+        return seriesKeys.indexOf( key );
+    }
+
+    @Override
+    public List getRowKeys() {
+        return seriesKeys;
+    }
+
+    @Override
+    public Comparable getColumnKey( int column ) {
+        return categories.getKey( column );
+    }
+
+    @Override
+    public int getColumnIndex( Comparable key ) {
+        Args.nullNotPermitted( key, "key" );
+        return categories.indexOf( key );
+    }
+
+    @Override
+    public List getColumnKeys() {
+        return columnKeys;
+    }
+
+    @Override
+    public Number getValue( Comparable rowKey, Comparable columnKey ) {
+        int row = getRowIndex( rowKey );
+        if( row < 0 ) {
+            throw new UnknownKeyException( "Row key (" + rowKey + ") not recognised." );
+        }
+        int column = getColumnIndex( columnKey );
+        if( column < 0 ) {
+            throw new UnknownKeyException( "Column key (" + columnKey + ") not recognised." );
+        }
+        return getValue( row, column );
+    }
+
+    @Override
+    public int getRowCount() {
+        return seriesKeys.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return categories.size();
+    }
+
+    @Override
+    public Number getValue( int row, int column ) {
+        double value = seriesValues.get( row )[column];
+        return Double.isNaN( value ) ? null : value;
+    }
+
+    /**
+     * 数据集构建器
+     */
+    public static final class Builder {
+
+        private final CategoryIndex categories;
+        private final List<String> seriesKeys = new ArrayList<>();
+        private final List<double[]> seriesValues = new ArrayList<>();
+
+        private Builder( CategoryIndex categories ) {
+            this.categories = categories;
+        }
+
+        /**
+         * 添加一个系列，重复的系列名会被忽略
+         *
+         * @param key    系列名
+         * @param values 按分类排列的数值，长度须与分类个数一致
+         */
+        public Builder addSeries( String key, double[] values ) {
+            if( values.length != categories.size() ) {
+                throw new IllegalArgumentException( "系列长度与分类个数不一致: " + key );
+            }
+            if( !seriesKeys.contains( key ) ) {
+                seriesKeys.add( key );
+                seriesValues.add( values );
+            }
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return seriesKeys.isEmpty();
+        }
+
+        public ColumnarCategoryDataset build() {
+            return new ColumnarCategoryDataset( categories, new ArrayList<>( seriesKeys ), new ArrayList<>( seriesValues ) );
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.gwill.tools.graphics.excelcombochartplotter.chart;
+
+import com.gwill.tools.graphics.excelcombochartplotter.model.DownsamplingMode;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * 折线系列降采样：数据点远多于输出像素时，只保留决定视觉形状的点。
+ * <p>
+ * 所有系列共享同一条分类轴，因此先对每个折线系列分别选点，再取并集作为保留的分类，其余系列（包括柱形系列）也投影到这些分类上。
+ */
+public final class Downsampler {
+
+    private Downsampler() {
+    }
+
+    /**
+     * 对折线系列降采样
+     *
+     * @param data        按分类对齐的系列数据
+     * @param lineSeries  折线系列的列名
+     * @param targetCount 每个系列保留的目标点数（通常为像素宽度的两倍）
+     * @param mode        降采样方式
+     * @return 降采样后的数据；无需降采样时返回原数据
+     */
+    public static CategorySeries downsample( CategorySeries data, Collection<String> lineSeries,
+                                             int targetCount, DownsamplingMode mode ) {
+        int size = data.size();
+        if( mode == DownsamplingMode.NONE || lineSeries.isEmpty() || targetCount < 3 || size <= targetCount ) {
+            return data;
+        }
+
+        BitSet keep = new BitSet( size );
+        for( String column : lineSeries ) {
+            double[] values = data.getValues( column );
+            if( mode == DownsamplingMode.MIN_MAX ) {
+                minMax( values, Math.max( 1, targetCount / 2 ), keep );
+            } else {
+                lttb( values, targetCount, keep );
+            }
+        }
+        if( keep.cardinality() >= size ) {
+            return data;
+        }
+        return data.select( keep.stream().toArray() );
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets：首尾点固定保留，中间均分为 threshold-2 个桶，
+     * 每个桶选出与上一个选中点、下一个桶平均点构成面积最大三角形的点。
+     * 缺失值（NaN）不参与平均和面积计算；整个桶都缺失时保留桶的第一个点，使图中的空缺得以保留
+     */
+    static void lttb( double[] values, int threshold, BitSet keep ) {
+        int size = values.length;
+        keep.set( 0 );
+        keep.set( size - 1 );
+
+        double bucketSize = (double) ( size - 2 ) / ( threshold - 2 );
+        // 上一个选中的有值点，首个点缺失时取第一个有值的点
+        int previous = 0;
+        while( previous < size - 1 && Double.isNaN( values[previous] ) ) {
+            previous++;
+        }
+        for( int bucket = 0; bucket < threshold - 2; bucket++ ) {
+            int start = (int) Math.floor( bucket * bucketSize ) + 1;
+            int end = Math.min( (int) Math.floor( ( bucket + 1 ) * bucketSize ) + 1, size - 1 );
+
+            // 下一个桶中有值点的平均点；下一个桶全部缺失时以上一个选中点的值代替
+            int nextStart = end;
+            int nextEnd = Math.min( (int) Math.floor( ( bucket + 2 ) * bucketSize ) + 1, size );
+            double previousY = values[previous];
+            double averageX = 0;
+            double averageY = 0;
+            int nextCount = 0;
+            for( int i = nextStart; i < Math.max( nextEnd, nextStart + 1 ) && i < size; i++ ) {
+                if( !Double.isNaN( values[i] ) ) {
+                    averageX += i;
+                    averageY += values[i];
+                    nextCount++;
+                }
+            }
+            if( nextCount > 0 ) {
+                averageX /= nextCount;
+                averageY /= nextCount;
+            } else {
+                averageX = nextStart;
+                averageY = previousY;
+            }
+
+            double maxArea = -1;
+            int selected = -1;
+            for( int i = start; i < end; i++ ) {
+                if( Double.isNaN( values[i] ) ) {
+                    continue;
+                }
+                double area = Math.abs( ( previous - averageX ) * ( values[i] - previousY )
+                    - ( previous - i ) * ( averageY - previousY ) );
+                if( area > maxArea ) {
+                    maxArea = area;
+                    selected = i;
+                }
+            }
+            if( selected < 0 ) {
+                keep.set( Math.min( start, size - 1 ) );
+                continue;
+            }
+            keep.set( selected );
+            previous = selected;
+        }
+    }
+
+    /**
+     * 最小/最大值抽取：均分为若干桶，每个桶保留最小值和最大值所在的点，首尾点固定保留。
+     * 缺失值（NaN）不参与比较；整个桶都缺失时保留桶的第一个点，使图中的空缺得以保留
+     */
+    static void minMax( double[] values, int buckets, BitSet keep ) {
+        int size = values.length;
+        keep.set( 0 );
+        keep.set( size - 1 );
+        double bucketSize = (double) size / buckets;
+        for( int bucket = 0; bucket < buckets; bucket++ ) {
+            int start = (int) Math.floor( bucket * bucketSize );
+            int end = Math.min( (int) Math.floor( ( bucket + 1 ) * bucketSize ), size );
+            if( start >= end ) {
+                continue;
+            }
+            int minIndex = -1;
+            int maxIndex = -1;
+            for( int i = start; i < end; i++ ) {
+                double value = values[i];
+                if( Double.isNaN( value ) ) {
+                    continue;
+                }
+                if( minIndex < 0 || value < values[minIndex] ) {
+                    minIndex = i;
+                }
+                if( maxIndex < 0 || value > values[maxIndex] ) {
+                    maxIndex = i;
+                }
+            }
+            if( minIndex < 0 ) {
+                keep.set( start );
+                continue;
+            }
+            keep.set( minIndex );
+            keep.set( maxIndex );
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.gwill.tools.graphics.excelcombochartplotter.chart;
+
+import org.jfree.chart.axis.AxisState;
+import org.jfree.chart.axis.CategoryAxis;
+import org.jfree.chart.axis.CategoryLabelPosition;
+import org.jfree.chart.axis.CategoryLabelWidthType;
+import org.jfree.chart.axis.CategoryTick;
+import org.jfree.chart.entity.EntityCollection;
+import org.jfree.chart.entity.TickLabelEntity;
+import org.jfree.chart.plot.CategoryPlot;
+import org.jfree.chart.plot.PlotRenderingInfo;
+import org.jfree.chart.text.TextBlock;
+import org.jfree.chart.ui.RectangleEdge;
+
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 自动稀疏刻度标签的分类轴：根据字体度量和轴长度计算步长N，只为每第N个分类创建刻度和标签。
+ * <p>
+ * JFreeChart默认按刻度在列表中的序号定位标签，因此这里的刻度记录所属分类的序号，绘制标签时按该序号定位；
+ * 刻度线仍按分类绘制。刻度的数量、标签的测量和排版开销都取决于像素宽度，而不是分类数量。
+ */
+@SuppressWarnings( "rawtypes" )
+public class ThinningCategoryAxis extends CategoryAxis {
+
+    // 采样测量标签宽度时最多取的分类数
+    private static final int WIDTH_SAMPLE_SIZE = 64;
+
+    // 相邻标签之间至少保留的像素间隙
+    private static final double LABEL_GAP = 2.0;
+
+    // 旋转角度的正弦值低于此值时按水平标签处理
+    private static final double HORIZONTAL_SIN_THRESHOLD = 0.1;
+
+    public ThinningCategoryAxis( String label ) {
+        super( label );
+    }
+
+    @Override
+    public List refreshTicks( Graphics2D g2, AxisState state, Rectangle2D dataArea, RectangleEdge edge ) {
+        List<CategoryTick> ticks = new ArrayList<>();
+        if( dataArea.getHeight() <= 0.0 || dataArea.getWidth() < 0.0 ) {
+            return ticks;
+        }
+        CategoryPlot plot = (CategoryPlot) getPlot();
+        List<?> categories = plot.getCategoriesForAxis( this );
+        if( categories == null || categories.isEmpty() ) {
+            state.setMax( 0.0 );
+            return ticks;
+        }
+
+        int count = categories.size();
+        CategoryLabelPosition position = getCategoryLabelPositions().getLabelPosition( edge );
+        float ratio = getMaximumCategoryLabelWidthRatio();
+        if( ratio <= 0.0f ) {
+            ratio = position.getWidthRatio();
+        }
+        float maxLabelWidth;
+        if( position.getWidthType() == CategoryLabelWidthType.RANGE ) {
+            maxLabelWidth = (float) ( RectangleEdge.isLeftOrRight( edge ) ? dataArea.getWidth() : dataArea.getHeight() ) * ratio;
+        } else {
+            maxLabelWidth = -1.0f;
+        }
+
+        int step = labelStep( g2, categories, position, maxLabelWidth, dataArea, edge );
+        if( maxLabelWidth < 0.0f ) {
+            // 按分类宽度限制标签时，每个标签可以占用 step 个分类的宽度
+            maxLabelWidth = (float) ( calculateCategorySize( count, dataArea, edge ) * step ) * ratio;
+        }
+
+        double max = 0.0;
+        for( int i = 0; i < count; i += step ) {
+            Comparable category = (Comparable) categories.get( i );
+            g2.setFont( getTickLabelFont( category ) );
+            TextBlock label = createLabel( category, maxLabelWidth, edge, g2 );
+            if( edge == RectangleEdge.TOP || edge == RectangleEdge.BOTTOM ) {
+                max = Math.max( max, calculateTextBlockHeight( label, position, g2 ) );
+            } else {
+                max = Math.max( max, calculateTextBlockWidth( label, position, g2 ) );
+            }
+            ticks.add( new IndexedTick( i, count, category, label, position ) );
+        }
+        state.setMax( max );
+        return ticks;
+    }
+
+    /**
+     * 与 {@link CategoryAxis} 的实现相同，只是按刻度记录的分类序号（而不是刻度在列表中的序号）确定标签位置
+     */
+    @Override
+    protected AxisState drawCategoryLabels( Graphics2D g2, Rectangle2D plotArea, Rectangle2D dataArea, RectangleEdge edge,
+                                            AxisState state, PlotRenderingInfo plotState ) {
+        if( !isTickLabelsVisible() ) {
+            return state;
+        }
+        List<?> ticks = refreshTicks( g2, state, plotArea, edge );
+        state.setTicks( ticks );
+        CategoryLabelPosition position = getCategoryLabelPositions().getLabelPosition( edge );
+        double offset = getCategoryLabelPositionOffset();
+        for( Object object : ticks ) {
+            IndexedTick tick = (IndexedTick) object;
+            Comparable category = tick.getCategory();
+            g2.setFont( getTickLabelFont( category ) );
+            g2.setPaint( getTickLabelPaint( category ) );
+
+            double start = getCategoryStart( tick.index, tick.count, dataArea, edge );
+            double end = getCategoryEnd( tick.index, tick.count, dataArea, edge );
+            Rectangle2D area;
+            if( edge == RectangleEdge.TOP ) {
+                area = new Rectangle2D.Double( start, state.getCursor() - offset - state.getMax(), end - start, state.getMax() );
+            } else if( edge == RectangleEdge.BOTTOM ) {
+                area = new Rectangle2D.Double( start, state.getCursor() + offset, end - start, state.getMax() );
+            } else if( edge == RectangleEdge.LEFT ) {
+                area = new Rectangle2D.Double( state.getCursor() - offset - state.getMax(), start, state.getMax(), end - start );
+            } else {
+                area = new Rectangle2D.Double( state.getCursor() + offset, start, state.getMax(), end - start );
+            }
+            Point2D anchor = position.getCategoryAnchor().getAnchorPoint( area );
+            float x = (float) anchor.getX();
+            float y = (float) anchor.getY();
+            TextBlock label = tick.getLabel();
+            label.draw( g2, x, y, position.getLabelAnchor(), x, y, position.getAngle() );
+
+            if( plotState != null && plotState.getOwner() != null ) {
+                EntityCollection entities = plotState.getOwner().getEntityCollection();
+                if( entities != null ) {
+                    Shape bounds = label.calculateBounds( g2, x, y, position.getLabelAnchor(), x, y, position.getAngle() );
+                    entities.add( new TickLabelEntity( bounds, getCategoryLabelToolTip( category ), getCategoryLabelURL( category ) ) );
+                }
+            }
+        }
+
+        double size = state.getMax() + offset;
+        if( edge == RectangleEdge.TOP ) {
+            state.cursorUp( size );
+        } else if( edge == RectangleEdge.BOTTOM ) {
+            state.cursorDown( size );
+        } else if( edge == RectangleEdge.LEFT ) {
+            state.cursorLeft( size );
+        } else {
+            state.cursorRight( size );
+        }
+        return state;
+    }
+
+    /**
+     * 计算标签步长：相邻两个标签沿轴方向所需的距离除以分类间距
+     */
+    private int labelStep( Graphics2D g2, List<?> categories, CategoryLabelPosition position, float maxLabelWidth,
+                           Rectangle2D dataArea, RectangleEdge edge ) {
+        int count = categories.size();
+        if( count < 2 ) {
+            return 1;
+        }
+        double spacing = getCategoryMiddle( 1, count, dataArea, edge ) - getCategoryMiddle( 0, count, dataArea, edge );
+        if( spacing <= 0.0 ) {
+            return count;
+        }
+
+        FontMetrics metrics = g2.getFontMetrics( getTickLabelFont() );
+        double sin = Math.abs( Math.sin( position.getAngle() ) );
+        boolean alongAxis = RectangleEdge.isTopOrBottom( edge );
+        double required;
+        if( alongAxis ? sin < HORIZONTAL_SIN_THRESHOLD : sin > 1.0 - HORIZONTAL_SIN_THRESHOLD ) {
+            // 标签方向与轴平行，需要容下整段文字
+            required = sampleMaxWidth( metrics, categories, maxLabelWidth );
+        } else {
+            // 旋转后的标签彼此平行，沿轴方向只需错开一个行高
+            double cross = alongAxis ? sin : Math.abs( Math.cos( position.getAngle() ) );
+            required = metrics.getHeight() / cross;
+        }
+        return Math.max( 1, (int) Math.ceil( ( required + LABEL_GAP ) / spacing ) );
+    }
+
+    /**
+     * 均匀采样部分分类，测量标签的最大宽度
+     */
+    private static double sampleMaxWidth( FontMetrics metrics, List<?> categories, float maxLabelWidth ) {
+        int count = categories.size();
+        int samples = Math.min( count, WIDTH_SAMPLE_SIZE );
+        double max = 0.0;
+        for( int s = 0; s < samples; s++ ) {
+            int index = (int) ( (long) s * ( count - 1 ) / Math.max( 1, samples - 1 ) );
+            max = Math.max( max, metrics.stringWidth( String.valueOf( categories.get( index ) ) ) );
+        }
+        return maxLabelWidth > 0.0f ? Math.min( max, maxLabelWidth ) : max;
+    }
+
+    /**
+     * 记录所属分类序号的刻度
+     */
+    private static final class IndexedTick extends CategoryTick {
+
+        private final int index;
+        private final int count;
+
+        IndexedTick( int index, int count, Comparable category, TextBlock label, CategoryLabelPosition position ) {
+            super( category, label, position.getLabelAnchor(), position.getRotationAnchor(), position.getAngle() );
+            this.index = index;
+            this.count = count;
+        }
+    }
+}
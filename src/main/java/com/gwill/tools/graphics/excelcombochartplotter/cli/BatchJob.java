@@ -0,0 +1,22 @@
+package com.gwill.tools.graphics.excelcombochartplotter.cli;
+
+import com.gwill.tools.graphics.excelcombochartplotter.model.ChartConfiguration;
+import com.gwill.tools.graphics.excelcombochartplotter.model.RenderProfile;
+
+import java.nio.file.Path;
+
+/**
+ * 批处理作业：从一个Excel文件按图表配置生成一张图片
+ *
+ * @param input         Excel文件路径
+ * @param configuration 图表配置
+ * @param output        输出图片路径
+ * @param profile       渲染质量档位
+ */
+public record BatchJob(
+    Path input,
+    ChartConfiguration configuration,
+    Path output,
+    RenderProfile profile
+) {
+}
@@ -0,0 +1,79 @@
+package com.gwill.tools.graphics.excelcombochartplotter.cli;
+
+import com.gwill.tools.graphics.excelcombochartplotter.data.CoercionReport;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 批处理运行汇总：吞吐量、失败作业、每个作业的耗时及含空白或无法转换单元格的系列
+ *
+ * @param results   按作业文件顺序排列的结果
+ * @param workers   并发数
+ * @param wallNanos 总耗时（纳秒）
+ */
+public record BatchReport(
+    List<JobResult> results,
+    int workers,
+    long wallNanos
+) {
+
+    public long failureCount() {
+        return results.stream().filter( result -> !result.succeeded() ).count();
+    }
+
+    /**
+     * 输出汇总报告
+     */
+    public void print( PrintStream out ) {
+        out.println( "Job timings (load / render / total ms):" );
+        for( int i = 0; i < results.size(); i++ ) {
+            JobResult result = results.get( i );
+            out.printf( Locale.ROOT, "  #%-4d %-6s %8.1f %8.1f %8.1f  %s%n",
+                i + 1,
+                result.succeeded() ? "OK" : "FAILED",
+                millis( result.loadNanos() ),
+                millis( result.renderNanos() ),
+                millis( result.totalNanos() ),
+                result.job().output() );
+        }
+
+        boolean gapsPrinted = false;
+        for( int i = 0; i < results.size(); i++ ) {
+            for( Map.Entry<String, CoercionReport> entry : results.get( i ).coercion().entrySet() ) {
+                CoercionReport report = entry.getValue();
+                if( report.isClean() ) {
+                    continue;
+                }
+                if( !gapsPrinted ) {
+                    out.println( "Series with gaps (blank / unparseable cells):" );
+                    gapsPrinted = true;
+                }
+                out.printf( "  #%d %s: %d / %d%n", i + 1, entry.getKey(), report.blank(), report.rejected() );
+            }
+        }
+
+        long failures = failureCount();
+        if( failures > 0 ) {
+            out.println( "Failures:" );
+            for( int i = 0; i < results.size(); i++ ) {
+                JobResult result = results.get( i );
+                if( !result.succeeded() ) {
+                    out.printf( "  #%d %s: %s%n", i + 1, result.job().input(), result.error() );
+                }
+            }
+        }
+
+        double seconds = wallNanos / 1e9;
+        out.printf( Locale.ROOT, "%d jobs, %d succeeded, %d failed, %d workers%n",
+            results.size(), results.size() - failures, failures, workers );
+        out.printf( Locale.ROOT, "Wall time %.2f s, throughput %.2f charts/s%n",
+            seconds, seconds > 0 ? ( results.size() - failures ) / seconds : 0.0 );
+    }
+
+    private static double millis( long nanos ) {
+        return nanos / 1e6;
+    }
+}
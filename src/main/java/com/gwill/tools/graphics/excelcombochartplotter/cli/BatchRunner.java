@@ -0,0 +1,153 @@
+package com.gwill.tools.graphics.excelcombochartplotter.cli;
+
+import com.gwill.tools.graphics.excelcombochartplotter.data.CoercionReport;
+import com.gwill.tools.graphics.excelcombochartplotter.data.ColumnarDiskCache;
+import com.gwill.tools.graphics.excelcombochartplotter.data.ColumnarTable;
+import com.gwill.tools.graphics.excelcombochartplotter.model.RenderOptions;
+import com.gwill.tools.graphics.excelcombochartplotter.service.ChartGenerationService;
+import com.gwill.tools.graphics.excelcombochartplotter.service.ExcelDataService;
+import com.gwill.tools.graphics.excelcombochartplotter.service.WorkbookCache;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 无界面批处理：按作业文件在工作线程池中生成多张图表。
+ * <p>
+ * 各作业从加载得到的不可变数据快照并发生成图表，同一Excel文件的解码结果通过共享的内存缓存和磁盘缓存复用。
+ * 用法：{@code java -jar excel-combo-chart-plotter.jar batch <作业文件> [--workers N]}
+ */
+public final class BatchRunner {
+
+    private BatchRunner() {
+    }
+
+    /**
+     * 解析命令行参数并运行批处理
+     *
+     * @param args 命令行参数（不含 batch 子命令本身）
+     * @param out  汇总输出
+     * @param err  错误输出
+     * @return 进程退出码：0 全部成功，1 存在失败作业，2 参数或作业文件错误
+     */
+    public static int run( String[] args, PrintStream out, PrintStream err ) {
+        Path jobFilePath = null;
+        int workers = 0;
+        ColumnarDiskCache diskCache = ColumnarDiskCache.fromSystemProperties();
+        for( int i = 0; i < args.length; i++ ) {
+            if( "--workers".equals( args[i] ) && i + 1 < args.length ) {
+                try {
+                    workers = Integer.parseInt( args[++i] );
+                } catch( NumberFormatException e ) {
+                    err.println( "Invalid --workers value: " + args[i] );
+                    return 2;
+                }
+            } else if( "--cache-dir".equals( args[i] ) && i + 1 < args.length ) {
+                diskCache = ColumnarDiskCache.inDirectory( Path.of( args[++i] ) );
+            } else if( jobFilePath == null && !args[i].startsWith( "--" ) ) {
+                jobFilePath = Path.of( args[i] );
+            } else {
+                err.println( "Unknown argument: " + args[i] );
+                return 2;
+            }
+        }
+        if( jobFilePath == null ) {
+            err.println( "Usage: batch <job-file.json> [--workers N] [--cache-dir DIR]" );
+            return 2;
+        }
+
+        JobFile jobFile;
+        try {
+            jobFile = JobFile.read( jobFilePath );
+        } catch( Exception e ) {
+            err.println( "Failed to read job file " + jobFilePath + ": " + e.getMessage() );
+            return 2;
+        }
+
+        if( workers <= 0 ) {
+            workers = jobFile.workers() > 0 ? jobFile.workers() : Runtime.getRuntime().availableProcessors();
+        }
+        BatchReport report = runJobs( jobFile.jobs(), workers, diskCache );
+        report.print( out );
+        return report.failureCount() == 0 ? 0 : 1;
+    }
+
+    /**
+     * 在指定并发数的线程池中执行所有作业
+     *
+     * @param jobs    作业列表
+     * @param workers 并发数
+     * @return 运行汇总，结果顺序与作业顺序一致
+     */
+    public static BatchReport runJobs( List<BatchJob> jobs, int workers ) {
+        return runJobs( jobs, workers, ColumnarDiskCache.fromSystemProperties() );
+    }
+
+    /**
+     * 在指定并发数的线程池中执行所有作业
+     *
+     * @param jobs      作业列表
+     * @param workers   并发数
+     * @param diskCache 列式数据磁盘缓存，为null时不使用
+     * @return 运行汇总，结果顺序与作业顺序一致
+     */
+    public static BatchReport runJobs( List<BatchJob> jobs, int workers, ColumnarDiskCache diskCache ) {
+        int poolSize = Math.max( 1, Math.min( workers, jobs.size() ) );
+        long start = System.nanoTime();
+        List<JobResult> results = new ArrayList<>( jobs.size() );
+        ExcelDataService excelDataService = new ExcelDataService( WorkbookCache.shared(), diskCache );
+        ChartGenerationService chartGenerationService = new ChartGenerationService();
+        try( ExecutorService executor = Executors.newFixedThreadPool( poolSize ) ) {
+            List<Future<JobResult>> futures = new ArrayList<>( jobs.size() );
+            for( BatchJob job : jobs ) {
+                futures.add( executor.submit( (Callable<JobResult>) () -> runJob( job, excelDataService, chartGenerationService ) ) );
+            }
+            for( int i = 0; i < futures.size(); i++ ) {
+                try {
+                    results.add( futures.get( i ).get() );
+                } catch( ExecutionException e ) {
+                    results.add( JobResult.failed( jobs.get( i ), 0, 0, String.valueOf( e.getCause() ) ) );
+                } catch( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                    results.add( JobResult.failed( jobs.get( i ), 0, 0, "interrupted" ) );
+                }
+            }
+        }
+        return new BatchReport( List.copyOf( results ), poolSize, System.nanoTime() - start );
+    }
+
+    private static JobResult runJob( BatchJob job, ExcelDataService excelDataService, ChartGenerationService chartGenerationService ) {
+        long start = System.nanoTime();
+        long loaded = start;
+        try {
+            if( !job.configuration().isValid() ) {
+                throw new Exception( "图表配置无效" );
+            }
+            ColumnarTable table = excelDataService.loadData( job.input().toString(), job.configuration().getReferencedColumns() );
+            loaded = System.nanoTime();
+
+            Path parent = job.output().toAbsolutePath().getParent();
+            if( parent != null ) {
+                Files.createDirectories( parent );
+            }
+            Map<String, CoercionReport> coercion = chartGenerationService.generateChart( table, job.configuration(),
+                job.output().toString(), RenderOptions.forProfile( job.profile() ) );
+            return new JobResult( job, loaded - start, System.nanoTime() - loaded, null, coercion );
+        } catch( Exception e ) {
+            long end = System.nanoTime();
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+            return loaded == start
+                ? JobResult.failed( job, end - start, 0, message )
+                : JobResult.failed( job, loaded - start, end - loaded, message );
+        }
+    }
+}
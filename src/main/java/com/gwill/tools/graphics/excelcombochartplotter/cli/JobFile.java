@@ -0,0 +1,107 @@
+package com.gwill.tools.graphics.excelcombochartplotter.cli;
+
+import com.gwill.tools.graphics.excelcombochartplotter.json.ChartConfigurationJson;
+import com.gwill.tools.graphics.excelcombochartplotter.json.JsonParser;
+import com.gwill.tools.graphics.excelcombochartplotter.model.RenderProfile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 批处理作业文件（JSON）
+ * <pre>
+ * {
+ *   "workers": 4,
+ *   "jobs": [
+ *     {
+ *       "input": "data/sales.xlsx",
+ *       "output": "out/sales.png",
+ *       "xAxis": "月份",
+ *       "series": [ { "column": "销售额", "type": "BAR" } ],
+ *       "image": { "width": 1024, "height": 768 },
+ *       "profile": "DRAFT"
+ *     }
+ *   ]
+ * }
+ * </pre>
+ * 顶层也可以直接是作业数组。每个作业除 input / output / profile 外的字段按 {@link ChartConfigurationJson} 解析；
+ * profile 为可选的渲染质量档位（DRAFT 或 FINAL，默认 FINAL），批量生成缩略图时可用 DRAFT 加快渲染。
+ * 相对路径相对于作业文件所在目录。
+ *
+ * @param jobs    作业列表
+ * @param workers 作业文件指定的并发数，未指定时为0
+ */
+public record JobFile(
+    List<BatchJob> jobs,
+    int workers
+) {
+
+    /**
+     * 读取作业文件
+     *
+     * @param path 作业文件路径
+     * @return 作业文件内容
+     * @throws IOException 如果读取失败或格式错误
+     */
+    public static JobFile read( Path path ) throws IOException {
+        Object json = JsonParser.parse( Files.readString( path, StandardCharsets.UTF_8 ) );
+        Path baseDir = path.toAbsolutePath().getParent();
+
+        int workers = 0;
+        Object jobsJson = json;
+        if( json instanceof Map<?, ?> root ) {
+            jobsJson = root.get( "jobs" );
+            if( root.get( "workers" ) instanceof Double value ) {
+                workers = value.intValue();
+            }
+        }
+        if( !( jobsJson instanceof List<?> jobList ) ) {
+            throw new IOException( "作业文件缺少作业列表（jobs）" );
+        }
+
+        List<BatchJob> jobs = new ArrayList<>( jobList.size() );
+        for( int i = 0; i < jobList.size(); i++ ) {
+            try {
+                jobs.add( readJob( jobList.get( i ), baseDir ) );
+            } catch( IOException e ) {
+                throw new IOException( "第 " + ( i + 1 ) + " 个作业配置错误: " + e.getMessage(), e );
+            }
+        }
+        return new JobFile( List.copyOf( jobs ), workers );
+    }
+
+    private static BatchJob readJob( Object json, Path baseDir ) throws IOException {
+        if( !( json instanceof Map<?, ?> job ) ) {
+            throw new IOException( "作业必须是JSON对象" );
+        }
+        if( !( job.get( "input" ) instanceof String input ) || input.isBlank() ) {
+            throw new IOException( "缺少字段: input" );
+        }
+        if( !( job.get( "output" ) instanceof String output ) || output.isBlank() ) {
+            throw new IOException( "缺少字段: output" );
+        }
+        return new BatchJob(
+            baseDir.resolve( input ),
+            ChartConfigurationJson.fromJson( job ),
+            baseDir.resolve( output ),
+            readProfile( job.get( "profile" ) )
+        );
+    }
+
+    private static RenderProfile readProfile( Object value ) throws IOException {
+        if( value == null ) {
+            return RenderProfile.FINAL;
+        }
+        try {
+            return RenderProfile.valueOf( value.toString().trim().toUpperCase( Locale.ROOT ) );
+        } catch( IllegalArgumentException e ) {
+            throw new IOException( "无法识别的渲染质量档位: " + value );
+        }
+    }
+}
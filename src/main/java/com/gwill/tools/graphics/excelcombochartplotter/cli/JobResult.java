@@ -0,0 +1,38 @@
+package com.gwill.tools.graphics.excelcombochartplotter.cli;
+
+import com.gwill.tools.graphics.excelcombochartplotter.data.CoercionReport;
+
+import java.util.Map;
+
+/**
+ * 单个批处理作业的执行结果
+ *
+ * @param job         作业
+ * @param loadNanos   加载数据耗时（纳秒）
+ * @param renderNanos 生成并保存图片耗时（纳秒）
+ * @param error       失败原因，成功时为null
+ * @param coercion    以列名为键的数值转换报告，失败时为空
+ */
+public record JobResult(
+    BatchJob job,
+    long loadNanos,
+    long renderNanos,
+    String error,
+    Map<String, CoercionReport> coercion
+) {
+
+    /**
+     * 失败的作业
+     */
+    public static JobResult failed( BatchJob job, long loadNanos, long renderNanos, String error ) {
+        return new JobResult( job, loadNanos, renderNanos, error, Map.of() );
+    }
+
+    public boolean succeeded() {
+        return error == null;
+    }
+
+    public long totalNanos() {
+        return loadNanos + renderNanos;
+    }
+}
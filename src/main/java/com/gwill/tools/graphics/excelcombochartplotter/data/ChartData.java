@@ -0,0 +1,70 @@
+package com.gwill.tools.graphics.excelcombochartplotter.data;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 一张图表所需的全部数据：X轴分类及各系列的数值
+ *
+ * @param categories 每行的X轴分类
+ * @param series     以列名为键的系列数值，按请求顺序排列
+ */
+public record ChartData(
+    String[] categories,
+    Map<String, NumericSeries> series
+) {
+
+    /**
+     * 一次遍历数据行，同时提取X轴分类和所有系列的数值
+     *
+     * @param table         数据表
+     * @param xAxisColumn   X轴列名
+     * @param seriesColumns 系列列名（重复的列名只提取一次）
+     * @throws IllegalArgumentException 如果某列不存在
+     */
+    public static ChartData extract( ColumnarTable table, String xAxisColumn, Collection<String> seriesColumns ) {
+        Column xColumn = table.getColumn( xAxisColumn );
+        Map<String, SeriesBuffer> buffers = new LinkedHashMap<>();
+        for( String columnName : seriesColumns ) {
+            if( !buffers.containsKey( columnName ) ) {
+                buffers.put( columnName, new SeriesBuffer( table.getColumn( columnName ) ) );
+            }
+        }
+        SeriesBuffer[] bufferArray = buffers.values().toArray( new SeriesBuffer[0] );
+
+        int rowCount = table.getRowCount();
+        String[] categories = new String[rowCount];
+        for( int row = 0; row < rowCount; row++ ) {
+            categories[row] = xColumn.getString( row );
+            for( SeriesBuffer buffer : bufferArray ) {
+                buffer.fill( row );
+            }
+        }
+
+        Map<String, NumericSeries> series = new LinkedHashMap<>();
+        buffers.forEach( ( name, buffer ) -> series.put( name, buffer.toSeries() ) );
+        return new ChartData( categories, Collections.unmodifiableMap( series ) );
+    }
+
+    /**
+     * 行数
+     */
+    public int size() {
+        return categories.length;
+    }
+
+    /**
+     * 获取指定列的系列数值
+     *
+     * @throws IllegalArgumentException 如果该列未被提取
+     */
+    public NumericSeries getSeries( String columnName ) {
+        NumericSeries values = series.get( columnName );
+        if( values == null ) {
+            throw new IllegalArgumentException( "系列未提取: " + columnName );
+        }
+        return values;
+    }
+}
@@ -0,0 +1,22 @@
+package com.gwill.tools.graphics.excelcombochartplotter.data;
+
+/**
+ * 数值转换报告
+ *
+ * @param parsed   成功得到数值的单元格数
+ * @param blank    空单元格数
+ * @param rejected 无法转换为数值的单元格数
+ */
+public record CoercionReport(
+    int parsed,
+    int blank,
+    int rejected
+) {
+
+    /**
+     * 是否所有单元格都是数值
+     */
+    public boolean isClean() {
+        return blank == 0 && rejected == 0;
+    }
+}
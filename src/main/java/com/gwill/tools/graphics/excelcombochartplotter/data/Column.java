@@ -0,0 +1,42 @@
+package com.gwill.tools.graphics.excelcombochartplotter.data;
+
+/**
+ * 列式存储中的一列数据
+ */
+public sealed interface Column permits NumericColumn, StringColumn {
+
+    /**
+     * 列名
+     */
+    String name();
+
+    /**
+     * 行数
+     */
+    int size();
+
+    /**
+     * 指定行是否为空单元格
+     */
+    boolean isNull( int row );
+
+    /**
+     * 获取指定行的值（数值列返回Double，文本列返回String，空单元格返回null）
+     */
+    Object getValue( int row );
+
+    /**
+     * 获取指定行的字符串形式，空单元格返回空字符串
+     */
+    String getString( int row );
+
+    /**
+     * 估算该列占用的堆内存字节数
+     */
+    long estimatedBytes();
+
+    /**
+     * 列名和内容的64位哈希，用作数据指纹；首次调用时遍历整列计算，之后直接返回
+     */
+    long contentHash();
+}
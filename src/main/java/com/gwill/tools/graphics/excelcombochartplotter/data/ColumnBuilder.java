@@ -0,0 +1,147 @@
+package com.gwill.tools.graphics.excelcombochartplotter.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 列构建器：逐行追加单元格，先按数值列存储，遇到非数值单元格时整体转为字典编码的文本列
+ */
+public final class ColumnBuilder {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final String name;
+    private int size;
+
+    // 数值模式
+    private double[] numbers = new double[INITIAL_CAPACITY];
+    private BitSet nulls = new BitSet();
+
+    // 文本模式
+    private boolean textMode;
+    private int[] codes;
+    private Map<String, Integer> dictionaryIndex;
+    private List<String> dictionary;
+
+    public ColumnBuilder( String name ) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 追加任意类型的单元格值
+     */
+    public void add( Object value ) {
+        if( value == null ) {
+            addNull();
+        } else if( value instanceof Number number ) {
+            addNumber( number.doubleValue() );
+        } else {
+            addString( value.toString() );
+        }
+    }
+
+    /**
+     * 追加数值单元格
+     */
+    public void addNumber( double value ) {
+        if( textMode ) {
+            appendCode( encode( NumericColumn.formatNumber( value ) ) );
+            return;
+        }
+        ensureNumberCapacity();
+        numbers[size++] = value;
+    }
+
+    /**
+     * 追加文本单元格
+     */
+    public void addString( String value ) {
+        if( value == null ) {
+            addNull();
+            return;
+        }
+        if( !textMode ) {
+            switchToTextMode();
+        }
+        appendCode( encode( value ) );
+    }
+
+    /**
+     * 追加空单元格
+     */
+    public void addNull() {
+        if( textMode ) {
+            appendCode( StringColumn.NULL_CODE );
+            return;
+        }
+        ensureNumberCapacity();
+        nulls.set( size );
+        numbers[size++] = 0.0;
+    }
+
+    /**
+     * 用空单元格补齐到指定行数
+     */
+    public void padTo( int rowCount ) {
+        while( size < rowCount ) {
+            addNull();
+        }
+    }
+
+    /**
+     * 构建不可变的列
+     */
+    public Column build() {
+        if( textMode ) {
+            return new StringColumn( name, Arrays.copyOf( codes, size ), dictionary.toArray( new String[0] ), size );
+        }
+        return new NumericColumn( name, Arrays.copyOf( numbers, size ), (BitSet) nulls.clone(), size );
+    }
+
+    private void ensureNumberCapacity() {
+        if( size == numbers.length ) {
+            numbers = Arrays.copyOf( numbers, numbers.length * 2 );
+        }
+    }
+
+    private void appendCode( int code ) {
+        if( size == codes.length ) {
+            codes = Arrays.copyOf( codes, codes.length * 2 );
+        }
+        codes[size++] = code;
+    }
+
+    private int encode( String value ) {
+        Integer code = dictionaryIndex.get( value );
+        if( code == null ) {
+            code = dictionary.size();
+            dictionary.add( value );
+            dictionaryIndex.put( value, code );
+        }
+        return code;
+    }
+
+    private void switchToTextMode() {
+        textMode = true;
+        codes = new int[Math.max( INITIAL_CAPACITY, numbers.length )];
+        dictionaryIndex = new HashMap<>();
+        dictionary = new ArrayList<>();
+        for( int i = 0; i < size; i++ ) {
+            codes[i] = nulls.get( i ) ? StringColumn.NULL_CODE : encode( NumericColumn.formatNumber( numbers[i] ) );
+        }
+        numbers = null;
+        nulls = null;
+    }
+}
@@ -0,0 +1,450 @@
+package com.gwill.tools.graphics.excelcombochartplotter.data;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 列式数据的磁盘缓存：首次解析后把数据表写成紧凑的二进制列文件，之后直接内存映射读取，免去解压和XML解析。
+ * <p>
+ * 缓存文件以源文件路径、大小和修改时间命名，读写时只比较文件头中记录的源文件大小和修改时间，从不读取源文件内容。
+ * 只包含部分列的数据表不会覆盖同一源文件版本的完整缓存；两者各行对应时合并列后写入，合并时只解码新表没有的列。
+ * 缓存目录总大小超过上限时，按最近使用时间淘汰最旧的缓存文件。
+ */
+public final class ColumnarDiskCache {
+
+    /**
+     * 缓存目录的系统属性名
+     */
+    public static final String DIR_PROPERTY = "excelcombochartplotter.cache.dir";
+
+    /**
+     * 缓存目录大小上限（字节）的系统属性名
+     */
+    public static final String MAX_BYTES_PROPERTY = "excelcombochartplotter.cache.maxBytes";
+
+    /**
+     * 是否启用磁盘缓存的系统属性名
+     */
+    public static final String ENABLED_PROPERTY = "excelcombochartplotter.cache.enabled";
+
+    /**
+     * 默认的缓存目录大小上限（字节）
+     */
+    public static final long DEFAULT_MAX_BYTES = 1024L * 1024 * 1024;
+    private static final String FILE_SUFFIX = ".eccp";
+
+    private static final int MAGIC = 0x45434350; // "ECCP"
+    private static final int VERSION = 3;
+    private static final byte TYPE_NUMERIC = 1;
+    private static final byte TYPE_STRING = 2;
+
+    private final Path directory;
+    private final long maxBytes;
+
+    public ColumnarDiskCache( Path directory, long maxBytes ) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 按系统属性创建磁盘缓存。缓存默认关闭：设置了缓存目录，或启用属性为true时才启用，
+     * 未设置目录时使用用户目录下的 .excel-combo-chart-plotter/cache
+     *
+     * @return 磁盘缓存，未启用时返回null
+     */
+    public static ColumnarDiskCache fromSystemProperties() {
+        String dir = System.getProperty( DIR_PROPERTY );
+        boolean hasDir = dir != null && !dir.isBlank();
+        if( !Boolean.parseBoolean( System.getProperty( ENABLED_PROPERTY, String.valueOf( hasDir ) ) ) ) {
+            return null;
+        }
+        return inDirectory( hasDir
+            ? Path.of( dir )
+            : Path.of( System.getProperty( "user.home" ), ".excel-combo-chart-plotter", "cache" ) );
+    }
+
+    /**
+     * 在指定目录创建磁盘缓存（例如来自命令行参数），大小上限取系统属性，未设置时为 {@link #DEFAULT_MAX_BYTES}
+     *
+     * @param directory 缓存目录
+     */
+    public static ColumnarDiskCache inDirectory( Path directory ) {
+        long maxBytes = DEFAULT_MAX_BYTES;
+        try {
+            maxBytes = Long.parseLong( System.getProperty( MAX_BYTES_PROPERTY, String.valueOf( DEFAULT_MAX_BYTES ) ) );
+        } catch( NumberFormatException e ) {
+            // 使用默认上限
+        }
+        return new ColumnarDiskCache( directory, maxBytes );
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * 从缓存读取数据表
+     *
+     * @param source  源xlsx文件
+     * @param columns 需要的列名，为null时要求缓存包含全部列
+     * @return 缓存命中时返回只包含所需列的数据表，否则返回null
+     */
+    public ColumnarTable load( Path source, Collection<String> columns ) {
+        try {
+            Path cacheFile = cacheFile( source );
+            if( !Files.isRegularFile( cacheFile ) ) {
+                return null;
+            }
+            ColumnarTable table = read( cacheFile, source, columns );
+            if( table == null ) {
+                return null;
+            }
+            Files.setLastModifiedTime( cacheFile, FileTime.fromMillis( System.currentTimeMillis() ) );
+            return table;
+        } catch( IOException | RuntimeException e ) {
+            // 缓存损坏或不可读时按未命中处理
+            return null;
+        }
+    }
+
+    /**
+     * 将数据表写入缓存，写入失败不影响调用方。
+     * 已有同一源文件版本的完整缓存而本表只含部分列时不写入；已有部分列缓存且各行对应时合并列后写入。
+     *
+     * @param source   源xlsx文件
+     * @param table    解析得到的数据表
+     * @param complete 数据表是否包含源文件的全部列
+     */
+    public void store( Path source, ColumnarTable table, boolean complete ) {
+        Path temp = null;
+        try {
+            Files.createDirectories( directory );
+            Path cacheFile = cacheFile( source );
+            if( !complete ) {
+                // 完整的数据表直接覆盖已有缓存，无需读取
+                Cached existing = readForMerge( cacheFile, source, table );
+                if( existing != null ) {
+                    if( existing.complete() ) {
+                        return;
+                    }
+                    table = table.union( existing.table() );
+                }
+            }
+            temp = Files.createTempFile( directory, "eccp-", ".tmp" );
+            try( DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream( Files.newOutputStream( temp ), 64 * 1024 ) ) ) {
+                encode( out, source, table, complete );
+            }
+            if( Files.size( temp ) > Integer.MAX_VALUE ) {
+                // 超过单次内存映射的上限，不缓存
+                return;
+            }
+            try {
+                Files.move( temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+            } catch( AtomicMoveNotSupportedException e ) {
+                Files.move( temp, cacheFile, StandardCopyOption.REPLACE_EXISTING );
+            }
+            temp = null;
+            evict();
+        } catch( IOException | RuntimeException e ) {
+            // 缓存写入失败时忽略，下次加载重新解析即可
+        } finally {
+            if( temp != null ) {
+                try {
+                    Files.deleteIfExists( temp );
+                } catch( IOException ignored ) {
+                    // 忽略
+                }
+            }
+        }
+    }
+
+    /**
+     * 清空缓存目录中的所有缓存文件
+     */
+    public void clear() throws IOException {
+        for( Path file : listCacheFiles() ) {
+            Files.deleteIfExists( file );
+        }
+    }
+
+    /**
+     * 淘汰最久未使用的缓存文件，直到总大小不超过上限
+     */
+    private void evict() throws IOException {
+        List<Path> files = listCacheFiles();
+        long total = 0;
+        List<CacheFileInfo> infos = new ArrayList<>( files.size() );
+        for( Path file : files ) {
+            try {
+                long size = Files.size( file );
+                infos.add( new CacheFileInfo( file, size, Files.getLastModifiedTime( file ).toMillis() ) );
+                total += size;
+            } catch( IOException e ) {
+                // 文件可能已被其他进程删除
+            }
+        }
+        if( total <= maxBytes ) {
+            return;
+        }
+        infos.sort( Comparator.comparingLong( CacheFileInfo::lastUsed ) );
+        for( CacheFileInfo info : infos ) {
+            if( total <= maxBytes ) {
+                break;
+            }
+            if( Files.deleteIfExists( info.file() ) ) {
+                total -= info.size();
+            }
+        }
+    }
+
+    private List<Path> listCacheFiles() throws IOException {
+        if( !Files.isDirectory( directory ) ) {
+            return List.of();
+        }
+        try( Stream<Path> stream = Files.list( directory ) ) {
+            return stream.filter( p -> p.getFileName().toString().endsWith( FILE_SUFFIX ) ).toList();
+        }
+    }
+
+    /**
+     * 缓存文件名：源文件绝对路径、大小和修改时间的SHA-256
+     */
+    private Path cacheFile( Path source ) throws IOException {
+        Path absolute = source.toAbsolutePath().normalize();
+        String key = absolute + "|" + Files.size( absolute ) + "|" + Files.getLastModifiedTime( absolute ).toMillis();
+        try {
+            byte[] digest = MessageDigest.getInstance( "SHA-256" ).digest( key.getBytes( StandardCharsets.UTF_8 ) );
+            return directory.resolve( HexFormat.of().formatHex( digest, 0, 16 ) + FILE_SUFFIX );
+        } catch( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    // 文件格式：
+    //   int magic, int version, long sourceSize, long sourceModified, byte complete,
+    //   int rowCount, long rowIdentity, int columnCount,
+    //   列目录 { int nameLength, byte[] name(UTF-8), byte type, long offset } × columnCount,
+    //   列数据：数值列 { int wordCount, long[] nullBitmap, double[rowCount] }
+    //           文本列 { int dictionarySize, { int length, byte[] UTF-8 } × dictionarySize, int[rowCount] }
+
+    private static void encode( DataOutputStream out, Path source, ColumnarTable table, boolean complete ) throws IOException {
+        List<String> names = table.getColumnNames();
+        List<byte[]> encodedNames = new ArrayList<>( names.size() );
+        List<byte[][]> encodedDictionaries = new ArrayList<>( names.size() );
+        long headerSize = 4 + 4 + 8 + 8 + 1 + 4 + 8 + 4;
+        for( String name : names ) {
+            byte[] bytes = name.getBytes( StandardCharsets.UTF_8 );
+            encodedNames.add( bytes );
+            headerSize += 4 + bytes.length + 1 + 8;
+        }
+
+        // 先计算各列数据段的偏移
+        int rowCount = table.getRowCount();
+        long[] offsets = new long[names.size()];
+        long offset = headerSize;
+        for( int i = 0; i < names.size(); i++ ) {
+            offsets[i] = offset;
+            Column column = table.getColumn( names.get( i ) );
+            if( column instanceof NumericColumn numeric ) {
+                encodedDictionaries.add( null );
+                offset += 4 + 8L * numeric.nulls().toLongArray().length + 8L * rowCount;
+            } else {
+                String[] dictionary = ( (StringColumn) column ).dictionary();
+                byte[][] encoded = new byte[dictionary.length][];
+                long size = 4;
+                for( int code = 0; code < dictionary.length; code++ ) {
+                    encoded[code] = dictionary[code].getBytes( StandardCharsets.UTF_8 );
+                    size += 4 + encoded[code].length;
+                }
+                encodedDictionaries.add( encoded );
+                offset += size + 4L * rowCount;
+            }
+        }
+
+        out.writeInt( MAGIC );
+        out.writeInt( VERSION );
+        out.writeLong( Files.size( source ) );
+        out.writeLong( Files.getLastModifiedTime( source ).toMillis() );
+        out.writeByte( complete ? 1 : 0 );
+        out.writeInt( rowCount );
+        out.writeLong( table.getRowIdentity() );
+        out.writeInt( names.size() );
+        for( int i = 0; i < names.size(); i++ ) {
+            out.writeInt( encodedNames.get( i ).length );
+            out.write( encodedNames.get( i ) );
+            out.writeByte( encodedDictionaries.get( i ) == null ? TYPE_NUMERIC : TYPE_STRING );
+            out.writeLong( offsets[i] );
+        }
+
+        for( int i = 0; i < names.size(); i++ ) {
+            Column column = table.getColumn( names.get( i ) );
+            if( column instanceof NumericColumn numeric ) {
+                long[] words = numeric.nulls().toLongArray();
+                out.writeInt( words.length );
+                for( long word : words ) {
+                    out.writeLong( word );
+                }
+                double[] values = numeric.values();
+                for( int row = 0; row < rowCount; row++ ) {
+                    out.writeDouble( values[row] );
+                }
+            } else {
+                byte[][] dictionary = encodedDictionaries.get( i );
+                out.writeInt( dictionary.length );
+                for( byte[] value : dictionary ) {
+                    out.writeInt( value.length );
+                    out.write( value );
+                }
+                int[] codes = ( (StringColumn) column ).codes();
+                for( int row = 0; row < rowCount; row++ ) {
+                    out.writeInt( codes[row] );
+                }
+            }
+        }
+    }
+
+    /**
+     * 读取已有缓存文件中可与 table 合并的列：已有完整缓存时只返回完整标记；
+     * 各行对应时只解码 table 中没有的列；不存在、已过期、各行不对应或损坏时返回null
+     */
+    private static Cached readForMerge( Path cacheFile, Path source, ColumnarTable table ) {
+        if( !Files.isRegularFile( cacheFile ) ) {
+            return null;
+        }
+        try( FileChannel channel = FileChannel.open( cacheFile, StandardOpenOption.READ ) ) {
+            MappedByteBuffer buffer = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+            Header header = readHeader( buffer, source );
+            if( header == null ) {
+                return null;
+            }
+            if( header.complete() ) {
+                return new Cached( null, true );
+            }
+            if( header.rowIdentity() == 0 || header.rowIdentity() != table.getRowIdentity()
+                || header.rowCount() != table.getRowCount() ) {
+                return null;
+            }
+            List<String> missing = header.names().stream().filter( name -> !table.hasColumn( name ) ).toList();
+            return new Cached( decode( buffer, header, missing ), false );
+        } catch( IOException | RuntimeException e ) {
+            return null;
+        }
+    }
+
+    /**
+     * 读取缓存文件中所需的列
+     *
+     * @param columns 需要的列名，为null时要求完整缓存并读取全部列
+     * @return 缓存文件对应当前源文件版本且包含所需列时返回其内容，否则返回null
+     */
+    private static ColumnarTable read( Path cacheFile, Path source, Collection<String> columns ) throws IOException {
+        try( FileChannel channel = FileChannel.open( cacheFile, StandardOpenOption.READ ) ) {
+            MappedByteBuffer buffer = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+            Header header = readHeader( buffer, source );
+            if( header == null || ( columns == null ? !header.complete() : !header.names().containsAll( columns ) ) ) {
+                return null;
+            }
+            return decode( buffer, header, columns );
+        }
+    }
+
+    /**
+     * 读取文件头和列目录，缓存格式不符或源文件已变化时返回null
+     */
+    private static Header readHeader( ByteBuffer buffer, Path source ) throws IOException {
+        if( buffer.getInt() != MAGIC || buffer.getInt() != VERSION ) {
+            return null;
+        }
+        long sourceSize = buffer.getLong();
+        long sourceModified = buffer.getLong();
+        boolean complete = buffer.get() == 1;
+        if( sourceSize != Files.size( source ) || sourceModified != Files.getLastModifiedTime( source ).toMillis() ) {
+            return null;
+        }
+
+        int rowCount = buffer.getInt();
+        long rowIdentity = buffer.getLong();
+        int columnCount = buffer.getInt();
+        List<String> names = new ArrayList<>( columnCount );
+        byte[] types = new byte[columnCount];
+        long[] offsets = new long[columnCount];
+        for( int i = 0; i < columnCount; i++ ) {
+            byte[] name = new byte[buffer.getInt()];
+            buffer.get( name );
+            names.add( new String( name, StandardCharsets.UTF_8 ) );
+            types[i] = buffer.get();
+            offsets[i] = buffer.getLong();
+        }
+        return new Header( complete, rowCount, rowIdentity, names, types, offsets );
+    }
+
+    /**
+     * 解码指定的列（为null时解码全部列），其余列的数据段不会被访问
+     */
+    private static ColumnarTable decode( ByteBuffer buffer, Header header, Collection<String> columns ) {
+        List<Column> decoded = new ArrayList<>();
+        for( int i = 0; i < header.names().size(); i++ ) {
+            String name = header.names().get( i );
+            if( columns != null && !columns.contains( name ) ) {
+                continue;
+            }
+            buffer.position( (int) header.offsets()[i] );
+            if( header.types()[i] == TYPE_NUMERIC ) {
+                long[] words = new long[buffer.getInt()];
+                buffer.asLongBuffer().get( words );
+                buffer.position( buffer.position() + words.length * 8 );
+                double[] values = new double[header.rowCount()];
+                buffer.asDoubleBuffer().get( values );
+                decoded.add( new NumericColumn( name, values, BitSet.valueOf( words ), header.rowCount() ) );
+            } else {
+                String[] dictionary = new String[buffer.getInt()];
+                for( int code = 0; code < dictionary.length; code++ ) {
+                    byte[] value = new byte[buffer.getInt()];
+                    buffer.get( value );
+                    dictionary[code] = new String( value, StandardCharsets.UTF_8 );
+                }
+                int[] codes = new int[header.rowCount()];
+                buffer.asIntBuffer().get( codes );
+                decoded.add( new StringColumn( name, codes, dictionary, header.rowCount() ) );
+            }
+        }
+        return ColumnarTable.of( decoded, header.rowCount(), header.rowIdentity() );
+    }
+
+    private record Header( boolean complete, int rowCount, long rowIdentity, List<String> names, byte[] types, long[] offsets ) {
+    }
+
+    /**
+     * 合并时读取的已有缓存，complete为true时不解码任何列，table为null
+     */
+    private record Cached( ColumnarTable table, boolean complete ) {
+    }
+
+    private record CacheFileInfo( Path file, long size, long lastUsed ) {
+    }
+}
@@ -0,0 +1,162 @@
+package com.gwill.tools.graphics.excelcombochartplotter.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 不可变的列式数据表
+ */
+public final class ColumnarTable {
+
+    private final List<String> columnNames;
+    private final Map<String, Column> columns;
+    private final int rowCount;
+
+    // 各行来源（工作表行号）的指纹，0表示来源未知
+    private final long rowIdentity;
+
+    private ColumnarTable( List<String> columnNames, Map<String, Column> columns, int rowCount, long rowIdentity ) {
+        this.columnNames = columnNames;
+        this.columns = columns;
+        this.rowCount = rowCount;
+        this.rowIdentity = rowIdentity;
+    }
+
+    /**
+     * 由列构建器创建数据表，较短的列会以空单元格补齐；各行来源未知，不能与其他表合并
+     *
+     * @param builders 按列顺序排列的构建器
+     */
+    public static ColumnarTable build( List<ColumnBuilder> builders ) {
+        return build( builders, 0 );
+    }
+
+    /**
+     * 由列构建器创建数据表，较短的列会以空单元格补齐
+     *
+     * @param builders    按列顺序排列的构建器
+     * @param rowIdentity 各行来源的指纹，0表示未知
+     */
+    static ColumnarTable build( List<ColumnBuilder> builders, long rowIdentity ) {
+        int rowCount = 0;
+        for( ColumnBuilder builder : builders ) {
+            rowCount = Math.max( rowCount, builder.size() );
+        }
+
+        List<String> names = new ArrayList<>( builders.size() );
+        Map<String, Column> columns = new LinkedHashMap<>();
+        for( ColumnBuilder builder : builders ) {
+            builder.padTo( rowCount );
+            names.add( builder.name() );
+            columns.put( builder.name(), builder.build() );
+        }
+        return new ColumnarTable( Collections.unmodifiableList( names ), Collections.unmodifiableMap( columns ), rowCount, rowIdentity );
+    }
+
+    /**
+     * 由已构建好的列创建数据表，各列行数必须一致
+     */
+    static ColumnarTable of( List<Column> columnList, int rowCount, long rowIdentity ) {
+        List<String> names = new ArrayList<>( columnList.size() );
+        Map<String, Column> columns = new LinkedHashMap<>();
+        for( Column column : columnList ) {
+            if( column.size() != rowCount ) {
+                throw new IllegalArgumentException( "列行数不一致: " + column.name() );
+            }
+            names.add( column.name() );
+            columns.put( column.name(), column );
+        }
+        return new ColumnarTable( Collections.unmodifiableList( names ), Collections.unmodifiableMap( columns ), rowCount, rowIdentity );
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 是否包含指定列
+     */
+    public boolean hasColumn( String columnName ) {
+        return columns.containsKey( columnName );
+    }
+
+    /**
+     * 获取指定列
+     *
+     * @throws IllegalArgumentException 如果列不存在
+     */
+    public Column getColumn( String columnName ) {
+        Column column = columns.get( columnName );
+        if( column == null ) {
+            throw new IllegalArgumentException( "列不存在: " + columnName );
+        }
+        return column;
+    }
+
+    /**
+     * 各行来源（工作表行号）的指纹，0表示来源未知
+     */
+    long getRowIdentity() {
+        return rowIdentity;
+    }
+
+    /**
+     * 两张表的各行是否逐行对应同一组工作表行（来源未知的表与任何表都不对应）
+     */
+    public boolean hasSameRows( ColumnarTable other ) {
+        return rowIdentity != 0 && rowIdentity == other.rowIdentity && rowCount == other.rowCount;
+    }
+
+    /**
+     * 合并另一张各行来源相同的表，结果包含两张表的所有列（同名列以本表为准）
+     *
+     * @throws IllegalArgumentException 如果两张表的行不是逐行对应的
+     * @see #hasSameRows
+     */
+    public ColumnarTable union( ColumnarTable other ) {
+        if( !hasSameRows( other ) ) {
+            throw new IllegalArgumentException( "各行来源不同的数据表不能合并" );
+        }
+        List<Column> merged = new ArrayList<>( columns.values() );
+        for( Column column : other.columns.values() ) {
+            if( !columns.containsKey( column.name() ) ) {
+                merged.add( column );
+            }
+        }
+        return of( merged, rowCount, rowIdentity );
+    }
+
+    /**
+     * 计算指定列的数据指纹：内容相同的列得到相同的指纹，与数据表来自哪次加载无关
+     *
+     * @param columnNames 参与计算的列名，表中不存在的列按缺失计入
+     * @return 64位指纹
+     */
+    public long fingerprint( Collection<String> columnNames ) {
+        ContentHasher hasher = new ContentHasher( rowCount );
+        for( String columnName : columnNames ) {
+            Column column = columns.get( columnName );
+            hasher.add( columnName ).add( column != null ? column.contentHash() : 0 );
+        }
+        return hasher.finish();
+    }
+
+    /**
+     * 估算整张表占用的堆内存字节数
+     */
+    public long estimatedBytes() {
+        long bytes = 64L;
+        for( Column column : columns.values() ) {
+            bytes += column.estimatedBytes();
+        }
+        return bytes;
+    }
+}
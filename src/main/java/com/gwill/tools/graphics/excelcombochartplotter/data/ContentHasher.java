@@ -0,0 +1,45 @@
+package com.gwill.tools.graphics.excelcombochartplotter.data;
+
+/**
+ * 计算列内容的64位哈希：逐个累加64位值，最后做一次雪崩混合
+ */
+final class ContentHasher {
+
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private long hash;
+
+    ContentHasher( long seed ) {
+        this.hash = seed;
+    }
+
+    ContentHasher add( long value ) {
+        hash = ( hash ^ value ) * MULTIPLIER;
+        hash ^= hash >>> 29;
+        return this;
+    }
+
+    ContentHasher add( String value ) {
+        add( value.length() );
+        for( int i = 0; i < value.length(); i++ ) {
+            add( value.charAt( i ) );
+        }
+        return this;
+    }
+
+    long finish() {
+        return mix( hash );
+    }
+
+    /**
+     * MurmurHash3 的64位终结混合
+     */
+    static long mix( long h ) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE53A8F53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,97 @@
+package com.gwill.tools.graphics.excelcombochartplotter.data;
+
+import java.util.BitSet;
+
+/**
+ * 数值列：使用double[]存储数值，BitSet作为空值位图
+ */
+public final class NumericColumn implements Column {
+
+    private final String name;
+    private final double[] values;
+    private final BitSet nulls;
+    private final int size;
+
+    // 0 表示尚未计算；并发首次调用时可能重复计算，结果相同
+    private long contentHash;
+
+    NumericColumn( String name, double[] values, BitSet nulls, int size ) {
+        this.name = name;
+        this.values = values;
+        this.nulls = nulls;
+        this.size = size;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isNull( int row ) {
+        return nulls.get( row );
+    }
+
+    /**
+     * 获取指定行的数值，空单元格返回0.0
+     */
+    public double getDouble( int row ) {
+        return values[row];
+    }
+
+    double[] values() {
+        return values;
+    }
+
+    BitSet nulls() {
+        return nulls;
+    }
+
+    @Override
+    public Object getValue( int row ) {
+        return nulls.get( row ) ? null : values[row];
+    }
+
+    @Override
+    public String getString( int row ) {
+        return nulls.get( row ) ? "" : formatNumber( values[row] );
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return 16L + (long) values.length * Double.BYTES + nulls.size() / 8;
+    }
+
+    @Override
+    public long contentHash() {
+        long hash = contentHash;
+        if( hash == 0 ) {
+            ContentHasher hasher = new ContentHasher( 1 ).add( name ).add( size );
+            for( int row = 0; row < size; row++ ) {
+                // 空单元格与任何数值的位模式都不同
+                hasher.add( nulls.get( row ) ? 0x7FF8_DEAD_0000_0001L : Double.doubleToLongBits( values[row] ) );
+            }
+            hash = hasher.finish();
+            if( hash == 0 ) {
+                hash = 1;
+            }
+            contentHash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * 将数值格式化为字符串，整数值不带小数部分
+     */
+    static String formatNumber( double value ) {
+        if( value == Math.rint( value ) && Math.abs( value ) < 1e15 ) {
+            return Long.toString( (long) value );
+        }
+        return Double.toString( value );
+    }
+}
@@ -0,0 +1,155 @@
+package com.gwill.tools.graphics.excelcombochartplotter.data;
+
+/**
+ * 无异常、无分配的十进制数值解析器：先按语法校验，校验通过才解析，结果写入调用方提供的double数组。
+ * <p>
+ * 接受的格式为可选的正负号、整数和/或小数部分、可选的十进制指数（如 "-12", "3.5", ".5", "1e-3"），
+ * 前后空白会被忽略；"NaN"、"Infinity"、十六进制及带类型后缀的写法视为无法解析，
+ * 超出double范围（如 "1e999"）的数值同样视为无法解析。
+ */
+public final class NumericParser {
+
+    /**
+     * 解析成功
+     */
+    public static final int PARSED = 0;
+
+    /**
+     * 空白文本
+     */
+    public static final int BLANK = 1;
+
+    /**
+     * 不是合法的数值
+     */
+    public static final int REJECTED = 2;
+
+    // 10^0 ~ 10^22 均可用double精确表示
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final int MAX_EXPONENT_DIGITS = 6;
+
+    private NumericParser() {
+    }
+
+    /**
+     * 解析文本
+     *
+     * @param text   文本，可为null（视为空白）
+     * @param target 解析成功时写入结果的数组
+     * @param index  写入位置
+     * @return {@link #PARSED}、{@link #BLANK} 或 {@link #REJECTED}
+     */
+    public static int parse( String text, double[] target, int index ) {
+        if( text == null ) {
+            return BLANK;
+        }
+        int start = 0;
+        int end = text.length();
+        while( start < end && text.charAt( start ) <= ' ' ) {
+            start++;
+        }
+        while( end > start && text.charAt( end - 1 ) <= ' ' ) {
+            end--;
+        }
+        if( start == end ) {
+            return BLANK;
+        }
+
+        int i = start;
+        boolean negative = false;
+        char c = text.charAt( i );
+        if( c == '+' || c == '-' ) {
+            negative = c == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int digitCount = 0;
+        int decimalExponent = 0;
+
+        // 整数部分
+        while( i < end && ( c = text.charAt( i ) ) >= '0' && c <= '9' ) {
+            if( significantDigits > 0 || c != '0' ) {
+                if( significantDigits < 19 ) {
+                    mantissa = mantissa * 10 + ( c - '0' );
+                } else {
+                    decimalExponent++;
+                }
+                significantDigits++;
+            }
+            digitCount++;
+            i++;
+        }
+
+        // 小数部分
+        if( i < end && text.charAt( i ) == '.' ) {
+            i++;
+            while( i < end && ( c = text.charAt( i ) ) >= '0' && c <= '9' ) {
+                if( significantDigits > 0 || c != '0' ) {
+                    if( significantDigits < 19 ) {
+                        mantissa = mantissa * 10 + ( c - '0' );
+                        decimalExponent--;
+                    }
+                    significantDigits++;
+                } else {
+                    decimalExponent--;
+                }
+                digitCount++;
+                i++;
+            }
+        }
+        if( digitCount == 0 ) {
+            return REJECTED;
+        }
+
+        // 指数部分
+        if( i < end && ( text.charAt( i ) == 'e' || text.charAt( i ) == 'E' ) ) {
+            i++;
+            boolean negativeExponent = false;
+            if( i < end && ( text.charAt( i ) == '+' || text.charAt( i ) == '-' ) ) {
+                negativeExponent = text.charAt( i ) == '-';
+                i++;
+            }
+            int exponent = 0;
+            int exponentDigits = 0;
+            while( i < end && ( c = text.charAt( i ) ) >= '0' && c <= '9' ) {
+                if( exponentDigits < MAX_EXPONENT_DIGITS ) {
+                    exponent = exponent * 10 + ( c - '0' );
+                }
+                exponentDigits++;
+                i++;
+            }
+            if( exponentDigits == 0 ) {
+                return REJECTED;
+            }
+            decimalExponent += negativeExponent ? -exponent : exponent;
+        }
+        if( i != end ) {
+            return REJECTED;
+        }
+
+        double value;
+        if( mantissa == 0 ) {
+            value = 0.0;
+        } else if( significantDigits <= MAX_EXACT_DIGITS && Math.abs( decimalExponent ) < POWERS_OF_TEN.length ) {
+            // 尾数和10的幂都可精确表示时，一次乘除即为正确舍入的结果
+            value = decimalExponent >= 0
+                ? mantissa * POWERS_OF_TEN[decimalExponent]
+                : mantissa / POWERS_OF_TEN[-decimalExponent];
+        } else {
+            // 已通过语法校验，标准解析不会抛出异常
+            value = Math.abs( Double.parseDouble( text.substring( start, end ) ) );
+            if( Double.isInfinite( value ) ) {
+                return REJECTED;
+            }
+        }
+        target[index] = negative ? -value : value;
+        return PARSED;
+    }
+}
@@ -0,0 +1,41 @@
+package com.gwill.tools.graphics.excelcombochartplotter.data;
+
+/**
+ * 列数据转换为数值后的结果
+ *
+ * @param columnName 列名
+ * @param values     每行的数值，空单元格和无法转换的单元格为NaN
+ * @param report     转换报告
+ */
+public record NumericSeries(
+    String columnName,
+    double[] values,
+    CoercionReport report
+) {
+
+    /**
+     * 将一列转换为数值；文本列的每个字典取值只解析一次
+     */
+    public static NumericSeries of( Column column ) {
+        SeriesBuffer buffer = new SeriesBuffer( column );
+        for( int row = 0; row < column.size(); row++ ) {
+            buffer.fill( row );
+        }
+        return buffer.toSeries();
+    }
+
+    /**
+     * 行数
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * 获取指定行的数值，缺失值（NaN）返回null
+     */
+    public Double getOrNull( int row ) {
+        double value = values[row];
+        return Double.isNaN( value ) ? null : value;
+    }
+}
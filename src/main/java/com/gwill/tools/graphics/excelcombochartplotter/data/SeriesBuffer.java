@@ -0,0 +1,74 @@
+package com.gwill.tools.graphics.excelcombochartplotter.data;
+
+/**
+ * 单列数值转换缓冲区：预先解析文本列的字典，之后逐行写入数值并统计转换结果
+ */
+final class SeriesBuffer {
+
+    private final Column column;
+    private final double[] values;
+
+    // 文本列的字典解析结果
+    private final double[] dictionaryValues;
+    private final int[] dictionaryStatuses;
+
+    private int parsed;
+    private int blank;
+    private int rejected;
+
+    SeriesBuffer( Column column ) {
+        this.column = column;
+        this.values = new double[column.size()];
+        if( column instanceof StringColumn text ) {
+            int dictionarySize = text.getDictionarySize();
+            dictionaryValues = new double[dictionarySize];
+            dictionaryStatuses = new int[dictionarySize];
+            for( int code = 0; code < dictionarySize; code++ ) {
+                dictionaryStatuses[code] = NumericParser.parse( text.getDictionaryValue( code ), dictionaryValues, code );
+            }
+        } else {
+            dictionaryValues = null;
+            dictionaryStatuses = null;
+        }
+    }
+
+    /**
+     * 转换并写入指定行
+     */
+    void fill( int row ) {
+        int status;
+        double value = Double.NaN;
+        if( column instanceof NumericColumn numeric ) {
+            if( numeric.isNull( row ) ) {
+                status = NumericParser.BLANK;
+            } else {
+                status = NumericParser.PARSED;
+                value = numeric.getDouble( row );
+            }
+        } else {
+            int code = ( (StringColumn) column ).getCode( row );
+            if( code == StringColumn.NULL_CODE ) {
+                status = NumericParser.BLANK;
+            } else {
+                status = dictionaryStatuses[code];
+                value = dictionaryValues[code];
+            }
+        }
+
+        if( status == NumericParser.PARSED ) {
+            values[row] = value;
+            parsed++;
+        } else {
+            values[row] = Double.NaN;
+            if( status == NumericParser.BLANK ) {
+                blank++;
+            } else {
+                rejected++;
+            }
+        }
+    }
+
+    NumericSeries toSeries() {
+        return new NumericSeries( column.name(), values, new CoercionReport( parsed, blank, rejected ) );
+    }
+}
@@ -0,0 +1,22 @@
+package com.gwill.tools.graphics.excelcombochartplotter.data;
+
+import java.util.List;
+
+/**
+ * 工作表表头扫描结果
+ *
+ * @param columnNames 表头列名
+ * @param rowCount    表头之后的数据行数（来自dimension标记，可能包含空行），无法得知时为-1
+ */
+public record SheetHeader(
+    List<String> columnNames,
+    int rowCount
+) {
+
+    /**
+     * 数据行数是否已知
+     */
+    public boolean isRowCountKnown() {
+        return rowCount >= 0;
+    }
+}
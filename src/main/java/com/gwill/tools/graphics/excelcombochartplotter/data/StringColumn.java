@@ -0,0 +1,112 @@
+package com.gwill.tools.graphics.excelcombochartplotter.data;
+
+/**
+ * 文本列：字典编码存储，每行只保存一个指向字典的int编码
+ */
+public final class StringColumn implements Column {
+
+    /**
+     * 空单元格的编码
+     */
+    static final int NULL_CODE = -1;
+
+    private final String name;
+    private final int[] codes;
+    private final String[] dictionary;
+    private final int size;
+
+    // 0 表示尚未计算；并发首次调用时可能重复计算，结果相同
+    private long contentHash;
+
+    StringColumn( String name, int[] codes, String[] dictionary, int size ) {
+        this.name = name;
+        this.codes = codes;
+        this.dictionary = dictionary;
+        this.size = size;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isNull( int row ) {
+        return codes[row] == NULL_CODE;
+    }
+
+    /**
+     * 获取指定行的字典编码，空单元格返回-1
+     */
+    public int getCode( int row ) {
+        return codes[row];
+    }
+
+    /**
+     * 获取字典中的不同取值个数
+     */
+    public int getDictionarySize() {
+        return dictionary.length;
+    }
+
+    /**
+     * 根据编码获取字典中的取值
+     */
+    public String getDictionaryValue( int code ) {
+        return dictionary[code];
+    }
+
+    int[] codes() {
+        return codes;
+    }
+
+    String[] dictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public Object getValue( int row ) {
+        int code = codes[row];
+        return code == NULL_CODE ? null : dictionary[code];
+    }
+
+    @Override
+    public String getString( int row ) {
+        int code = codes[row];
+        return code == NULL_CODE ? "" : dictionary[code];
+    }
+
+    @Override
+    public long estimatedBytes() {
+        long bytes = 16L + (long) codes.length * Integer.BYTES + (long) dictionary.length * 8;
+        for( String value : dictionary ) {
+            bytes += 40L + value.length() * 2L;
+        }
+        return bytes;
+    }
+
+    @Override
+    public long contentHash() {
+        long hash = contentHash;
+        if( hash == 0 ) {
+            ContentHasher hasher = new ContentHasher( 2 ).add( name ).add( size ).add( dictionary.length );
+            for( String value : dictionary ) {
+                hasher.add( value );
+            }
+            for( int row = 0; row < size; row++ ) {
+                hasher.add( codes[row] );
+            }
+            hash = hasher.finish();
+            if( hash == 0 ) {
+                hash = 1;
+            }
+            contentHash = hash;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,812 @@
+package com.gwill.tools.graphics.excelcombochartplotter.data;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * xlsx流式读取器：直接以StAX拉取解析第一个工作表，单元格逐个写入列构建器，
+ * 不构建DOM也不构建行Map。
+ * <p>
+ * 首个非空行为表头；其后只要任一有表头的列有值，该行即为数据行，无论该列是否在投影范围内。
+ * 因此同一工作表按不同的列投影读取时得到相同的数据行集合，第N行在各次读取中对应同一个工作表行。
+ */
+public final class XlsxStreamReader {
+
+    private static final String WORKBOOK = "xl/workbook.xml";
+    private static final String WORKBOOK_RELS = "xl/_rels/workbook.xml.rels";
+    private static final String DEFAULT_SHEET = "xl/worksheets/sheet1.xml";
+    private static final String DEFAULT_SHARED_STRINGS = "xl/sharedStrings.xml";
+    private static final String STYLES = "xl/styles.xml";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // 每读取这么多数据行报告一次进度并检查是否已取消
+    private static final int PROGRESS_INTERVAL_ROWS = 4096;
+
+    private static final LocalDate EPOCH_1900 = LocalDate.of( 1899, 12, 30 );
+    private static final LocalDate EPOCH_1904 = LocalDate.of( 1904, 1, 1 );
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern( "yyyy-MM-dd HH:mm:ss" );
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern( "HH:mm:ss" );
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    private final ZipFile zipFile;
+    private final Set<String> projection;
+    private final ProgressListener progressListener;
+    private final StringBuilder text = new StringBuilder();
+
+    private String sheetEntry = DEFAULT_SHEET;
+    private String sharedStringsEntry = DEFAULT_SHARED_STRINGS;
+    private boolean date1904;
+    private String[] sharedStrings = new String[0];
+    private boolean[] dateStyles = new boolean[0];
+
+    private XlsxStreamReader( ZipFile zipFile, Set<String> projection, ProgressListener progressListener ) {
+        this.zipFile = zipFile;
+        this.projection = projection;
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * 读取xlsx文件第一个工作表，首行作为列名
+     *
+     * @param path xlsx文件路径
+     * @return 列式数据表
+     * @throws IOException 如果文件无法读取或格式错误
+     */
+    public static ColumnarTable read( Path path ) throws IOException {
+        return read( path, null );
+    }
+
+    /**
+     * 读取xlsx文件第一个工作表，只解码指定的列，其余单元格在解析时直接跳过
+     *
+     * @param path    xlsx文件路径
+     * @param columns 需要加载的列名，为null时加载全部列
+     * @return 只包含指定列（按表中顺序）的列式数据表
+     * @throws IOException 如果文件无法读取、格式错误或指定列不存在
+     */
+    public static ColumnarTable read( Path path, Set<String> columns ) throws IOException {
+        return read( path, columns, null );
+    }
+
+    /**
+     * 读取xlsx文件第一个工作表，只解码指定的列，并定期报告进度。
+     * 读取线程被中断时在下一个进度点停止读取并抛出 {@link InterruptedIOException}。
+     *
+     * @param path             xlsx文件路径
+     * @param columns          需要加载的列名，为null时加载全部列
+     * @param progressListener 进度监听器，可以为null
+     * @return 只包含指定列（按表中顺序）的列式数据表
+     * @throws IOException 如果文件无法读取、格式错误、指定列不存在或读取被取消
+     */
+    public static ColumnarTable read( Path path, Set<String> columns, ProgressListener progressListener ) throws IOException {
+        try( ZipFile zipFile = new ZipFile( path.toFile() ) ) {
+            XlsxStreamReader reader = new XlsxStreamReader( zipFile, columns, progressListener );
+            reader.readWorkbook();
+            reader.readSharedStrings( Integer.MAX_VALUE );
+            reader.readStyles();
+            return reader.readSheet();
+        } catch( XMLStreamException e ) {
+            throw new IOException( "无法解析Excel文件: " + e.getMessage(), e );
+        }
+    }
+
+    /**
+     * 只读取第一个工作表的表头行，不解码任何数据行
+     *
+     * @param path xlsx文件路径
+     * @return 表头列名，以及工作表dimension标记给出的数据行数（无法得知时为-1）
+     * @throws IOException 如果文件无法读取、格式错误或列名重复
+     */
+    public static SheetHeader readHeader( Path path ) throws IOException {
+        try( ZipFile zipFile = new ZipFile( path.toFile() ) ) {
+            XlsxStreamReader reader = new XlsxStreamReader( zipFile, null, null );
+            reader.readWorkbook();
+            reader.readStyles();
+            return reader.scanHeader();
+        } catch( XMLStreamException e ) {
+            throw new IOException( "无法解析Excel文件: " + e.getMessage(), e );
+        }
+    }
+
+    /**
+     * 定位第一个工作表和共享字符串表，并读取日期系统设置
+     */
+    private void readWorkbook() throws IOException, XMLStreamException {
+        String firstSheetRelId = null;
+        XMLStreamReader xml = open( WORKBOOK );
+        if( xml == null ) {
+            throw new IOException( "不是有效的xlsx文件: 缺少" + WORKBOOK );
+        }
+        try {
+            while( xml.hasNext() ) {
+                if( xml.next() != XMLStreamConstants.START_ELEMENT ) {
+                    continue;
+                }
+                String name = xml.getLocalName();
+                if( "workbookPr".equals( name ) ) {
+                    String value = xml.getAttributeValue( null, "date1904" );
+                    date1904 = "1".equals( value ) || "true".equals( value );
+                } else if( "sheet".equals( name ) ) {
+                    firstSheetRelId = relationshipId( xml );
+                    break;
+                }
+            }
+        } finally {
+            xml.close();
+        }
+
+        xml = open( WORKBOOK_RELS );
+        if( xml == null ) {
+            return;
+        }
+        try {
+            while( xml.hasNext() ) {
+                if( xml.next() != XMLStreamConstants.START_ELEMENT || !"Relationship".equals( xml.getLocalName() ) ) {
+                    continue;
+                }
+                String id = xml.getAttributeValue( null, "Id" );
+                String type = xml.getAttributeValue( null, "Type" );
+                String target = xml.getAttributeValue( null, "Target" );
+                if( target == null ) {
+                    continue;
+                }
+                if( id != null && id.equals( firstSheetRelId ) ) {
+                    sheetEntry = resolveTarget( target );
+                } else if( type != null && type.endsWith( "/sharedStrings" ) ) {
+                    sharedStringsEntry = resolveTarget( target );
+                }
+            }
+        } finally {
+            xml.close();
+        }
+    }
+
+    /**
+     * 读取共享字符串表，富文本按顺序拼接各段文字，忽略拼音注音
+     *
+     * @param limit 最多读取的条目数
+     */
+    private void readSharedStrings( int limit ) throws IOException, XMLStreamException {
+        XMLStreamReader xml = open( sharedStringsEntry );
+        if( xml == null ) {
+            return;
+        }
+        List<String> strings = new ArrayList<>();
+        try {
+            int phoneticDepth = 0;
+            while( xml.hasNext() && strings.size() < limit ) {
+                int event = xml.next();
+                if( event == XMLStreamConstants.START_ELEMENT ) {
+                    String name = xml.getLocalName();
+                    if( "si".equals( name ) ) {
+                        text.setLength( 0 );
+                    } else if( "rPh".equals( name ) ) {
+                        phoneticDepth++;
+                    } else if( "t".equals( name ) && phoneticDepth == 0 ) {
+                        appendElementText( xml );
+                    }
+                } else if( event == XMLStreamConstants.END_ELEMENT ) {
+                    String name = xml.getLocalName();
+                    if( "si".equals( name ) ) {
+                        strings.add( text.toString() );
+                    } else if( "rPh".equals( name ) ) {
+                        phoneticDepth--;
+                    }
+                }
+            }
+        } finally {
+            xml.close();
+        }
+        sharedStrings = strings.toArray( new String[0] );
+    }
+
+    /**
+     * 读取单元格样式，标记使用日期格式的样式索引
+     */
+    private void readStyles() throws IOException, XMLStreamException {
+        XMLStreamReader xml = open( STYLES );
+        if( xml == null ) {
+            return;
+        }
+        Set<Integer> customDateFormats = new HashSet<>();
+        List<Boolean> styles = new ArrayList<>();
+        try {
+            boolean inCellXfs = false;
+            while( xml.hasNext() ) {
+                int event = xml.next();
+                if( event == XMLStreamConstants.START_ELEMENT ) {
+                    String name = xml.getLocalName();
+                    if( "numFmt".equals( name ) ) {
+                        int id = parseInt( xml.getAttributeValue( null, "numFmtId" ), -1 );
+                        if( isDateFormatCode( xml.getAttributeValue( null, "formatCode" ) ) ) {
+                            customDateFormats.add( id );
+                        }
+                    } else if( "cellXfs".equals( name ) ) {
+                        inCellXfs = true;
+                    } else if( "xf".equals( name ) && inCellXfs ) {
+                        int id = parseInt( xml.getAttributeValue( null, "numFmtId" ), 0 );
+                        styles.add( isBuiltInDateFormat( id ) || customDateFormats.contains( id ) );
+                    }
+                } else if( event == XMLStreamConstants.END_ELEMENT && "cellXfs".equals( xml.getLocalName() ) ) {
+                    break;
+                }
+            }
+        } finally {
+            xml.close();
+        }
+        dateStyles = new boolean[styles.size()];
+        for( int i = 0; i < dateStyles.length; i++ ) {
+            dateStyles[i] = styles.get( i );
+        }
+    }
+
+    /**
+     * 流式读取工作表：首个非空行为表头，其后每个数据行追加到各列构建器。
+     * 投影外的列只判断是否有值，不写入构建器；所有保留行的工作表行号计入数据表的行标识。
+     */
+    private ColumnarTable readSheet() throws IOException, XMLStreamException {
+        ZipEntry entry = zipFile.getEntry( sheetEntry );
+        if( entry == null ) {
+            throw new IOException( "不是有效的xlsx文件: 缺少工作表" + sheetEntry );
+        }
+        CountingInputStream counter = new CountingInputStream( zipFile.getInputStream( entry ) );
+        XMLStreamReader xml = XML_INPUT_FACTORY.createXMLStreamReader( new BufferedInputStream( counter, BUFFER_SIZE ) );
+        long totalBytes = entry.getSize();
+
+        // 列号 -> 构建器，表头读完之前为null
+        Map<Integer, ColumnBuilder> buildersByIndex = null;
+        List<ColumnBuilder> builders = new ArrayList<>();
+        Map<Integer, String> headerCells = new HashMap<>();
+        int rowCount = 0;
+        ContentHasher rowIdentity = null;
+
+        try {
+            boolean rowHasData = false;
+            int rowNumber = 0;
+            int nextColumn = 0;
+            while( xml.hasNext() ) {
+                int event = xml.next();
+                if( event == XMLStreamConstants.START_ELEMENT ) {
+                    String name = xml.getLocalName();
+                    if( "row".equals( name ) ) {
+                        rowHasData = false;
+                        rowNumber = parseInt( xml.getAttributeValue( null, "r" ), rowNumber + 1 );
+                        nextColumn = 0;
+                    } else if( "c".equals( name ) ) {
+                        String ref = xml.getAttributeValue( null, "r" );
+                        int column = ref != null ? columnIndex( ref ) : nextColumn;
+                        nextColumn = column + 1;
+
+                        if( buildersByIndex == null ) {
+                            String header = headerName( readCellAsString( xml ) );
+                            if( header != null ) {
+                                headerCells.put( column, header );
+                                rowHasData = true;
+                            }
+                        } else {
+                            ColumnBuilder builder = buildersByIndex.get( column );
+                            if( builder != null ) {
+                                rowHasData |= readCell( xml, builder, rowCount );
+                            } else if( headerCells.containsKey( column ) ) {
+                                // 投影外的列也参与判断是否为数据行
+                                rowHasData |= cellHasValue( xml );
+                            } else {
+                                skipElement( xml );
+                            }
+                        }
+                    }
+                } else if( event == XMLStreamConstants.END_ELEMENT && "row".equals( xml.getLocalName() ) ) {
+                    if( buildersByIndex == null ) {
+                        if( rowHasData ) {
+                            buildersByIndex = createBuilders( headerCells, builders );
+                            rowIdentity = new ContentHasher( rowNumber );
+                        }
+                    } else if( rowHasData ) {
+                        rowIdentity.add( rowNumber );
+                        rowCount++;
+                        if( rowCount % PROGRESS_INTERVAL_ROWS == 0 ) {
+                            reportProgress( rowCount, counter.count, totalBytes );
+                        }
+                    }
+                }
+            }
+        } finally {
+            xml.close();
+        }
+
+        if( progressListener != null ) {
+            progressListener.onProgress( rowCount, counter.count, totalBytes );
+        }
+        for( ColumnBuilder builder : builders ) {
+            builder.padTo( rowCount );
+        }
+        return ColumnarTable.build( builders, rowIdentity != null ? rowIdentity.add( rowCount ).finish() : 0 );
+    }
+
+    /**
+     * 报告读取进度，读取线程已被中断时停止读取
+     */
+    private void reportProgress( int rowCount, long bytesRead, long totalBytes ) throws InterruptedIOException {
+        if( Thread.currentThread().isInterrupted() ) {
+            throw new InterruptedIOException( "读取已取消" );
+        }
+        if( progressListener != null ) {
+            progressListener.onProgress( rowCount, bytesRead, totalBytes );
+        }
+    }
+
+    /**
+     * 扫描表头行：逐行记录单元格的原始值，行结束时只读取其引用到的共享字符串并判断取值，
+     * 与 {@link #readSheet} 相同，首个含非空白单元格的行为表头
+     */
+    private SheetHeader scanHeader() throws IOException, XMLStreamException {
+        XMLStreamReader xml = open( sheetEntry );
+        if( xml == null ) {
+            throw new IOException( "不是有效的xlsx文件: 缺少工作表" + sheetEntry );
+        }
+
+        String dimension = null;
+        int headerRowNumber = -1;
+        List<RawCell> cells = new ArrayList<>();
+        Map<Integer, String> headerCells = new HashMap<>();
+        try {
+            int rowNumber = 0;
+            int nextColumn = 0;
+            boolean headerFound = false;
+            while( xml.hasNext() && !headerFound ) {
+                int event = xml.next();
+                if( event == XMLStreamConstants.START_ELEMENT ) {
+                    String name = xml.getLocalName();
+                    if( "dimension".equals( name ) ) {
+                        dimension = xml.getAttributeValue( null, "ref" );
+                    } else if( "row".equals( name ) ) {
+                        rowNumber = parseInt( xml.getAttributeValue( null, "r" ), rowNumber + 1 );
+                        nextColumn = 0;
+                    } else if( "c".equals( name ) ) {
+                        String ref = xml.getAttributeValue( null, "r" );
+                        int column = ref != null ? columnIndex( ref ) : nextColumn;
+                        nextColumn = column + 1;
+                        String type = xml.getAttributeValue( null, "t" );
+                        int style = parseInt( xml.getAttributeValue( null, "s" ), 0 );
+                        String raw = readCellText( xml );
+                        if( raw != null ) {
+                            cells.add( new RawCell( column, type, style, raw ) );
+                        }
+                    }
+                } else if( event == XMLStreamConstants.END_ELEMENT && "row".equals( xml.getLocalName() ) ) {
+                    if( !cells.isEmpty() ) {
+                        resolveHeaderCells( cells, headerCells );
+                        cells.clear();
+                        headerFound = !headerCells.isEmpty();
+                        headerRowNumber = rowNumber;
+                    }
+                }
+            }
+        } finally {
+            xml.close();
+        }
+
+        List<ColumnBuilder> builders = new ArrayList<>();
+        createBuilders( headerCells, builders );
+        List<String> columnNames = builders.stream().map( ColumnBuilder::name ).toList();
+        return new SheetHeader( columnNames, dataRowCount( dimension, headerRowNumber ) );
+    }
+
+    /**
+     * 把一行的原始单元格转换为表头列名，按需读取其引用到的共享字符串；全部为空白时headerCells为空
+     */
+    private void resolveHeaderCells( List<RawCell> cells, Map<Integer, String> headerCells ) throws IOException, XMLStreamException {
+        int maxStringIndex = -1;
+        for( RawCell cell : cells ) {
+            if( "s".equals( cell.type() ) ) {
+                maxStringIndex = Math.max( maxStringIndex, parseInt( cell.raw().strip(), -1 ) );
+            }
+        }
+        if( maxStringIndex >= sharedStrings.length ) {
+            readSharedStrings( maxStringIndex + 1 );
+        }
+        for( RawCell cell : cells ) {
+            String name = headerName( toCellString( cell.type(), cell.style(), cell.raw() ) );
+            if( name != null ) {
+                headerCells.put( cell.column(), name );
+            }
+        }
+    }
+
+    /**
+     * 表头单元格的列名：去掉首尾空白，空白或无值时返回null，表示该单元格不算表头
+     */
+    private static String headerName( String value ) {
+        return value != null && !value.isBlank() ? value.strip() : null;
+    }
+
+    /**
+     * 根据dimension标记（如"A1:D501"）推算表头之后的行数
+     */
+    private static int dataRowCount( String dimension, int headerRowNumber ) {
+        if( dimension == null || headerRowNumber < 0 ) {
+            return -1;
+        }
+        int colon = dimension.indexOf( ':' );
+        if( colon < 0 ) {
+            return -1;
+        }
+        String lastCell = dimension.substring( colon + 1 );
+        int digits = 0;
+        while( digits < lastCell.length() && !Character.isDigit( lastCell.charAt( digits ) ) ) {
+            digits++;
+        }
+        int lastRow = parseInt( lastCell.substring( digits ), -1 );
+        return lastRow < headerRowNumber ? -1 : lastRow - headerRowNumber;
+    }
+
+    /**
+     * 按表头创建列构建器，忽略空白表头的列以及不在投影范围内的列
+     */
+    private Map<Integer, ColumnBuilder> createBuilders( Map<Integer, String> headerCells,
+                                                       List<ColumnBuilder> builders ) throws IOException {
+        Set<String> names = new HashSet<>( headerCells.values() );
+        if( names.size() != headerCells.size() ) {
+            throw new IOException( "Excel文件中存在重复的列名，请确保所有列名唯一" );
+        }
+        if( projection != null ) {
+            for( String column : projection ) {
+                if( !names.contains( column ) ) {
+                    throw new IOException( "Excel文件中不存在列: " + column );
+                }
+            }
+        }
+
+        Map<Integer, ColumnBuilder> buildersByIndex = new HashMap<>();
+        headerCells.entrySet().stream()
+            .sorted( Map.Entry.comparingByKey() )
+            .filter( entry -> projection == null || projection.contains( entry.getValue() ) )
+            .forEach( entry -> {
+                ColumnBuilder builder = new ColumnBuilder( entry.getValue() );
+                buildersByIndex.put( entry.getKey(), builder );
+                builders.add( builder );
+            } );
+        return buildersByIndex;
+    }
+
+    /**
+     * 读取一个单元格并写入构建器，光标停在该单元格的结束标签
+     *
+     * @return 单元格是否有值
+     */
+    private boolean readCell( XMLStreamReader xml, ColumnBuilder builder, int row ) throws XMLStreamException {
+        String type = xml.getAttributeValue( null, "t" );
+        int style = parseInt( xml.getAttributeValue( null, "s" ), 0 );
+        String raw = readCellText( xml );
+        if( raw == null ) {
+            return false;
+        }
+
+        if( type == null || "n".equals( type ) ) {
+            double number;
+            try {
+                number = Double.parseDouble( raw );
+            } catch( NumberFormatException e ) {
+                number = Double.NaN;
+            }
+            builder.padTo( row );
+            if( !Double.isFinite( number ) ) {
+                // 非数值或超出double范围（如 "1e999"）时保留原文，转换为数值时计为无法转换
+                builder.addString( raw );
+                return true;
+            }
+            if( style < dateStyles.length && dateStyles[style] ) {
+                builder.addString( formatDate( number ) );
+            } else {
+                builder.addNumber( number );
+            }
+            return true;
+        }
+
+        String value = convertNonNumeric( type, raw );
+        if( value == null ) {
+            return false;
+        }
+        builder.padTo( row );
+        builder.addString( value );
+        return true;
+    }
+
+    /**
+     * 判断单元格是否有值，与 {@link #readCell} 的判断一致但不转换取值，光标停在该单元格的结束标签
+     */
+    private boolean cellHasValue( XMLStreamReader xml ) throws XMLStreamException {
+        String type = xml.getAttributeValue( null, "t" );
+        String raw = readCellText( xml );
+        if( raw == null ) {
+            return false;
+        }
+        return type == null || "n".equals( type ) || convertNonNumeric( type, raw ) != null;
+    }
+
+    /**
+     * 读取单元格的字符串形式（用于表头）
+     */
+    private String readCellAsString( XMLStreamReader xml ) throws XMLStreamException {
+        String type = xml.getAttributeValue( null, "t" );
+        int style = parseInt( xml.getAttributeValue( null, "s" ), 0 );
+        String raw = readCellText( xml );
+        return raw != null ? toCellString( type, style, raw ) : null;
+    }
+
+    private String toCellString( String type, int style, String raw ) {
+        if( type == null || "n".equals( type ) ) {
+            try {
+                double number = Double.parseDouble( raw );
+                return style < dateStyles.length && dateStyles[style]
+                    ? formatDate( number )
+                    : NumericColumn.formatNumber( number );
+            } catch( NumberFormatException e ) {
+                return raw;
+            }
+        }
+        return convertNonNumeric( type, raw );
+    }
+
+    private String convertNonNumeric( String type, String raw ) {
+        return switch( type ) {
+            case "s" -> {
+                int index = parseInt( raw.strip(), -1 );
+                yield index >= 0 && index < sharedStrings.length ? sharedStrings[index] : null;
+            }
+            case "b" -> Boolean.toString( "1".equals( raw.strip() ) );
+            case "e" -> null;
+            default -> raw;
+        };
+    }
+
+    /**
+     * 读取单元格的原始文本（&lt;v&gt;或内联字符串&lt;is&gt;&lt;t&gt;），光标停在单元格结束标签
+     *
+     * @return 原始文本，无值时返回null
+     */
+    private String readCellText( XMLStreamReader xml ) throws XMLStreamException {
+        boolean hasValue = false;
+        text.setLength( 0 );
+        int depth = 1;
+        while( depth > 0 ) {
+            int event = xml.next();
+            if( event == XMLStreamConstants.START_ELEMENT ) {
+                String name = xml.getLocalName();
+                if( "v".equals( name ) || "t".equals( name ) ) {
+                    appendElementText( xml );
+                    hasValue = true;
+                } else {
+                    depth++;
+                }
+            } else if( event == XMLStreamConstants.END_ELEMENT ) {
+                depth--;
+            }
+        }
+        return hasValue ? text.toString() : null;
+    }
+
+    /**
+     * 将当前元素的文本追加到缓冲区，光标停在该元素的结束标签
+     */
+    private void appendElementText( XMLStreamReader xml ) throws XMLStreamException {
+        while( true ) {
+            int event = xml.next();
+            if( event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                || event == XMLStreamConstants.SPACE ) {
+                text.append( xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength() );
+            } else if( event == XMLStreamConstants.END_ELEMENT ) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 跳过当前元素及其子元素，不读取文本
+     */
+    private static void skipElement( XMLStreamReader xml ) throws XMLStreamException {
+        int depth = 1;
+        while( depth > 0 ) {
+            int event = xml.next();
+            if( event == XMLStreamConstants.START_ELEMENT ) {
+                depth++;
+            } else if( event == XMLStreamConstants.END_ELEMENT ) {
+                depth--;
+            }
+        }
+    }
+
+    private String formatDate( double serial ) {
+        long days = (long) Math.floor( serial );
+        long seconds = Math.round( ( serial - days ) * 86400 );
+        if( seconds == 86400 ) {
+            days++;
+            seconds = 0;
+        }
+        LocalDate date = ( date1904 ? EPOCH_1904 : EPOCH_1900 ).plusDays( days );
+        if( seconds == 0 ) {
+            return date.toString();
+        }
+        LocalTime time = LocalTime.ofSecondOfDay( seconds );
+        if( days == 0 ) {
+            return time.format( TIME_FORMAT );
+        }
+        return LocalDateTime.of( date, time ).format( DATE_TIME_FORMAT );
+    }
+
+    private XMLStreamReader open( String entryName ) throws IOException, XMLStreamException {
+        ZipEntry entry = zipFile.getEntry( entryName );
+        if( entry == null ) {
+            return null;
+        }
+        InputStream in = new BufferedInputStream( zipFile.getInputStream( entry ), BUFFER_SIZE );
+        return XML_INPUT_FACTORY.createXMLStreamReader( in );
+    }
+
+    private static String relationshipId( XMLStreamReader xml ) {
+        for( int i = 0; i < xml.getAttributeCount(); i++ ) {
+            if( "id".equals( xml.getAttributeLocalName( i ) ) && xml.getAttributePrefix( i ) != null
+                && !xml.getAttributePrefix( i ).isEmpty() ) {
+                return xml.getAttributeValue( i );
+            }
+        }
+        return null;
+    }
+
+    private static String resolveTarget( String target ) {
+        if( target.startsWith( "/" ) ) {
+            return target.substring( 1 );
+        }
+        return "xl/" + target;
+    }
+
+    /**
+     * 将单元格引用（如"AB12"）中的列字母转换为从0开始的列号
+     */
+    static int columnIndex( String ref ) {
+        int index = 0;
+        for( int i = 0; i < ref.length(); i++ ) {
+            char c = ref.charAt( i );
+            if( c >= 'A' && c <= 'Z' ) {
+                index = index * 26 + ( c - 'A' + 1 );
+            } else if( c >= 'a' && c <= 'z' ) {
+                index = index * 26 + ( c - 'a' + 1 );
+            } else {
+                break;
+            }
+        }
+        return index - 1;
+    }
+
+    private static boolean isBuiltInDateFormat( int id ) {
+        return ( id >= 14 && id <= 22 ) || ( id >= 45 && id <= 47 );
+    }
+
+    /**
+     * 判断自定义格式是否为日期/时间格式（忽略引号、转义字符和颜色等方括号内容）
+     */
+    private static boolean isDateFormatCode( String formatCode ) {
+        if( formatCode == null ) {
+            return false;
+        }
+        boolean inQuotes = false;
+        boolean inBrackets = false;
+        for( int i = 0; i < formatCode.length(); i++ ) {
+            char c = formatCode.charAt( i );
+            if( c == '"' ) {
+                inQuotes = !inQuotes;
+            } else if( inQuotes ) {
+                continue;
+            } else if( c == '\\' ) {
+                i++;
+            } else if( c == '[' ) {
+                inBrackets = true;
+            } else if( c == ']' ) {
+                inBrackets = false;
+            } else if( !inBrackets ) {
+                char lower = Character.toLowerCase( c );
+                if( lower == 'y' || lower == 'd' || lower == 'h' || lower == 's' || lower == 'm' ) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int parseInt( String value, int defaultValue ) {
+        if( value == null ) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt( value );
+        } catch( NumberFormatException e ) {
+            return defaultValue;
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty( XMLInputFactory.SUPPORT_DTD, false );
+        factory.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false );
+        factory.setProperty( XMLInputFactory.IS_COALESCING, false );
+        return factory;
+    }
+
+    /**
+     * 表头扫描时暂存的单元格原始值
+     */
+    private record RawCell( int column, String type, int style, String raw ) {
+    }
+
+    /**
+     * 读取进度监听器，在读取线程中调用
+     */
+    public interface ProgressListener {
+
+        /**
+         * @param rows       已读取的数据行数
+         * @param bytesRead  已读取的工作表XML字节数（解压后）
+         * @param totalBytes 工作表XML的总字节数，未知时为-1
+         */
+        void onProgress( int rows, long bytesRead, long totalBytes );
+    }
+
+    /**
+     * 统计已读取字节数的输入流
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream( InputStream in ) {
+            super( in );
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if( b >= 0 ) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read( byte[] b, int off, int len ) throws IOException {
+            int n = super.read( b, off, len );
+            if( n > 0 ) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip( long n ) throws IOException {
+            long skipped = super.skip( n );
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.gwill.tools.graphics.excelcombochartplotter.io;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 字节数组池：按2的幂大小分档缓存用过的数组，避免每次生成图片都分配数MB的缓冲区。
+ * 超出最大档位的数组不入池。
+ */
+public final class ByteArrayPool {
+
+    // 最小档位 64KB
+    private static final int MIN_SHIFT = 16;
+
+    // 最大档位 64MB
+    private static final int MAX_SHIFT = 26;
+
+    // 每个档位最多缓存的数组数
+    private static final int MAX_PER_BUCKET = 4;
+
+    private static final ByteArrayPool SHARED = new ByteArrayPool();
+
+    private final ConcurrentLinkedQueue<byte[]>[] buckets;
+
+    private final AtomicInteger[] counts;
+
+    @SuppressWarnings( "unchecked" )
+    public ByteArrayPool() {
+        int bucketCount = MAX_SHIFT - MIN_SHIFT + 1;
+        buckets = new ConcurrentLinkedQueue[bucketCount];
+        counts = new AtomicInteger[bucketCount];
+        for( int i = 0; i < bucketCount; i++ ) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+            counts[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * 获取进程内共享的字节数组池
+     */
+    public static ByteArrayPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * 取出一个长度不小于 minCapacity 的数组，内容未清零
+     */
+    public byte[] acquire( int minCapacity ) {
+        int bucket = bucketOf( minCapacity );
+        if( bucket < 0 ) {
+            return new byte[minCapacity];
+        }
+        byte[] array = buckets[bucket].poll();
+        if( array != null ) {
+            counts[bucket].decrementAndGet();
+            return array;
+        }
+        return new byte[1 << ( bucket + MIN_SHIFT )];
+    }
+
+    /**
+     * 归还数组；长度不是档位大小或该档位已满时直接丢弃
+     */
+    public void release( byte[] array ) {
+        int length = array.length;
+        if( Integer.bitCount( length ) != 1 ) {
+            return;
+        }
+        int bucket = Integer.numberOfTrailingZeros( length ) - MIN_SHIFT;
+        if( bucket < 0 || bucket >= buckets.length ) {
+            return;
+        }
+        if( counts[bucket].incrementAndGet() > MAX_PER_BUCKET ) {
+            counts[bucket].decrementAndGet();
+            return;
+        }
+        buckets[bucket].offer( array );
+    }
+
+    private static int bucketOf( int capacity ) {
+        int shift = Math.max( MIN_SHIFT, 32 - Integer.numberOfLeadingZeros( Math.max( 1, capacity - 1 ) ) );
+        return shift <= MAX_SHIFT ? shift - MIN_SHIFT : -1;
+    }
+}
@@ -0,0 +1,505 @@
+package com.gwill.tools.graphics.excelcombochartplotter.io;
+
+import java.awt.image.BufferedImage;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * PNG编码器，支持指定压缩级别和多核并行压缩，并可逐段写入扫描行（见 {@link #start}），
+ * 编码时占用的内存与图片总大小无关。
+ * <p>
+ * 并行模式把扫描行按约1MB切成条带，每个条带在独立线程中过滤并用原始deflate压缩：
+ * 以前一条带末尾32KB的过滤数据作为预置字典保持压缩率，非最后条带以SYNC_FLUSH结束使其按字节对齐，
+ * 依次拼接后加上zlib头和由各条带合并得到的Adler-32校验，即为合法的IDAT数据流。
+ */
+public final class PngEncoder {
+
+    private static final byte[] SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+    private static final int COLOR_TYPE_RGB = 2;
+
+    private static final int COLOR_TYPE_RGBA = 6;
+
+    private static final int FILTER_NONE = 0;
+    private static final int FILTER_SUB = 1;
+    private static final int FILTER_UP = 2;
+    private static final int FILTER_AVERAGE = 3;
+    private static final int FILTER_PAETH = 4;
+
+    // deflate的滑动窗口大小，即预置字典的最大长度
+    private static final int WINDOW_SIZE = 32 * 1024;
+
+    // 每个并行条带的目标原始数据量
+    private static final int STRIP_BYTES = 1024 * 1024;
+
+    private static final int IDAT_CHUNK_SIZE = 64 * 1024;
+
+    private final int compressionLevel;
+
+    private final boolean parallel;
+
+    /**
+     * @param compressionLevel deflate压缩级别（0-9）
+     * @param parallel         是否多核并行压缩（图片较小时仍按单线程编码）
+     */
+    public PngEncoder( int compressionLevel, boolean parallel ) {
+        if( compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION ) {
+            throw new IllegalArgumentException( "压缩级别必须在0到9之间: " + compressionLevel );
+        }
+        this.compressionLevel = compressionLevel;
+        this.parallel = parallel;
+    }
+
+    /**
+     * 将图片编码为PNG写入输出流（不关闭输出流）
+     *
+     * @param image 图片
+     * @param out   输出流
+     * @throws IOException 如果写出失败
+     */
+    public void encode( BufferedImage image, OutputStream out ) throws IOException {
+        try( RowWriter writer = start( out, image.getWidth(), image.getHeight(), image.getColorModel().hasAlpha() ) ) {
+            writer.writeRows( image, 0, image.getHeight() );
+        }
+    }
+
+    /**
+     * 开始逐段写入一张PNG图片：写出文件头后，由调用方按从上到下的顺序写入全部扫描行，最后关闭写入器
+     *
+     * @param out    输出流（不会被关闭）
+     * @param width  图片宽度
+     * @param height 图片高度
+     * @param alpha  是否带透明通道
+     * @return 扫描行写入器
+     * @throws IOException 如果写出失败
+     */
+    public RowWriter start( OutputStream out, int width, int height, boolean alpha ) throws IOException {
+        if( width <= 0 || height <= 0 ) {
+            throw new IllegalArgumentException( "图片宽度和高度必须大于0" );
+        }
+        return new RowWriter( out, width, height, alpha );
+    }
+
+    /**
+     * 扫描行写入器，非线程安全
+     */
+    public final class RowWriter implements AutoCloseable {
+
+        private final OutputStream out;
+
+        private final IdatOutputStream idat;
+
+        private final int width;
+
+        private final int height;
+
+        private final int bytesPerPixel;
+
+        private final int rowBytes;
+
+        private final boolean adaptive;
+
+        private final int[] argb;
+
+        private int rowsWritten;
+
+        private boolean closed;
+
+        // 单线程模式
+        private Deflater deflater;
+        private DeflaterOutputStream zlib;
+        private byte[] previousRow;
+        private byte[] currentRow;
+        private byte[] filteredRow;
+        private byte[] candidate;
+
+        // 并行模式
+        private byte[] stripRaw;
+        private byte[] stripPreviousRow;
+        private int stripRows;
+        private int rowsPerStrip;
+        private int maxInFlight;
+        private CompletableFuture<byte[]> lastFiltered;
+        private final Deque<CompletableFuture<Strip>> inFlight = new ArrayDeque<>();
+        private long adler = 1;
+
+        private RowWriter( OutputStream out, int width, int height, boolean alpha ) throws IOException {
+            this.out = out;
+            this.width = width;
+            this.height = height;
+            this.bytesPerPixel = alpha ? 4 : 3;
+            this.rowBytes = width * bytesPerPixel;
+            this.adaptive = compressionLevel > Deflater.BEST_SPEED;
+            this.argb = new int[width];
+
+            out.write( SIGNATURE );
+            byte[] header = new byte[13];
+            writeInt( header, 0, width );
+            writeInt( header, 4, height );
+            header[8] = 8;
+            header[9] = (byte) ( alpha ? COLOR_TYPE_RGBA : COLOR_TYPE_RGB );
+            writeChunk( out, "IHDR", header, 0, header.length );
+            idat = new IdatOutputStream( out );
+
+            int cores = Runtime.getRuntime().availableProcessors();
+            long totalBytes = (long) height * ( rowBytes + 1 );
+            if( parallel && cores > 1 && totalBytes > 2L * STRIP_BYTES ) {
+                rowsPerStrip = Math.max( 1, STRIP_BYTES / ( rowBytes + 1 ) );
+                maxInFlight = cores * 2;
+                stripRaw = new byte[rowsPerStrip * rowBytes];
+                stripPreviousRow = new byte[rowBytes];
+                writeZlibHeader();
+            } else {
+                deflater = new Deflater( compressionLevel );
+                zlib = new DeflaterOutputStream( idat, deflater, IDAT_CHUNK_SIZE );
+                previousRow = new byte[rowBytes];
+                currentRow = new byte[rowBytes];
+                filteredRow = new byte[rowBytes + 1];
+                candidate = adaptive ? new byte[rowBytes] : null;
+            }
+        }
+
+        /**
+         * 写入来源图片中从 sourceY 开始的 rowCount 行
+         *
+         * @param source    来源图片，宽度必须与PNG相同
+         * @param sourceY   来源图片中的起始行
+         * @param rowCount  行数
+         * @throws IOException 如果写出失败
+         */
+        public void writeRows( BufferedImage source, int sourceY, int rowCount ) throws IOException {
+            if( source.getWidth() != width ) {
+                throw new IllegalArgumentException( "扫描行宽度与图片宽度不一致" );
+            }
+            if( rowsWritten + rowCount > height ) {
+                throw new IllegalStateException( "写入的行数超过图片高度" );
+            }
+            for( int i = 0; i < rowCount; i++ ) {
+                source.getRGB( 0, sourceY + i, width, 1, argb, 0, width );
+                if( zlib != null ) {
+                    toBytes( argb, currentRow, 0 );
+                    filterRow( currentRow, previousRow, filteredRow, 0, candidate );
+                    zlib.write( filteredRow );
+                    byte[] swap = previousRow;
+                    previousRow = currentRow;
+                    currentRow = swap;
+                    rowsWritten++;
+                } else {
+                    toBytes( argb, stripRaw, stripRows * rowBytes );
+                    stripRows++;
+                    rowsWritten++;
+                    if( stripRows == rowsPerStrip || rowsWritten == height ) {
+                        submitStrip();
+                    }
+                }
+            }
+        }
+
+        /**
+         * 结束编码，写出剩余数据和文件尾
+         *
+         * @throws IOException 如果写出失败，或写入的行数少于图片高度
+         */
+        @Override
+        public void close() throws IOException {
+            if( closed ) {
+                return;
+            }
+            closed = true;
+            try {
+                if( rowsWritten != height ) {
+                    throw new IOException( "PNG扫描行不完整：已写入 " + rowsWritten + " 行，应为 " + height + " 行" );
+                }
+                if( zlib != null ) {
+                    zlib.finish();
+                } else {
+                    drain( 0 );
+                    byte[] trailer = new byte[4];
+                    writeInt( trailer, 0, (int) adler );
+                    idat.write( trailer );
+                }
+                idat.close();
+                writeChunk( out, "IEND", new byte[0], 0, 0 );
+            } finally {
+                if( deflater != null ) {
+                    deflater.end();
+                }
+                inFlight.forEach( future -> future.cancel( false ) );
+            }
+        }
+
+        private void writeZlibHeader() throws IOException {
+            // CM=8（deflate），CINFO=7（32KB窗口），FLEVEL按压缩级别，FCHECK使头部可被31整除
+            int flevel = compressionLevel <= Deflater.BEST_SPEED ? 0 : compressionLevel < 6 ? 1 : compressionLevel == 6 ? 2 : 3;
+            int cmf = 0x78;
+            int flg = flevel << 6;
+            flg += 31 - ( ( cmf << 8 ) + flg ) % 31;
+            idat.write( cmf );
+            idat.write( flg );
+        }
+
+        /**
+         * 提交当前条带：过滤只依赖前一行原始数据，可立即并行执行；压缩还需等前一条带过滤完成以取得字典
+         */
+        private void submitStrip() throws IOException {
+            byte[] raw = Arrays.copyOf( stripRaw, stripRows * rowBytes );
+            byte[] previous = stripPreviousRow.clone();
+            int rows = stripRows;
+            boolean last = rowsWritten == height;
+            System.arraycopy( stripRaw, ( stripRows - 1 ) * rowBytes, stripPreviousRow, 0, rowBytes );
+            stripRows = 0;
+
+            CompletableFuture<byte[]> filtered = CompletableFuture.supplyAsync( () -> filterStrip( raw, rows, previous ) );
+            CompletableFuture<Strip> compressed = lastFiltered == null
+                ? filtered.thenApplyAsync( current -> compressStrip( current, null, last ) )
+                : filtered.thenCombineAsync( lastFiltered, ( current, dictionary ) -> compressStrip( current, dictionary, last ) );
+            lastFiltered = filtered;
+            inFlight.addLast( compressed );
+            drain( maxInFlight );
+        }
+
+        /**
+         * 按顺序写出已压缩的条带，直到未完成的条带不超过 limit 个
+         */
+        private void drain( int limit ) throws IOException {
+            while( inFlight.size() > limit ) {
+                Strip strip;
+                try {
+                    strip = inFlight.removeFirst().join();
+                } catch( CompletionException e ) {
+                    throw new IOException( "PNG并行压缩失败", e.getCause() );
+                }
+                idat.write( strip.compressed(), 0, strip.compressedLength() );
+                adler = combineAdler32( adler, strip.adler32(), strip.rawLength() );
+            }
+        }
+
+        private byte[] filterStrip( byte[] raw, int rows, byte[] previous ) {
+            byte[] filtered = new byte[rows * ( rowBytes + 1 )];
+            byte[] current = new byte[rowBytes];
+            byte[] scratch = adaptive ? new byte[rowBytes] : null;
+            for( int r = 0; r < rows; r++ ) {
+                System.arraycopy( raw, r * rowBytes, current, 0, rowBytes );
+                filterRow( current, previous, filtered, r * ( rowBytes + 1 ), scratch );
+                System.arraycopy( raw, r * rowBytes, previous, 0, rowBytes );
+            }
+            return filtered;
+        }
+
+        private Strip compressStrip( byte[] filtered, byte[] dictionary, boolean last ) {
+            Adler32 checksum = new Adler32();
+            checksum.update( filtered );
+
+            Deflater stripDeflater = new Deflater( compressionLevel, true );
+            try {
+                if( dictionary != null ) {
+                    // 以前一条带末尾的过滤数据作为字典，使跨条带的重复内容仍能被引用
+                    int length = Math.min( WINDOW_SIZE, dictionary.length );
+                    stripDeflater.setDictionary( dictionary, dictionary.length - length, length );
+                }
+                stripDeflater.setInput( filtered );
+                if( last ) {
+                    stripDeflater.finish();
+                }
+
+                byte[] compressed = new byte[Math.max( 1024, filtered.length / 4 )];
+                int length = 0;
+                while( true ) {
+                    if( length == compressed.length ) {
+                        compressed = Arrays.copyOf( compressed, compressed.length * 2 );
+                    }
+                    int n = stripDeflater.deflate( compressed, length, compressed.length - length,
+                        last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH );
+                    length += n;
+                    if( last ? stripDeflater.finished() : length < compressed.length ) {
+                        break;
+                    }
+                }
+                return new Strip( compressed, length, filtered.length, checksum.getValue() );
+            } finally {
+                stripDeflater.end();
+            }
+        }
+
+        private void toBytes( int[] pixels, byte[] target, int offset ) {
+            int p = offset;
+            for( int pixel : pixels ) {
+                target[p++] = (byte) ( pixel >>> 16 );
+                target[p++] = (byte) ( pixel >>> 8 );
+                target[p++] = (byte) pixel;
+                if( bytesPerPixel == 4 ) {
+                    target[p++] = (byte) ( pixel >>> 24 );
+                }
+            }
+        }
+
+        /**
+         * 过滤一行，写入 target 的 offset 处（1字节过滤类型 + 过滤后的数据）。
+         * 自适应模式逐个尝试五种过滤方式，取有符号字节绝对值之和最小者（libpng的启发式），否则固定用Sub
+         */
+        private void filterRow( byte[] current, byte[] previous, byte[] target, int offset, byte[] scratch ) {
+            if( !adaptive ) {
+                target[offset] = FILTER_SUB;
+                applyFilter( FILTER_SUB, current, previous, target, offset + 1 );
+                return;
+            }
+            long bestSum = Long.MAX_VALUE;
+            for( int type = FILTER_NONE; type <= FILTER_PAETH; type++ ) {
+                applyFilter( type, current, previous, scratch, 0 );
+                long sum = 0;
+                for( byte b : scratch ) {
+                    sum += Math.abs( b );
+                }
+                if( sum < bestSum ) {
+                    bestSum = sum;
+                    target[offset] = (byte) type;
+                    System.arraycopy( scratch, 0, target, offset + 1, scratch.length );
+                }
+            }
+        }
+
+        private void applyFilter( int type, byte[] current, byte[] previous, byte[] target, int offset ) {
+            int bpp = bytesPerPixel;
+            for( int i = 0; i < current.length; i++ ) {
+                int x = current[i] & 0xFF;
+                int a = i >= bpp ? current[i - bpp] & 0xFF : 0;
+                int b = previous[i] & 0xFF;
+                int c = i >= bpp ? previous[i - bpp] & 0xFF : 0;
+                int predicted = switch( type ) {
+                    case FILTER_SUB -> a;
+                    case FILTER_UP -> b;
+                    case FILTER_AVERAGE -> ( a + b ) >>> 1;
+                    case FILTER_PAETH -> paeth( a, b, c );
+                    default -> 0;
+                };
+                target[offset + i] = (byte) ( x - predicted );
+            }
+        }
+    }
+
+    private static int paeth( int a, int b, int c ) {
+        int p = a + b - c;
+        int pa = Math.abs( p - a );
+        int pb = Math.abs( p - b );
+        int pc = Math.abs( p - c );
+        if( pa <= pb && pa <= pc ) {
+            return a;
+        }
+        return pb <= pc ? b : c;
+    }
+
+    /**
+     * 合并两段数据的Adler-32校验值（与zlib的adler32_combine相同）
+     */
+    static long combineAdler32( long adler1, long adler2, long length2 ) {
+        final long base = 65521;
+        long remainder = length2 % base;
+        long sum1 = adler1 & 0xFFFF;
+        long sum2 = ( remainder * sum1 ) % base;
+        sum1 += ( adler2 & 0xFFFF ) + base - 1;
+        sum2 += ( ( adler1 >>> 16 ) & 0xFFFF ) + ( ( adler2 >>> 16 ) & 0xFFFF ) + base - remainder;
+        if( sum1 >= base ) {
+            sum1 -= base;
+        }
+        if( sum1 >= base ) {
+            sum1 -= base;
+        }
+        if( sum2 >= base << 1 ) {
+            sum2 -= base << 1;
+        }
+        if( sum2 >= base ) {
+            sum2 -= base;
+        }
+        return sum1 | ( sum2 << 16 );
+    }
+
+    private static void writeChunk( OutputStream out, String type, byte[] data, int off, int len ) throws IOException {
+        byte[] typeBytes = type.getBytes( StandardCharsets.US_ASCII );
+        CRC32 crc = new CRC32();
+        crc.update( typeBytes );
+        crc.update( data, off, len );
+
+        DataOutputStream dataOut = new DataOutputStream( out );
+        dataOut.writeInt( len );
+        dataOut.write( typeBytes );
+        dataOut.write( data, off, len );
+        dataOut.writeInt( (int) crc.getValue() );
+    }
+
+    private static void writeInt( byte[] target, int offset, int value ) {
+        target[offset] = (byte) ( value >>> 24 );
+        target[offset + 1] = (byte) ( value >>> 16 );
+        target[offset + 2] = (byte) ( value >>> 8 );
+        target[offset + 3] = (byte) value;
+    }
+
+    /**
+     * 压缩后的条带
+     */
+    private record Strip( byte[] compressed, int compressedLength, int rawLength, long adler32 ) {
+    }
+
+    /**
+     * 把写入的数据切分为IDAT数据块
+     */
+    private static final class IdatOutputStream extends OutputStream {
+
+        private final OutputStream out;
+
+        private final byte[] buffer = new byte[IDAT_CHUNK_SIZE];
+
+        private int count;
+
+        IdatOutputStream( OutputStream out ) {
+            this.out = out;
+        }
+
+        @Override
+        public void write( int b ) throws IOException {
+            if( count == buffer.length ) {
+                flushChunk();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len ) throws IOException {
+            while( len > 0 ) {
+                if( count == buffer.length ) {
+                    flushChunk();
+                }
+                int n = Math.min( len, buffer.length - count );
+                System.arraycopy( b, off, buffer, count, n );
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        private void flushChunk() throws IOException {
+            if( count > 0 ) {
+                writeChunk( out, "IDAT", buffer, 0, count );
+                count = 0;
+            }
+        }
+
+        /**
+         * 写出剩余数据，不关闭底层输出流
+         */
+        @Override
+        public void close() throws IOException {
+            flushChunk();
+        }
+    }
+}
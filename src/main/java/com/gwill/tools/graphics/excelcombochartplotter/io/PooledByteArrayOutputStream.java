@@ -0,0 +1,128 @@
+package com.gwill.tools.graphics.excelcombochartplotter.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * 缓冲区取自 {@link ByteArrayPool} 的内存输出流。
+ * <p>
+ * 写完后可以直接读取 {@link #array()} 的前 {@link #size()} 个字节，或写出到流/通道；
+ * 关闭时把缓冲区归还给池，之后不能再访问。
+ */
+public final class PooledByteArrayOutputStream extends OutputStream {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 256 * 1024;
+
+    private final ByteArrayPool pool;
+
+    private byte[] buffer;
+
+    private int size;
+
+    public PooledByteArrayOutputStream() {
+        this( ByteArrayPool.shared(), DEFAULT_INITIAL_CAPACITY );
+    }
+
+    /**
+     * @param pool            字节数组池
+     * @param initialCapacity 初始容量（预估的输出大小）
+     */
+    public PooledByteArrayOutputStream( ByteArrayPool pool, int initialCapacity ) {
+        this.pool = pool;
+        this.buffer = pool.acquire( initialCapacity );
+    }
+
+    @Override
+    public void write( int b ) {
+        ensureCapacity( size + 1 );
+        buffer[size++] = (byte) b;
+    }
+
+    @Override
+    public void write( byte[] b, int off, int len ) {
+        ensureCapacity( size + len );
+        System.arraycopy( b, off, buffer, size, len );
+        size += len;
+    }
+
+    /**
+     * 内部缓冲区，有效数据为前 {@link #size()} 个字节
+     */
+    public byte[] array() {
+        ensureOpen();
+        return buffer;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 清空内容以便复用，保留缓冲区
+     */
+    public void reset() {
+        size = 0;
+    }
+
+    /**
+     * 复制出有效数据
+     */
+    public byte[] toByteArray() {
+        ensureOpen();
+        return Arrays.copyOf( buffer, size );
+    }
+
+    /**
+     * 将有效数据写出到输出流
+     */
+    public void writeTo( OutputStream out ) throws IOException {
+        ensureOpen();
+        out.write( buffer, 0, size );
+    }
+
+    /**
+     * 将有效数据写出到通道
+     */
+    public void writeTo( WritableByteChannel channel ) throws IOException {
+        ensureOpen();
+        ByteBuffer data = ByteBuffer.wrap( buffer, 0, size );
+        while( data.hasRemaining() ) {
+            channel.write( data );
+        }
+    }
+
+    /**
+     * 归还缓冲区
+     */
+    @Override
+    public void close() {
+        if( buffer != null ) {
+            pool.release( buffer );
+            buffer = null;
+        }
+    }
+
+    private void ensureCapacity( int minCapacity ) {
+        ensureOpen();
+        if( minCapacity < 0 ) {
+            throw new OutOfMemoryError( "输出超过2GB" );
+        }
+        if( minCapacity <= buffer.length ) {
+            return;
+        }
+        int newCapacity = (int) Math.min( Integer.MAX_VALUE - 8, Math.max( (long) buffer.length * 2, minCapacity ) );
+        byte[] grown = pool.acquire( newCapacity );
+        System.arraycopy( buffer, 0, grown, 0, size );
+        pool.release( buffer );
+        buffer = grown;
+    }
+
+    private void ensureOpen() {
+        if( buffer == null ) {
+            throw new IllegalStateException( "输出流已关闭" );
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.gwill.tools.graphics.excelcombochartplotter.json;
+
+import com.gwill.tools.graphics.excelcombochartplotter.model.ChartConfiguration;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ChartType;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ImageSettings;
+import com.gwill.tools.graphics.excelcombochartplotter.model.SizeUnit;
+import com.gwill.tools.graphics.excelcombochartplotter.model.YAxisSeriesConfig;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 图表配置与JSON对象之间的转换
+ * <pre>
+ * {
+ *   "xAxis": "月份",
+ *   "series": [
+ *     { "column": "销售额", "type": "BAR" },
+ *     { "column": "增长率", "type": "LINE", "secondaryAxis": true }
+ *   ],
+ *   "image": { "width": 1024, "height": 768, "unit": "PIXEL", "title": "销售", "showLegend": true }
+ * }
+ * </pre>
+ * image中可分别用 widthUnit / heightUnit 指定单位；省略的字段取 {@link ImageSettings#defaultSettings()} 的值，
+ * 省略宽度或高度时其单位也取默认值。
+ */
+public final class ChartConfigurationJson {
+
+    private ChartConfigurationJson() {
+    }
+
+    /**
+     * 从JSON对象读取图表配置
+     *
+     * @param json 由 {@link JsonParser} 解析得到的对象
+     * @return 图表配置
+     * @throws IOException 如果缺少必填字段或字段取值非法
+     */
+    public static ChartConfiguration fromJson( Object json ) throws IOException {
+        Map<?, ?> object = asObject( json, "图表配置" );
+
+        String xAxisColumn = requireString( object, "xAxis" );
+        Object seriesJson = object.get( "series" );
+        if( !( seriesJson instanceof List<?> seriesList ) || seriesList.isEmpty() ) {
+            throw new IOException( "图表配置缺少系列（series）" );
+        }
+        List<YAxisSeriesConfig> series = new ArrayList<>();
+        for( Object item : seriesList ) {
+            Map<?, ?> seriesObject = asObject( item, "系列配置" );
+            series.add( new YAxisSeriesConfig(
+                requireString( seriesObject, "column" ),
+                enumValue( ChartType.class, seriesObject.get( "type" ), ChartType.BAR ),
+                Boolean.TRUE.equals( seriesObject.get( "secondaryAxis" ) )
+            ) );
+        }
+
+        ImageSettings defaults = ImageSettings.defaultSettings();
+        ImageSettings imageSettings = defaults;
+        if( object.get( "image" ) != null ) {
+            Map<?, ?> image = asObject( object.get( "image" ), "图片设置" );
+            SizeUnit unit = enumValue( SizeUnit.class, image.get( "unit" ), SizeUnit.PIXEL );
+            // 省略宽度或高度时连同单位一起取默认值
+            boolean hasWidth = image.get( "width" ) != null;
+            boolean hasHeight = image.get( "height" ) != null;
+            imageSettings = new ImageSettings(
+                number( image.get( "width" ), defaults.width() ),
+                hasWidth ? enumValue( SizeUnit.class, image.get( "widthUnit" ), unit ) : defaults.widthUnit(),
+                number( image.get( "height" ), defaults.height() ),
+                hasHeight ? enumValue( SizeUnit.class, image.get( "heightUnit" ), unit ) : defaults.heightUnit(),
+                image.get( "title" ) instanceof String title ? title : defaults.title(),
+                image.get( "showLegend" ) instanceof Boolean showLegend ? showLegend : defaults.showLegend()
+            );
+        }
+        if( imageSettings.getWidthInPixels() <= 0 || imageSettings.getHeightInPixels() <= 0 ) {
+            throw new IOException( "图片宽度和高度必须大于0" );
+        }
+
+        return new ChartConfiguration( xAxisColumn, List.copyOf( series ), imageSettings );
+    }
+
+    private static Map<?, ?> asObject( Object json, String what ) throws IOException {
+        if( !( json instanceof Map<?, ?> object ) ) {
+            throw new IOException( what + "必须是JSON对象" );
+        }
+        return object;
+    }
+
+    private static String requireString( Map<?, ?> object, String key ) throws IOException {
+        if( !( object.get( key ) instanceof String value ) || value.isBlank() ) {
+            throw new IOException( "缺少字段: " + key );
+        }
+        return value;
+    }
+
+    private static double number( Object value, double defaultValue ) throws IOException {
+        if( value == null ) {
+            return defaultValue;
+        }
+        if( !( value instanceof Double number ) ) {
+            throw new IOException( "字段取值必须是数字: " + value );
+        }
+        return number;
+    }
+
+    private static <E extends Enum<E>> E enumValue( Class<E> type, Object value, E defaultValue ) throws IOException {
+        if( value == null ) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf( type, value.toString().trim().toUpperCase( Locale.ROOT ) );
+        } catch( IllegalArgumentException e ) {
+            throw new IOException( "无法识别的取值: " + value );
+        }
+    }
+}
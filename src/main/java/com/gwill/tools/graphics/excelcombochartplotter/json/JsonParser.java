@@ -0,0 +1,257 @@
+package com.gwill.tools.graphics.excelcombochartplotter.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 轻量JSON解析器，只用于读取作业文件和图表配置。
+ * <p>
+ * 对象解析为保持键顺序的 {@code Map<String, Object>}，数组为 {@code List<Object>}，
+ * 数字统一为 {@link Double}，其余为 {@link String}、{@link Boolean} 或 null。
+ * 数字须符合JSON语法（不允许前导零、正号、省略整数或小数位、十六进制等写法），且不能超出double范围。
+ * 对象和数组的嵌套深度不超过 {@link #MAX_DEPTH}，以免不可信的输入耗尽调用栈。
+ */
+public final class JsonParser {
+
+    /**
+     * 对象和数组的最大嵌套深度
+     */
+    public static final int MAX_DEPTH = 64;
+
+    private final String text;
+    private int pos;
+    private int depth;
+
+    private JsonParser( String text ) {
+        this.text = text;
+    }
+
+    /**
+     * 解析完整的JSON文本
+     *
+     * @param text JSON文本
+     * @return 解析结果
+     * @throws IOException 如果文本不是合法的JSON
+     */
+    public static Object parse( String text ) throws IOException {
+        JsonParser parser = new JsonParser( text );
+        parser.skipWhitespace();
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if( parser.pos < text.length() ) {
+            throw parser.error( "JSON末尾存在多余内容" );
+        }
+        return value;
+    }
+
+    private Object readValue() throws IOException {
+        if( pos >= text.length() ) {
+            throw error( "JSON意外结束" );
+        }
+        char c = text.charAt( pos );
+        return switch( c ) {
+            case '{', '[' -> {
+                if( ++depth > MAX_DEPTH ) {
+                    throw error( "嵌套层数超过 " + MAX_DEPTH );
+                }
+                Object container = c == '{' ? readObject() : readArray();
+                depth--;
+                yield container;
+            }
+            case '"' -> readString();
+            case 't' -> readLiteral( "true", Boolean.TRUE );
+            case 'f' -> readLiteral( "false", Boolean.FALSE );
+            case 'n' -> readLiteral( "null", null );
+            default -> {
+                if( c == '-' || ( c >= '0' && c <= '9' ) ) {
+                    yield readNumber();
+                }
+                throw error( "无法识别的字符 '" + c + "'" );
+            }
+        };
+    }
+
+    private Map<String, Object> readObject() throws IOException {
+        Map<String, Object> object = new LinkedHashMap<>();
+        pos++;
+        skipWhitespace();
+        if( peek() == '}' ) {
+            pos++;
+            return object;
+        }
+        while( true ) {
+            skipWhitespace();
+            if( peek() != '"' ) {
+                throw error( "对象的键必须是字符串" );
+            }
+            String key = readString();
+            skipWhitespace();
+            expect( ':' );
+            skipWhitespace();
+            object.put( key, readValue() );
+            skipWhitespace();
+            if( peek() == ',' ) {
+                pos++;
+            } else {
+                expect( '}' );
+                return object;
+            }
+        }
+    }
+
+    private List<Object> readArray() throws IOException {
+        List<Object> array = new ArrayList<>();
+        pos++;
+        skipWhitespace();
+        if( peek() == ']' ) {
+            pos++;
+            return array;
+        }
+        while( true ) {
+            skipWhitespace();
+            array.add( readValue() );
+            skipWhitespace();
+            if( peek() == ',' ) {
+                pos++;
+            } else {
+                expect( ']' );
+                return array;
+            }
+        }
+    }
+
+    private String readString() throws IOException {
+        pos++;
+        StringBuilder sb = new StringBuilder();
+        while( pos < text.length() ) {
+            char c = text.charAt( pos++ );
+            if( c == '"' ) {
+                return sb.toString();
+            }
+            if( c < ' ' ) {
+                pos--;
+                throw error( "字符串中的控制字符必须转义" );
+            }
+            if( c != '\\' ) {
+                sb.append( c );
+                continue;
+            }
+            if( pos >= text.length() ) {
+                break;
+            }
+            char escaped = text.charAt( pos++ );
+            switch( escaped ) {
+                case '"', '\\', '/' -> sb.append( escaped );
+                case 'b' -> sb.append( '\b' );
+                case 'f' -> sb.append( '\f' );
+                case 'n' -> sb.append( '\n' );
+                case 'r' -> sb.append( '\r' );
+                case 't' -> sb.append( '\t' );
+                case 'u' -> {
+                    if( pos + 4 > text.length() ) {
+                        throw error( "不完整的Unicode转义" );
+                    }
+                    int code = 0;
+                    for( int i = 0; i < 4; i++ ) {
+                        int digit = Character.digit( text.charAt( pos + i ), 16 );
+                        if( digit < 0 ) {
+                            throw error( "非法的Unicode转义" );
+                        }
+                        code = code * 16 + digit;
+                    }
+                    // 代理对由两个相邻的转义各自给出一半，按UTF-16原样拼接
+                    sb.append( (char) code );
+                    pos += 4;
+                }
+                default -> throw error( "非法的转义字符 '\\" + escaped + "'" );
+            }
+        }
+        throw error( "字符串未结束" );
+    }
+
+    /**
+     * 按JSON语法读取数字：{@code -? (0 | [1-9][0-9]*) (.[0-9]+)? ([eE][+-]?[0-9]+)?}
+     */
+    private Double readNumber() throws IOException {
+        int start = pos;
+        if( peek() == '-' ) {
+            pos++;
+        }
+        if( peek() == '0' ) {
+            pos++;
+        } else if( !skipDigits() ) {
+            throw numberError( start );
+        }
+        if( peek() == '.' ) {
+            pos++;
+            if( !skipDigits() ) {
+                throw numberError( start );
+            }
+        }
+        if( peek() == 'e' || peek() == 'E' ) {
+            pos++;
+            if( peek() == '+' || peek() == '-' ) {
+                pos++;
+            }
+            if( !skipDigits() ) {
+                throw numberError( start );
+            }
+        }
+        double value = Double.parseDouble( text.substring( start, pos ) );
+        if( Double.isInfinite( value ) ) {
+            pos = start;
+            throw error( "数字超出范围" );
+        }
+        return value;
+    }
+
+    /**
+     * 跳过连续的十进制数字
+     *
+     * @return 是否至少有一位数字
+     */
+    private boolean skipDigits() {
+        int start = pos;
+        while( pos < text.length() && text.charAt( pos ) >= '0' && text.charAt( pos ) <= '9' ) {
+            pos++;
+        }
+        return pos > start;
+    }
+
+    private IOException numberError( int start ) {
+        pos = start;
+        return error( "非法的数字" );
+    }
+
+    private Object readLiteral( String literal, Object value ) throws IOException {
+        if( !text.startsWith( literal, pos ) ) {
+            throw error( "无法识别的字面量" );
+        }
+        pos += literal.length();
+        return value;
+    }
+
+    private void expect( char c ) throws IOException {
+        if( peek() != c ) {
+            throw error( "缺少 '" + c + "'" );
+        }
+        pos++;
+    }
+
+    private char peek() {
+        return pos < text.length() ? text.charAt( pos ) : '\0';
+    }
+
+    private void skipWhitespace() {
+        while( pos < text.length() && Character.isWhitespace( text.charAt( pos ) ) ) {
+            pos++;
+        }
+    }
+
+    private IOException error( String message ) {
+        return new IOException( "JSON格式错误（位置 " + pos + "）: " + message );
+    }
+}
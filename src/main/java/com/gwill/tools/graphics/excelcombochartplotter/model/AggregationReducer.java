@@ -0,0 +1,37 @@
+package com.gwill.tools.graphics.excelcombochartplotter.model;
+
+/**
+ * 分类合并时每个分箱内数值的归约方式
+ */
+public enum AggregationReducer {
+
+    /**
+     * 不合并分类
+     */
+    NONE,
+
+    /**
+     * 求和
+     */
+    SUM,
+
+    /**
+     * 平均值
+     */
+    MEAN,
+
+    /**
+     * 最小值
+     */
+    MIN,
+
+    /**
+     * 最大值
+     */
+    MAX,
+
+    /**
+     * 分箱内最后一个值
+     */
+    LAST
+}
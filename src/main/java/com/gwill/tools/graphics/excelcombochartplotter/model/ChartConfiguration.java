@@ -1,6 +1,8 @@
 package com.gwill.tools.graphics.excelcombochartplotter.model;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 完整的图表配置记录
@@ -42,4 +44,16 @@ public record ChartConfiguration(
             .filter( YAxisSeriesConfig::useSecondaryAxis )
             .toList();
     }
+
+    /**
+     * 获取图表用到的所有列名（X轴列在前，其后按系列顺序）
+     */
+    public Set<String> getReferencedColumns() {
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add( xAxisColumn );
+        for( YAxisSeriesConfig series : yAxisSeries ) {
+            columns.add( series.columnName() );
+        }
+        return columns;
+    }
 }
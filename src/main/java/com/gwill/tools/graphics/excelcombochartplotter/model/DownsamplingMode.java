@@ -0,0 +1,22 @@
+package com.gwill.tools.graphics.excelcombochartplotter.model;
+
+/**
+ * 折线系列降采样方式
+ */
+public enum DownsamplingMode {
+
+    /**
+     * 不降采样，绘制所有数据点
+     */
+    NONE,
+
+    /**
+     * Largest-Triangle-Three-Buckets：每个桶保留与相邻桶构成最大三角形的点，视觉形状保留最好
+     */
+    LTTB,
+
+    /**
+     * 最小/最大值抽取：每个桶保留最小值和最大值所在的点，保证峰谷不丢失
+     */
+    MIN_MAX
+}
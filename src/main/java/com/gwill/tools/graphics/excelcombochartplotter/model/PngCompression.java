@@ -0,0 +1,35 @@
+package com.gwill.tools.graphics.excelcombochartplotter.model;
+
+/**
+ * PNG压缩级别
+ */
+public enum PngCompression {
+
+    /**
+     * 最快：deflate级别1，只用Sub行过滤，文件略大
+     */
+    FAST( 1 ),
+
+    /**
+     * 均衡：deflate级别6（与zlib默认值相同），自适应行过滤
+     */
+    BALANCED( 6 ),
+
+    /**
+     * 最小：deflate级别9，自适应行过滤，编码最慢
+     */
+    SMALL( 9 );
+
+    private final int level;
+
+    PngCompression( int level ) {
+        this.level = level;
+    }
+
+    /**
+     * 对应的deflate压缩级别
+     */
+    public int getLevel() {
+        return level;
+    }
+}
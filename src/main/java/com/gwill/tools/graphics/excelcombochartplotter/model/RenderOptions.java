@@ -0,0 +1,71 @@
+package com.gwill.tools.graphics.excelcombochartplotter.model;
+
+/**
+ * 单次渲染的选项（不属于图表配置本身，可按每次渲染调整）
+ *
+ * @param downsampling        折线系列数据点远多于像素宽度时的降采样方式
+ * @param barAggregation      柱形图分类过多时，合并相邻分类所用的归约方式
+ * @param pngCompression      PNG压缩级别
+ * @param parallelPngEncoding 是否多核并行压缩PNG（图片较小时自动按单线程编码）
+ * @param tiledRendering      是否逐带绘制并流式编码，使内存占用与图片大小无关（超大图片总是逐带绘制）
+ * @param profile             渲染质量档位
+ */
+public record RenderOptions(
+    DownsamplingMode downsampling,
+    AggregationReducer barAggregation,
+    PngCompression pngCompression,
+    boolean parallelPngEncoding,
+    boolean tiledRendering,
+    RenderProfile profile
+) {
+
+    /**
+     * 默认选项，用于导出：绘制全部数据点和全部柱形分类（不降采样、不合并），
+     * PNG按均衡级别并行压缩，仅超大图片逐带绘制，按成品质量渲染
+     */
+    public static RenderOptions defaults() {
+        return new RenderOptions( DownsamplingMode.NONE, AggregationReducer.NONE, PngCompression.BALANCED, true, false, RenderProfile.FINAL );
+    }
+
+    /**
+     * 草稿选项，用于预览和缩略图：在默认选项基础上按草稿质量渲染，折线数据点超过像素宽度两倍时按LTTB降采样，
+     * 柱形分类超过像素预算时按平均值合并
+     */
+    public static RenderOptions draft() {
+        return defaults()
+            .withDownsampling( DownsamplingMode.LTTB )
+            .withBarAggregation( AggregationReducer.MEAN )
+            .withProfile( RenderProfile.DRAFT );
+    }
+
+    /**
+     * 指定质量档位的标准选项：草稿档位为 {@link #draft()}，成品档位为 {@link #defaults()}
+     */
+    public static RenderOptions forProfile( RenderProfile renderProfile ) {
+        return renderProfile == RenderProfile.DRAFT ? draft() : defaults();
+    }
+
+    public RenderOptions withDownsampling( DownsamplingMode mode ) {
+        return new RenderOptions( mode, barAggregation, pngCompression, parallelPngEncoding, tiledRendering, profile );
+    }
+
+    public RenderOptions withBarAggregation( AggregationReducer reducer ) {
+        return new RenderOptions( downsampling, reducer, pngCompression, parallelPngEncoding, tiledRendering, profile );
+    }
+
+    public RenderOptions withPngCompression( PngCompression compression ) {
+        return new RenderOptions( downsampling, barAggregation, compression, parallelPngEncoding, tiledRendering, profile );
+    }
+
+    public RenderOptions withParallelPngEncoding( boolean parallel ) {
+        return new RenderOptions( downsampling, barAggregation, pngCompression, parallel, tiledRendering, profile );
+    }
+
+    public RenderOptions withTiledRendering( boolean tiled ) {
+        return new RenderOptions( downsampling, barAggregation, pngCompression, parallelPngEncoding, tiled, profile );
+    }
+
+    public RenderOptions withProfile( RenderProfile renderProfile ) {
+        return new RenderOptions( downsampling, barAggregation, pngCompression, parallelPngEncoding, tiledRendering, renderProfile );
+    }
+}
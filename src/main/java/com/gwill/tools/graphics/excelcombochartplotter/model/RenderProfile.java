@@ -0,0 +1,18 @@
+package com.gwill.tools.graphics.excelcombochartplotter.model;
+
+/**
+ * 渲染质量档位
+ */
+public enum RenderProfile {
+
+    /**
+     * 草稿：关闭抗锯齿和折线数据点标记，渲染提示偏向速度，不生成提示信息，用于预览和批量缩略图；
+     * {@link RenderOptions#draft()} 同时对折线系列降采样
+     */
+    DRAFT,
+
+    /**
+     * 成品：完整抗锯齿和数据点标记，用于导出
+     */
+    FINAL
+}
@@ -0,0 +1,45 @@
+package com.gwill.tools.graphics.excelcombochartplotter.model;
+
+/**
+ * 图表生成的阶段，按执行顺序排列
+ */
+public enum RenderStage {
+
+    /**
+     * 从数据快照提取X轴分类和系列数值
+     */
+    EXTRACT( "stage.extract" ),
+
+    /**
+     * 合并分类、降采样并构建数据集
+     */
+    BUILD_DATASET( "stage.build.dataset" ),
+
+    /**
+     * 绘制图表（逐带绘制时与编码交替进行）
+     */
+    RENDER( "stage.render" ),
+
+    /**
+     * 编码为PNG
+     */
+    ENCODE( "stage.encode" ),
+
+    /**
+     * 写出图片
+     */
+    WRITE( "stage.write" );
+
+    private final String i18nKey;
+
+    RenderStage( String i18nKey ) {
+        this.i18nKey = i18nKey;
+    }
+
+    /**
+     * Get i18n key for this stage
+     */
+    public String getI18nKey() {
+        return i18nKey;
+    }
+}
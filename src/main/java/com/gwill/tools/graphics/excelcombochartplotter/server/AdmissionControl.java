@@ -0,0 +1,77 @@
+package com.gwill.tools.graphics.excelcombochartplotter.server;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * 渲染请求的准入控制：最多 maxConcurrent 个请求同时渲染，另有 queueCapacity 个请求可以排队等待，
+ * 超出部分立即拒绝，避免请求堆积耗尽内存。
+ */
+final class AdmissionControl {
+
+    private final int maxConcurrent;
+
+    private final int queueCapacity;
+
+    // 已准入（正在渲染或排队）的请求名额
+    private final Semaphore admitted;
+
+    // 正在渲染的请求名额
+    private final Semaphore running;
+
+    AdmissionControl( int maxConcurrent, int queueCapacity ) {
+        this.maxConcurrent = maxConcurrent;
+        this.queueCapacity = queueCapacity;
+        this.admitted = new Semaphore( maxConcurrent + queueCapacity );
+        this.running = new Semaphore( maxConcurrent, true );
+    }
+
+    /**
+     * 尝试准入一个请求
+     *
+     * @return 准入凭证，队列已满时为null
+     */
+    Ticket tryAdmit() {
+        return admitted.tryAcquire() ? new Ticket() : null;
+    }
+
+    int runningCount() {
+        return maxConcurrent - running.availablePermits();
+    }
+
+    int waitingCount() {
+        return Math.max( 0, maxConcurrent + queueCapacity - admitted.availablePermits() - runningCount() );
+    }
+
+    /**
+     * 准入凭证：排队等待渲染名额，关闭时归还所有名额
+     */
+    final class Ticket implements AutoCloseable {
+
+        private boolean started;
+
+        private boolean closed;
+
+        private Ticket() {
+        }
+
+        /**
+         * 等待渲染名额
+         */
+        void awaitTurn() throws InterruptedException {
+            running.acquire();
+            started = true;
+        }
+
+        @Override
+        public void close() {
+            if( closed ) {
+                return;
+            }
+            closed = true;
+            if( started ) {
+                running.release();
+            }
+            admitted.release();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.gwill.tools.graphics.excelcombochartplotter.server;
+
+import com.gwill.tools.graphics.excelcombochartplotter.data.ColumnarDiskCache;
+import com.gwill.tools.graphics.excelcombochartplotter.service.ChartGenerationService;
+import com.gwill.tools.graphics.excelcombochartplotter.service.ExcelDataService;
+import com.gwill.tools.graphics.excelcombochartplotter.service.RenderCache;
+import com.gwill.tools.graphics.excelcombochartplotter.service.WorkbookCache;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 本地HTTP图表渲染服务：每个请求在独立的虚拟线程中处理，已解码的工作簿通过进程内缓存在请求间复用，
+ * 同时渲染的请求数和排队的请求数都有上限。
+ * <p>
+ * 用法：{@code java -jar excel-combo-chart-plotter.jar server [--port 8080] [--bind 127.0.0.1]
+ * [--max-concurrent N] [--queue N] [--data-dir DIR] [--max-upload-mb 200] [--upload-store-mb 1024] [--max-image-mp 40] [--cache-dir DIR]}
+ */
+public final class ChartServer {
+
+    private final HttpServer httpServer;
+
+    private final ExecutorService executor;
+
+    private final UploadStore uploadStore;
+
+    /**
+     * 创建服务（尚未开始监听请求）
+     *
+     * @param address        监听地址
+     * @param maxConcurrent  同时渲染的最大请求数
+     * @param queueCapacity  排队等待渲染的最大请求数
+     * @param dataDir        允许按路径读取工作簿的服务器目录，为null时只接受上传
+     * @param maxUploadBytes 上传工作簿的大小上限
+     * @param maxStoredBytes 保留的上传工作簿总大小上限，超过时删除最久未用的上传
+     * @param maxImagePixels 单个请求的图片像素数上限
+     * @param diskCache      列式数据磁盘缓存，为null时不使用
+     * @throws IOException 如果无法绑定端口或创建上传目录
+     */
+    public ChartServer( InetSocketAddress address, int maxConcurrent, int queueCapacity, Path dataDir, long maxUploadBytes,
+                        long maxStoredBytes, long maxImagePixels, ColumnarDiskCache diskCache ) throws IOException {
+        ExcelDataService excelDataService = new ExcelDataService( WorkbookCache.shared(), diskCache );
+        ChartGenerationService chartGenerationService = new ChartGenerationService();
+        AdmissionControl admissionControl = new AdmissionControl( maxConcurrent, queueCapacity );
+        this.uploadStore = new UploadStore( Files.createTempDirectory( "eccp-uploads-" ), maxUploadBytes, maxStoredBytes );
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        this.httpServer = HttpServer.create( address, 0 );
+        httpServer.setExecutor( executor );
+        httpServer.createContext( "/render", new RenderHandler(
+            excelDataService,
+            chartGenerationService,
+            admissionControl,
+            uploadStore,
+            dataDir != null ? dataDir.toAbsolutePath().normalize() : null,
+            maxImagePixels
+        ) );
+        httpServer.createContext( "/health", exchange -> health( exchange, admissionControl,
+            excelDataService.getWorkbookCache(), chartGenerationService.getRenderCache() ) );
+    }
+
+    /**
+     * 解析命令行参数并启动服务，服务在后台线程中运行直到进程退出
+     *
+     * @param args 命令行参数（不含 server 子命令本身）
+     * @param out  状态输出
+     * @param err  错误输出
+     * @return 0 表示已启动，2 表示参数错误或启动失败
+     */
+    public static int run( String[] args, PrintStream out, PrintStream err ) {
+        int port = 8080;
+        String bind = null;
+        int maxConcurrent = Runtime.getRuntime().availableProcessors();
+        int queueCapacity = -1;
+        Path dataDir = null;
+        long maxUploadMb = 200;
+        long uploadStoreMb = 1024;
+        long maxImageMp = 40;
+        ColumnarDiskCache diskCache = ColumnarDiskCache.fromSystemProperties();
+        try {
+            for( int i = 0; i < args.length; i++ ) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                switch( args[i] ) {
+                    case "--port" -> port = Integer.parseInt( value );
+                    case "--bind" -> bind = value;
+                    case "--max-concurrent" -> maxConcurrent = Integer.parseInt( value );
+                    case "--queue" -> queueCapacity = Integer.parseInt( value );
+                    case "--data-dir" -> dataDir = Path.of( value );
+                    case "--max-upload-mb" -> maxUploadMb = Long.parseLong( value );
+                    case "--upload-store-mb" -> uploadStoreMb = Long.parseLong( value );
+                    case "--max-image-mp" -> maxImageMp = Long.parseLong( value );
+                    case "--cache-dir" -> diskCache = ColumnarDiskCache.inDirectory( Path.of( value ) );
+                    default -> throw new IllegalArgumentException( "Unknown argument: " + args[i] );
+                }
+                i++;
+            }
+            if( maxConcurrent < 1 || maxUploadMb < 1 || uploadStoreMb < 1 || maxImageMp < 1 ) {
+                throw new IllegalArgumentException(
+                    "--max-concurrent, --max-upload-mb, --upload-store-mb and --max-image-mp must be positive" );
+            }
+        } catch( NumberFormatException | NullPointerException e ) {
+            err.println( "Invalid arguments. Usage: server [--port 8080] [--bind 127.0.0.1] [--max-concurrent N] "
+                + "[--queue N] [--data-dir DIR] [--max-upload-mb 200] [--upload-store-mb 1024] [--max-image-mp 40] [--cache-dir DIR]" );
+            return 2;
+        } catch( IllegalArgumentException e ) {
+            err.println( e.getMessage() );
+            return 2;
+        }
+        if( queueCapacity < 0 ) {
+            queueCapacity = maxConcurrent * 4;
+        }
+        if( dataDir != null && !Files.isDirectory( dataDir ) ) {
+            err.println( "Data directory does not exist: " + dataDir );
+            return 2;
+        }
+
+        try {
+            InetAddress host = bind != null ? InetAddress.getByName( bind ) : InetAddress.getLoopbackAddress();
+            ChartServer server = new ChartServer( new InetSocketAddress( host, port ), maxConcurrent, queueCapacity,
+                dataDir, maxUploadMb * 1024 * 1024, uploadStoreMb * 1024 * 1024, maxImageMp * 1_000_000, diskCache );
+            server.start();
+            Runtime.getRuntime().addShutdownHook( new Thread( server::stop ) );
+            out.printf( Locale.ROOT, "Chart server listening on http://%s:%d (max %d concurrent, %d queued)%n",
+                host.getHostAddress(), server.getPort(), maxConcurrent, queueCapacity );
+            return 0;
+        } catch( IOException e ) {
+            err.println( "Failed to start server: " + e.getMessage() );
+            return 2;
+        }
+    }
+
+    public void start() {
+        httpServer.start();
+    }
+
+    /**
+     * 停止接受新请求，等待进行中的请求最多1秒，然后删除上传的工作簿
+     */
+    public void stop() {
+        httpServer.stop( 1 );
+        executor.shutdownNow();
+        uploadStore.delete();
+    }
+
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    private static void health( HttpExchange exchange, AdmissionControl admissionControl, WorkbookCache workbookCache,
+                                RenderCache renderCache ) throws IOException {
+        try( exchange ) {
+            int cachedWorkbooks = workbookCache != null ? workbookCache.stats().entryCount() : 0;
+            int cachedCharts = renderCache != null ? renderCache.stats().entryCount() : 0;
+            String body = String.format( Locale.ROOT,
+                "{\"status\":\"ok\",\"running\":%d,\"waiting\":%d,\"cachedWorkbooks\":%d,\"cachedCharts\":%d}",
+                admissionControl.runningCount(), admissionControl.waitingCount(), cachedWorkbooks, cachedCharts );
+            exchange.getResponseHeaders().set( "Content-Type", "application/json" );
+            byte[] bytes = body.getBytes( StandardCharsets.UTF_8 );
+            exchange.sendResponseHeaders( 200, bytes.length );
+            exchange.getResponseBody().write( bytes );
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.gwill.tools.graphics.excelcombochartplotter.server;
+
+import com.gwill.tools.graphics.excelcombochartplotter.data.ColumnarTable;
+import com.gwill.tools.graphics.excelcombochartplotter.io.PooledByteArrayOutputStream;
+import com.gwill.tools.graphics.excelcombochartplotter.json.ChartConfigurationJson;
+import com.gwill.tools.graphics.excelcombochartplotter.json.JsonParser;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ChartConfiguration;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ImageSettings;
+import com.gwill.tools.graphics.excelcombochartplotter.service.ChartGenerationService;
+import com.gwill.tools.graphics.excelcombochartplotter.service.ExcelDataService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 处理 {@code POST /render}：
+ * <ul>
+ *     <li>{@code /render?path=sales.xlsx}，请求体为图表配置JSON，工作簿取自服务器数据目录</li>
+ *     <li>{@code /render}，请求体为上传的工作簿，URL编码的图表配置JSON放在 {@code X-Chart-Config} 请求头或 {@code config} 查询参数中</li>
+ * </ul>
+ * 成功时以 {@code image/png} 返回图表。
+ */
+final class RenderHandler implements HttpHandler {
+
+    private static final String CONFIG_HEADER = "X-Chart-Config";
+
+    private final ExcelDataService excelDataService;
+
+    private final ChartGenerationService chartGenerationService;
+
+    private final AdmissionControl admissionControl;
+
+    private final UploadStore uploadStore;
+
+    private final Path dataDir;
+
+    private final long maxImagePixels;
+
+    RenderHandler( ExcelDataService excelDataService, ChartGenerationService chartGenerationService,
+                   AdmissionControl admissionControl, UploadStore uploadStore, Path dataDir, long maxImagePixels ) {
+        this.excelDataService = excelDataService;
+        this.chartGenerationService = chartGenerationService;
+        this.admissionControl = admissionControl;
+        this.uploadStore = uploadStore;
+        this.dataDir = dataDir;
+        this.maxImagePixels = maxImagePixels;
+    }
+
+    @Override
+    public void handle( HttpExchange exchange ) throws IOException {
+        try( exchange ) {
+            if( !"POST".equals( exchange.getRequestMethod() ) ) {
+                exchange.getResponseHeaders().set( "Allow", "POST" );
+                sendText( exchange, 405, "Method Not Allowed" );
+                return;
+            }
+            try( AdmissionControl.Ticket ticket = admissionControl.tryAdmit() ) {
+                if( ticket == null ) {
+                    exchange.getResponseHeaders().set( "Retry-After", "1" );
+                    sendText( exchange, 503, "服务繁忙，请稍后重试" );
+                    return;
+                }
+                render( exchange, ticket );
+            }
+        }
+    }
+
+    private void render( HttpExchange exchange, AdmissionControl.Ticket ticket ) throws IOException {
+        boolean committed = false;
+        UploadStore.Upload stored = null;
+        try {
+            Map<String, String> query = parseQuery( exchange.getRequestURI().getRawQuery() );
+            boolean upload = !query.containsKey( "path" );
+            String configJson;
+            if( upload ) {
+                // 请求头只能携带ASCII，因此与查询参数一样使用URL编码
+                String header = exchange.getRequestHeaders().getFirst( CONFIG_HEADER );
+                configJson = header != null ? URLDecoder.decode( header, StandardCharsets.UTF_8 ) : query.get( "config" );
+                if( configJson == null ) {
+                    throw new HttpError( 400, "缺少图表配置（" + CONFIG_HEADER + " 请求头或 config 参数）" );
+                }
+            } else {
+                configJson = new String( exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8 );
+            }
+
+            ChartConfiguration configuration;
+            try {
+                configuration = ChartConfigurationJson.fromJson( JsonParser.parse( configJson ) );
+            } catch( IOException e ) {
+                throw new HttpError( 400, e.getMessage() );
+            }
+            if( !configuration.isValid() ) {
+                throw new HttpError( 400, "图表配置无效" );
+            }
+            checkImageSize( configuration.imageSettings() );
+            Path workbook;
+            if( upload ) {
+                // 处理完成之前上传的文件不会因存储空间上限被删除
+                stored = uploadStore.store( exchange.getRequestBody() );
+                workbook = stored.path();
+            } else {
+                workbook = resolveDataPath( query.get( "path" ) );
+            }
+
+            ticket.awaitTurn();
+            ColumnarTable table;
+            try {
+                // 工作簿无法解析或缺少配置引用的列，都属于请求错误；加载成功后配置引用的列一定存在
+                table = excelDataService.loadData( workbook.toString(), configuration.getReferencedColumns() );
+            } catch( Exception e ) {
+                throw new HttpError( 400, e.getMessage() );
+            }
+            // 先在池化缓冲区中完成编码，出错时仍可返回错误状态码，成功时带上Content-Length
+            try( PooledByteArrayOutputStream png = chartGenerationService.generateChartBytes( table, configuration ) ) {
+                exchange.getResponseHeaders().set( "Content-Type", "image/png" );
+                exchange.sendResponseHeaders( 200, png.size() );
+                committed = true;
+                png.writeTo( exchange.getResponseBody() );
+            }
+        } catch( HttpError e ) {
+            sendError( exchange, committed, e.status, e.getMessage() );
+        } catch( UploadStore.UploadTooLargeException e ) {
+            sendError( exchange, committed, 413, e.getMessage() );
+        } catch( UploadStore.EmptyUploadException e ) {
+            sendError( exchange, committed, 400, e.getMessage() );
+        } catch( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            sendError( exchange, committed, 503, "服务正在停止" );
+        } catch( IOException | RuntimeException e ) {
+            // 配置和工作簿已在上面校验，此时的异常属于服务端错误
+            sendError( exchange, committed, 500, e.getMessage() );
+        } finally {
+            if( stored != null ) {
+                stored.close();
+            }
+        }
+    }
+
+    /**
+     * 整张图片会在内存中绘制并编码，因此限制单个请求的像素数。
+     * 按设置中的原始数值换算，避免换算成int时溢出绕过限制
+     */
+    private void checkImageSize( ImageSettings settings ) throws HttpError {
+        double width = settings.width() * settings.widthUnit().getPixelsPerUnit();
+        double height = settings.height() * settings.heightUnit().getPixelsPerUnit();
+        if( !( width * height <= maxImagePixels ) || width > maxImagePixels || height > maxImagePixels ) {
+            throw new HttpError( 400, "图片尺寸超过服务器限制（最多 " + maxImagePixels + " 像素）" );
+        }
+    }
+
+    private Path resolveDataPath( String relativePath ) throws HttpError {
+        if( dataDir == null ) {
+            throw new HttpError( 403, "服务器未配置数据目录，只能上传工作簿" );
+        }
+        Path path = dataDir.resolve( relativePath ).normalize();
+        if( !path.startsWith( dataDir ) ) {
+            throw new HttpError( 403, "路径不在数据目录内: " + relativePath );
+        }
+        if( !Files.isRegularFile( path ) ) {
+            throw new HttpError( 404, "文件不存在: " + relativePath );
+        }
+        return path;
+    }
+
+    private static void sendError( HttpExchange exchange, boolean committed, int status, String message ) throws IOException {
+        if( committed ) {
+            // 已开始返回图片，只能中断响应
+            return;
+        }
+        sendText( exchange, status, message != null ? message : "请求失败" );
+    }
+
+    static void sendText( HttpExchange exchange, int status, String text ) throws IOException {
+        byte[] body = text.getBytes( StandardCharsets.UTF_8 );
+        exchange.getResponseHeaders().set( "Content-Type", "text/plain; charset=UTF-8" );
+        exchange.sendResponseHeaders( status, body.length );
+        exchange.getResponseBody().write( body );
+    }
+
+    private static Map<String, String> parseQuery( String rawQuery ) {
+        Map<String, String> params = new HashMap<>();
+        if( rawQuery == null || rawQuery.isEmpty() ) {
+            return params;
+        }
+        for( String pair : rawQuery.split( "&" ) ) {
+            int eq = pair.indexOf( '=' );
+            String name = eq >= 0 ? pair.substring( 0, eq ) : pair;
+            String value = eq >= 0 ? pair.substring( eq + 1 ) : "";
+            params.putIfAbsent( URLDecoder.decode( name, StandardCharsets.UTF_8 ), URLDecoder.decode( value, StandardCharsets.UTF_8 ) );
+        }
+        return params;
+    }
+
+    /**
+     * 带状态码的请求错误
+     */
+    private static final class HttpError extends Exception {
+
+        private final int status;
+
+        HttpError( int status, String message ) {
+            super( message );
+            this.status = status;
+        }
+    }
+}
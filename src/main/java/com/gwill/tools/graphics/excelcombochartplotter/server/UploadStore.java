@@ -0,0 +1,213 @@
+package com.gwill.tools.graphics.excelcombochartplotter.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 上传工作簿的存储：按内容的SHA-256命名，同一工作簿重复上传时落到同一个文件，
+ * 从而命中已解码工作簿的缓存。
+ * <p>
+ * 保留的上传文件总大小有上限，超过时按最近使用顺序删除最久未用、且没有请求正在使用的文件。
+ */
+final class UploadStore {
+
+    private final Path directory;
+
+    private final long maxBytes;
+
+    private final long maxStoredBytes;
+
+    // 按最近使用排序的上传文件
+    private final Map<Path, Stored> files = new LinkedHashMap<>( 16, 0.75f, true );
+
+    private long storedBytes;
+
+    /**
+     * @param directory      存储目录
+     * @param maxBytes       单个上传工作簿的大小上限
+     * @param maxStoredBytes 保留的上传文件总大小上限，正在使用的文件不受此限制
+     */
+    UploadStore( Path directory, long maxBytes, long maxStoredBytes ) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.maxStoredBytes = maxStoredBytes;
+    }
+
+    /**
+     * 保存上传的工作簿。返回的文件在关闭 {@link Upload} 之前不会被删除。
+     *
+     * @param body 请求体
+     * @return 已保存的工作簿，用完后需关闭
+     * @throws UploadTooLargeException 如果超过上传大小限制
+     * @throws EmptyUploadException   如果请求体为空
+     * @throws IOException             如果写入失败
+     */
+    Upload store( InputStream body ) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile( directory, "upload-", ".tmp" );
+        try {
+            long total = 0;
+            byte[] buffer = new byte[64 * 1024];
+            try( OutputStream out = Files.newOutputStream( temp ) ) {
+                int n;
+                while( ( n = body.read( buffer ) ) > 0 ) {
+                    total += n;
+                    if( total > maxBytes ) {
+                        throw new UploadTooLargeException( maxBytes );
+                    }
+                    digest.update( buffer, 0, n );
+                    out.write( buffer, 0, n );
+                }
+            }
+            if( total == 0 ) {
+                throw new EmptyUploadException();
+            }
+
+            Path target = directory.resolve( HexFormat.of().formatHex( digest.digest() ) + ".xlsx" );
+            synchronized( this ) {
+                if( !Files.exists( target ) ) {
+                    try {
+                        // 不覆盖已存在的文件，保持其修改时间不变，缓存才能命中
+                        Files.move( temp, target );
+                    } catch( FileAlreadyExistsException e ) {
+                        // 并发上传了相同内容
+                    }
+                }
+                Stored stored = files.get( target );
+                if( stored == null ) {
+                    stored = new Stored( total );
+                    files.put( target, stored );
+                    storedBytes += total;
+                }
+                stored.users++;
+                evict();
+            }
+            return new Upload( target );
+        } finally {
+            Files.deleteIfExists( temp );
+        }
+    }
+
+    private synchronized void release( Path path ) {
+        Stored stored = files.get( path );
+        if( stored != null ) {
+            stored.users--;
+            evict();
+        }
+    }
+
+    /**
+     * 超过总大小上限时，从最久未用的文件开始删除没有请求正在使用的文件
+     */
+    private void evict() {
+        Iterator<Map.Entry<Path, Stored>> iterator = files.entrySet().iterator();
+        while( storedBytes > maxStoredBytes && iterator.hasNext() ) {
+            Map.Entry<Path, Stored> eldest = iterator.next();
+            if( eldest.getValue().users > 0 ) {
+                continue;
+            }
+            iterator.remove();
+            storedBytes -= eldest.getValue().bytes;
+            try {
+                Files.deleteIfExists( eldest.getKey() );
+            } catch( IOException e ) {
+                // 忽略，停止服务时会清理整个目录
+            }
+        }
+    }
+
+    /**
+     * 删除所有上传文件及存储目录
+     */
+    void delete() {
+        try( Stream<Path> files = Files.walk( directory ) ) {
+            files.sorted( Comparator.reverseOrder() ).forEach( path -> {
+                try {
+                    Files.deleteIfExists( path );
+                } catch( IOException e ) {
+                    // 忽略，退出时尽力清理
+                }
+            } );
+        } catch( IOException e ) {
+            // 忽略，退出时尽力清理
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance( "SHA-256" );
+        } catch( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    /**
+     * 已保存的上传工作簿，关闭后才允许被删除
+     */
+    final class Upload implements AutoCloseable {
+
+        private final Path path;
+
+        private boolean closed;
+
+        private Upload( Path path ) {
+            this.path = path;
+        }
+
+        Path path() {
+            return path;
+        }
+
+        @Override
+        public void close() {
+            if( !closed ) {
+                closed = true;
+                release( path );
+            }
+        }
+    }
+
+    private static final class Stored {
+
+        private final long bytes;
+
+        // 正在使用该文件的请求数
+        private int users;
+
+        private Stored( long bytes ) {
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * 上传的工作簿超过大小限制
+     */
+    static final class UploadTooLargeException extends IOException {
+
+        UploadTooLargeException( long maxBytes ) {
+            super( "上传的工作簿超过大小限制（" + maxBytes + " 字节）" );
+        }
+    }
+
+    /**
+     * 请求体为空，没有上传工作簿
+     */
+    static final class EmptyUploadException extends IOException {
+
+        EmptyUploadException() {
+            super( "请求中没有上传工作簿" );
+        }
+    }
+}
@@ -1,247 +1,424 @@
 package com.gwill.tools.graphics.excelcombochartplotter.service;
 
+import com.gwill.tools.graphics.excelcombochartplotter.chart.CategoryBinner;
+import com.gwill.tools.graphics.excelcombochartplotter.chart.CategorySeries;
+import com.gwill.tools.graphics.excelcombochartplotter.chart.Downsampler;
+import com.gwill.tools.graphics.excelcombochartplotter.data.ChartData;
+import com.gwill.tools.graphics.excelcombochartplotter.data.CoercionReport;
+import com.gwill.tools.graphics.excelcombochartplotter.data.ColumnarTable;
+import com.gwill.tools.graphics.excelcombochartplotter.io.ByteArrayPool;
+import com.gwill.tools.graphics.excelcombochartplotter.io.PngEncoder;
+import com.gwill.tools.graphics.excelcombochartplotter.io.PooledByteArrayOutputStream;
 import com.gwill.tools.graphics.excelcombochartplotter.model.ChartConfiguration;
 import com.gwill.tools.graphics.excelcombochartplotter.model.ChartType;
 import com.gwill.tools.graphics.excelcombochartplotter.model.ImageSettings;
+import com.gwill.tools.graphics.excelcombochartplotter.model.RenderOptions;
+import com.gwill.tools.graphics.excelcombochartplotter.model.RenderStage;
+import com.gwill.tools.graphics.excelcombochartplotter.model.SizeUnit;
 import com.gwill.tools.graphics.excelcombochartplotter.model.YAxisSeriesConfig;
-import org.jfree.chart.ChartUtils;
 import org.jfree.chart.JFreeChart;
-import org.jfree.chart.axis.CategoryAxis;
-import org.jfree.chart.axis.CategoryLabelPositions;
-import org.jfree.chart.axis.NumberAxis;
-import org.jfree.chart.labels.StandardCategoryToolTipGenerator;
-import org.jfree.chart.plot.CategoryPlot;
-import org.jfree.chart.plot.DatasetRenderingOrder;
-import org.jfree.chart.plot.PlotOrientation;
-import org.jfree.chart.renderer.category.BarRenderer;
-import org.jfree.chart.renderer.category.LineAndShapeRenderer;
-import org.jfree.chart.renderer.category.StandardBarPainter;
-import org.jfree.chart.title.LegendTitle;
-import org.jfree.chart.title.TextTitle;
-import org.jfree.data.category.DefaultCategoryDataset;
-
-import java.awt.BasicStroke;
-import java.awt.Color;
-import java.awt.Font;
-import java.io.File;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 图表生成服务
  */
 public class ChartGenerationService {
 
-    // 预定义的系列颜色
-    private static final Color[] SERIES_COLORS = {
-        new Color( 79, 129, 189 ),   // 蓝色
-        new Color( 192, 80, 77 ),    // 红色
-        new Color( 155, 187, 89 ),   // 绿色
-        new Color( 128, 100, 162 ),  // 紫色
-        new Color( 75, 172, 198 ),   // 青色
-        new Color( 247, 150, 70 ),   // 橙色
-        new Color( 119, 119, 119 ),  // 灰色
-        new Color( 193, 152, 89 )    // 棕色
-    };
+    // 预估PNG大小：图表图片大面积为纯色，压缩后平均每个字节约对应8个像素
+    private static final int ESTIMATED_PIXELS_PER_BYTE = 8;
+
+    private static final int MAX_INITIAL_BUFFER_BYTES = 16 * 1024 * 1024;
+
+    private static final int FILE_BUFFER_SIZE = 64 * 1024;
+
+    // 超过此像素数（ARGB约128MB）的图片总是逐带绘制
+    private static final long MAX_UNTILED_PIXELS = 32L * 1024 * 1024;
 
-    private static final Font CHINESE_FONT = new Font( "PingFang SC", Font.PLAIN, 12 );
-    private static final Font CHINESE_TITLE_FONT = new Font( "PingFang SC", Font.BOLD, 16 );
+    // 逐带绘制时每条横带图片的大小
+    private static final long TILE_BYTES = 16L * 1024 * 1024;
 
-    private final ExcelDataService excelDataService;
+    // 合并柱形图分类时每个柱形的最小像素宽度
+    private static final int MIN_BAR_PIXELS = 3;
 
-    public ChartGenerationService( ExcelDataService excelDataService ) {
-        this.excelDataService = excelDataService;
+    private final RenderCache renderCache;
+
+    private final ChartTemplatePool templatePool = new ChartTemplatePool();
+
+    /**
+     * 创建使用进程内共享渲染缓存的图表服务
+     */
+    public ChartGenerationService() {
+        this( RenderCache.shared() );
     }
 
     /**
-     * 生成图表并保存为图片
+     * @param renderCache 渲染结果缓存，为null时不缓存
+     */
+    public ChartGenerationService( RenderCache renderCache ) {
+        this.renderCache = renderCache;
+    }
+
+    public RenderCache getRenderCache() {
+        return renderCache;
+    }
+
+    /**
+     * 使用默认渲染选项生成图表并保存为图片
      *
+     * @param table         数据快照
      * @param configuration 图表配置
      * @param outputPath    输出文件路径
+     * @return 以列名为键的数值转换报告（空单元格和无法转换的单元格绘制为缺口）
      * @throws IOException 如果保存失败
      */
-    public void generateChart( ChartConfiguration configuration, String outputPath ) throws IOException {
-        JFreeChart chart = createChart( configuration );
-
-        ImageSettings settings = configuration.imageSettings();
-        int width = settings.getWidthInPixels();
-        int height = settings.getHeightInPixels();
+    public Map<String, CoercionReport> generateChart( ColumnarTable table, ChartConfiguration configuration, String outputPath ) throws IOException {
+        return generateChart( table, configuration, outputPath, RenderOptions.defaults() );
+    }
 
-        File outputFile = new File( outputPath );
-        ChartUtils.saveChartAsPNG( outputFile, chart, width, height );
+    /**
+     * 生成图表并保存为图片。除线程安全的渲染缓存和模板池外服务不持有可变状态，多个线程可以同时从同一个数据快照生成图表。
+     *
+     * @param table         数据快照
+     * @param configuration 图表配置
+     * @param outputPath    输出文件路径
+     * @param options       渲染选项，预览通常使用草稿档位
+     * @return 以列名为键的数值转换报告（空单元格和无法转换的单元格绘制为缺口）
+     * @throws IOException 如果保存失败
+     */
+    public Map<String, CoercionReport> generateChart( ColumnarTable table, ChartConfiguration configuration, String outputPath,
+                                                      RenderOptions options ) throws IOException {
+        return generateChart( table, configuration, outputPath, options, null );
     }
 
     /**
-     * 创建JFreeChart图表
+     * 分阶段生成图表并保存为图片（提取 → 构建数据集 → 绘制 → 编码 → 写出），每个阶段开始时报告进度。
+     * 生成线程被中断时在下一个阶段检查点停止并抛出 {@link InterruptedIOException}，此时输出文件可能不完整。
+     *
+     * @param table         数据快照
+     * @param configuration 图表配置
+     * @param outputPath    输出文件路径
+     * @param options       渲染选项，预览通常使用草稿档位
+     * @param listener      进度监听器，可以为null
+     * @return 以列名为键的数值转换报告（空单元格和无法转换的单元格绘制为缺口）
+     * @throws IOException 如果保存失败或生成被取消
      */
-    private JFreeChart createChart( ChartConfiguration configuration ) {
-        ImageSettings settings = configuration.imageSettings();
-        List<String> xAxisData = excelDataService.getStringColumnData( configuration.xAxisColumn() );
-        List<YAxisSeriesConfig> yAxisSeries = configuration.yAxisSeries();
-
-        // 创建X轴
-        CategoryAxis domainAxis = new CategoryAxis( configuration.xAxisColumn() );
-        domainAxis.setLabelFont( CHINESE_FONT );
-        domainAxis.setTickLabelFont( CHINESE_FONT );
-        domainAxis.setCategoryLabelPositions( CategoryLabelPositions.UP_45 );
-
-        // 创建主Y轴
-        NumberAxis primaryRangeAxis = new NumberAxis();
-        primaryRangeAxis.setLabelFont( CHINESE_FONT );
-        primaryRangeAxis.setTickLabelFont( CHINESE_FONT );
-        primaryRangeAxis.setAutoRangeIncludesZero( true );
-
-        // 创建CategoryPlot
-        CategoryPlot plot = new CategoryPlot();
-        plot.setDomainAxis( domainAxis );
-        plot.setRangeAxis( 0, primaryRangeAxis );
-        plot.setOrientation( PlotOrientation.VERTICAL );
-        plot.setBackgroundPaint( Color.WHITE );
-        plot.setRangeGridlinePaint( Color.LIGHT_GRAY );
-
-        int datasetIndex = 0;
-        int colorIndex = 0;
-
-        // 分离主轴的柱形图和折线图系列
-        DefaultCategoryDataset primaryBarDataset = new DefaultCategoryDataset();
-        DefaultCategoryDataset primaryLineDataset = new DefaultCategoryDataset();
-
-        for( YAxisSeriesConfig series : configuration.getPrimaryAxisSeries() ) {
-            List<Number> yData = excelDataService.getNumericColumnData( series.columnName() );
-            DefaultCategoryDataset targetDataset = series.chartType() == ChartType.BAR ? primaryBarDataset : primaryLineDataset;
-
-            for( int i = 0; i < xAxisData.size() && i < yData.size(); i++ ) {
-                targetDataset.addValue( yData.get( i ), series.columnName(), xAxisData.get( i ) );
+    public Map<String, CoercionReport> generateChart( ColumnarTable table, ChartConfiguration configuration, String outputPath,
+                                                      RenderOptions options, RenderProgressListener listener ) throws IOException {
+        Map<String, CoercionReport> reports;
+        RenderCache.Key key = cacheKey( table, configuration, options );
+        if( key != null ) {
+            // 先在内存中取得（或生成并缓存）PNG，再一次性写入文件
+            try( Rendered rendered = renderCached( table, configuration, options, key, listener ) ) {
+                checkpoint( listener, RenderStage.WRITE, 0 );
+                try( OutputStream out = new FileOutputStream( outputPath ) ) {
+                    rendered.png().writeTo( out );
+                }
+                reports = rendered.reports();
+            }
+        } else {
+            // 先准备数据，数据错误时不创建输出文件
+            CategorySeries seriesData = prepareSeries( table, configuration, options, listener );
+            try( OutputStream out = new BufferedOutputStream( new FileOutputStream( outputPath ), FILE_BUFFER_SIZE ) ) {
+                renderChart( seriesData, configuration, out, options, listener );
+                checkpoint( listener, RenderStage.WRITE, 0 );
             }
+            reports = seriesData.reports();
         }
+        checkpoint( listener, RenderStage.WRITE, 1 );
+        return reports;
+    }
 
-//        System.out.println( "Bar dataset row count: " + primaryBarDataset.getRowCount() );
-//        System.out.println( "Bar dataset row keys: " + primaryBarDataset.getRowKeys() );
-
-        // 添加主轴柱形图数据集（必须先添加柱形图，使其在底层）
-        if( primaryBarDataset.getRowCount() > 0 ) {
-            plot.setDataset( datasetIndex, primaryBarDataset );
-            plot.mapDatasetToRangeAxis( datasetIndex, 0 );
-
-            BarRenderer barRenderer = new BarRenderer();
-            barRenderer.setBarPainter( new StandardBarPainter() );
-            barRenderer.setDrawBarOutline( false );
-            barRenderer.setItemMargin( 0.0 );  // 同一分类内柱形之间零间距
-            barRenderer.setShadowVisible( false );
-            barRenderer.setDefaultToolTipGenerator( new StandardCategoryToolTipGenerator() );
-
-            // 为每个系列设置颜色
-            for( int i = 0; i < primaryBarDataset.getRowCount(); i++ ) {
-                barRenderer.setSeriesPaint( i, SERIES_COLORS[colorIndex % SERIES_COLORS.length] );
-                colorIndex++;
-            }
+    /**
+     * 使用默认渲染选项生成图表并以PNG格式写入输出流（不关闭输出流）
+     *
+     * @param table         数据快照
+     * @param configuration 图表配置
+     * @param out           输出流
+     * @return 以列名为键的数值转换报告（空单元格和无法转换的单元格绘制为缺口）
+     * @throws IOException 如果写出失败
+     */
+    public Map<String, CoercionReport> generateChart( ColumnarTable table, ChartConfiguration configuration, OutputStream out ) throws IOException {
+        return generateChart( table, configuration, out, RenderOptions.defaults() );
+    }
 
-            plot.setRenderer( datasetIndex, barRenderer );
-            datasetIndex++;
+    /**
+     * 生成图表并以PNG格式写入输出流（不关闭输出流）。图表在写出第一个字节之前构建完成，
+     * 因此数据错误会在写出任何内容之前抛出。
+     *
+     * @param table         数据快照
+     * @param configuration 图表配置
+     * @param out           输出流
+     * @param options       渲染选项，预览通常使用草稿档位
+     * @return 以列名为键的数值转换报告（空单元格和无法转换的单元格绘制为缺口）
+     * @throws IOException 如果写出失败
+     */
+    public Map<String, CoercionReport> generateChart( ColumnarTable table, ChartConfiguration configuration, OutputStream out,
+                                                      RenderOptions options ) throws IOException {
+        RenderCache.Key key = cacheKey( table, configuration, options );
+        if( key != null ) {
+            try( Rendered rendered = renderCached( table, configuration, options, key, null ) ) {
+                rendered.png().writeTo( out );
+                return rendered.reports();
+            }
         }
+        CategorySeries seriesData = prepareSeries( table, configuration, options, null );
+        renderChart( seriesData, configuration, out, options, null );
+        return seriesData.reports();
+    }
 
-        // 添加主轴折线图数据集
-        if( primaryLineDataset.getRowCount() > 0 ) {
-            plot.setDataset( datasetIndex, primaryLineDataset );
-            plot.mapDatasetToRangeAxis( datasetIndex, 0 );
+    /**
+     * 生成图表并以PNG格式写入通道（不关闭通道）
+     *
+     * @param table         数据快照
+     * @param configuration 图表配置
+     * @param channel       输出通道
+     * @param options       渲染选项，预览通常使用草稿档位
+     * @throws IOException 如果写出失败
+     */
+    public void generateChart( ColumnarTable table, ChartConfiguration configuration, WritableByteChannel channel, RenderOptions options ) throws IOException {
+        try( PooledByteArrayOutputStream png = generateChartBytes( table, configuration, options ) ) {
+            png.writeTo( channel );
+        }
+    }
 
-            LineAndShapeRenderer lineRenderer = new LineAndShapeRenderer();
-            lineRenderer.setDefaultToolTipGenerator( new StandardCategoryToolTipGenerator() );
+    /**
+     * 使用默认渲染选项在内存中生成PNG图表
+     *
+     * @param table         数据快照
+     * @param configuration 图表配置
+     * @return PNG数据，缓冲区取自共享的字节数组池，用完后需关闭以归还
+     * @throws IOException 如果编码失败
+     */
+    public PooledByteArrayOutputStream generateChartBytes( ColumnarTable table, ChartConfiguration configuration ) throws IOException {
+        return generateChartBytes( table, configuration, RenderOptions.defaults() );
+    }
 
-            for( int i = 0; i < primaryLineDataset.getRowCount(); i++ ) {
-                lineRenderer.setSeriesPaint( i, SERIES_COLORS[colorIndex % SERIES_COLORS.length] );
-                lineRenderer.setSeriesStroke( i, new BasicStroke( 2.0f ) );
-                lineRenderer.setSeriesShapesVisible( i, true );
-                colorIndex++;
-            }
+    /**
+     * 在内存中生成PNG图表，不经过文件系统
+     *
+     * @param table         数据快照
+     * @param configuration 图表配置
+     * @param options       渲染选项，预览通常使用草稿档位
+     * @return PNG数据，缓冲区取自共享的字节数组池，用完后需关闭以归还
+     * @throws IOException 如果编码失败
+     */
+    public PooledByteArrayOutputStream generateChartBytes( ColumnarTable table, ChartConfiguration configuration, RenderOptions options ) throws IOException {
+        RenderCache.Key key = cacheKey( table, configuration, options );
+        if( key != null ) {
+            return renderCached( table, configuration, options, key, null ).png();
+        }
+        return encodeToBuffer( prepareSeries( table, configuration, options, null ), configuration, options, null );
+    }
 
-            plot.setRenderer( datasetIndex, lineRenderer );
-            datasetIndex++;
+    /**
+     * 命中渲染缓存时复制缓存的PNG，否则生成图表、编码到池化缓冲区并放入缓存
+     */
+    private Rendered renderCached( ColumnarTable table, ChartConfiguration configuration, RenderOptions options,
+                                   RenderCache.Key key, RenderProgressListener listener ) throws IOException {
+        RenderCache.Entry cached = renderCache.get( key );
+        if( cached != null ) {
+            PooledByteArrayOutputStream png = new PooledByteArrayOutputStream( ByteArrayPool.shared(), cached.png().length );
+            png.write( cached.png() );
+            return new Rendered( png, cached.reports() );
         }
+        CategorySeries seriesData = prepareSeries( table, configuration, options, listener );
+        PooledByteArrayOutputStream png = encodeToBuffer( seriesData, configuration, options, listener );
+        renderCache.put( key, png.array(), png.size(), seriesData.reports() );
+        return new Rendered( png, seriesData.reports() );
+    }
 
-        // 处理次坐标轴数据
-        List<YAxisSeriesConfig> secondaryAxisSeries = configuration.getSecondaryAxisSeries();
-        if( !secondaryAxisSeries.isEmpty() ) {
-            // 创建次Y轴
-            NumberAxis secondaryRangeAxis = new NumberAxis();
-            secondaryRangeAxis.setLabelFont( CHINESE_FONT );
-            secondaryRangeAxis.setTickLabelFont( CHINESE_FONT );
-            secondaryRangeAxis.setAutoRangeIncludesZero( true );
-            plot.setRangeAxis( 1, secondaryRangeAxis );
-
-            // 分离次轴的柱形图和折线图系列
-            DefaultCategoryDataset secondaryBarDataset = new DefaultCategoryDataset();
-            DefaultCategoryDataset secondaryLineDataset = new DefaultCategoryDataset();
-
-            for( YAxisSeriesConfig series : secondaryAxisSeries ) {
-                List<Number> yData = excelDataService.getNumericColumnData( series.columnName() );
-                DefaultCategoryDataset targetDataset = series.chartType() == ChartType.BAR ? secondaryBarDataset : secondaryLineDataset;
-
-                for( int i = 0; i < xAxisData.size() && i < yData.size(); i++ ) {
-                    targetDataset.addValue( yData.get( i ), series.columnName(), xAxisData.get( i ) );
-                }
-            }
+    private PooledByteArrayOutputStream encodeToBuffer( CategorySeries seriesData, ChartConfiguration configuration, RenderOptions options,
+                                                        RenderProgressListener listener ) throws IOException {
+        ImageSettings settings = configuration.imageSettings();
+        long pixels = (long) settings.getWidthInPixels() * settings.getHeightInPixels();
+        PooledByteArrayOutputStream png = new PooledByteArrayOutputStream(
+            ByteArrayPool.shared(), (int) Math.min( MAX_INITIAL_BUFFER_BYTES, pixels / ESTIMATED_PIXELS_PER_BYTE ) );
+        try {
+            renderChart( seriesData, configuration, png, options, listener );
+            return png;
+        } catch( IOException | RuntimeException e ) {
+            png.close();
+            throw e;
+        }
+    }
 
-            // 添加次轴柱形图
-            if( secondaryBarDataset.getRowCount() > 0 ) {
-                plot.setDataset( datasetIndex, secondaryBarDataset );
-                plot.mapDatasetToRangeAxis( datasetIndex, 1 );
-
-                BarRenderer barRenderer = new BarRenderer();
-                barRenderer.setBarPainter( new StandardBarPainter() );
-                barRenderer.setDrawBarOutline( false );
-                barRenderer.setItemMargin( 0.0 );
-                barRenderer.setShadowVisible( false );
-                barRenderer.setDefaultToolTipGenerator( new StandardCategoryToolTipGenerator() );
-
-                for( int i = 0; i < secondaryBarDataset.getRowCount(); i++ ) {
-                    barRenderer.setSeriesPaint( i, SERIES_COLORS[colorIndex % SERIES_COLORS.length] );
-                    colorIndex++;
-                }
+    /**
+     * 计算渲染缓存键；未启用缓存或图片需要逐带绘制时返回null（逐带绘制的图片过大，不值得缓存）
+     */
+    private RenderCache.Key cacheKey( ColumnarTable table, ChartConfiguration configuration, RenderOptions options ) {
+        if( renderCache == null || isBanded( configuration.imageSettings(), options ) ) {
+            return null;
+        }
+        return RenderCache.keyOf( table, configuration, options );
+    }
 
-                plot.setRenderer( datasetIndex, barRenderer );
-                datasetIndex++;
-            }
+    private static boolean isBanded( ImageSettings settings, RenderOptions options ) {
+        return options.tiledRendering() || (long) settings.getWidthInPixels() * settings.getHeightInPixels() > MAX_UNTILED_PIXELS;
+    }
 
-            // 添加次轴折线图
-            if( secondaryLineDataset.getRowCount() > 0 ) {
-                plot.setDataset( datasetIndex, secondaryLineDataset );
-                plot.mapDatasetToRangeAxis( datasetIndex, 1 );
+    /**
+     * 报告进入某个阶段（或阶段内的进度），生成线程已被中断时停止生成
+     */
+    private static void checkpoint( RenderProgressListener listener, RenderStage stage, double fraction ) throws InterruptedIOException {
+        if( Thread.currentThread().isInterrupted() ) {
+            throw new InterruptedIOException( "图表生成已取消" );
+        }
+        if( listener != null ) {
+            listener.onProgress( stage, fraction );
+        }
+    }
 
-                LineAndShapeRenderer lineRenderer = new LineAndShapeRenderer();
-                lineRenderer.setDefaultToolTipGenerator( new StandardCategoryToolTipGenerator() );
+    /**
+     * 将图表绘制为图片并按渲染选项的压缩级别编码为PNG。
+     * 逐带绘制时每次只分配一条横带的图片，平移坐标并裁剪后重绘整张图表，绘制完的扫描行立即交给编码器，
+     * 每条横带之前报告一次绘制进度。
+     */
+    private static void writePng( JFreeChart chart, ImageSettings settings, OutputStream out, RenderOptions options,
+                                  RenderProgressListener listener ) throws IOException {
+        int width = settings.getWidthInPixels();
+        int height = settings.getHeightInPixels();
+        PngEncoder encoder = new PngEncoder( options.pngCompression().getLevel(), options.parallelPngEncoding() );
+        if( !isBanded( settings, options ) ) {
+            checkpoint( listener, RenderStage.RENDER, 0 );
+            BufferedImage image = chart.createBufferedImage( width, height );
+            checkpoint( listener, RenderStage.ENCODE, 0 );
+            encoder.encode( image, out );
+            return;
+        }
 
-                for( int i = 0; i < secondaryLineDataset.getRowCount(); i++ ) {
-                    lineRenderer.setSeriesPaint( i, SERIES_COLORS[colorIndex % SERIES_COLORS.length] );
-                    lineRenderer.setSeriesStroke( i, new BasicStroke( 2.0f ) );
-                    lineRenderer.setSeriesShapesVisible( i, true );
-                    colorIndex++;
+        int bandRows = (int) Math.clamp( TILE_BYTES / ( 4L * width ), 1, height );
+        BufferedImage band = new BufferedImage( width, bandRows, BufferedImage.TYPE_INT_ARGB );
+        Rectangle2D chartArea = new Rectangle2D.Double( 0, 0, width, height );
+        try( PngEncoder.RowWriter writer = encoder.start( out, width, height, true ) ) {
+            for( int y = 0; y < height; y += bandRows ) {
+                checkpoint( listener, RenderStage.RENDER, (double) y / height );
+                int rows = Math.min( bandRows, height - y );
+                Graphics2D g2 = band.createGraphics();
+                try {
+                    g2.setComposite( AlphaComposite.Clear );
+                    g2.fillRect( 0, 0, width, bandRows );
+                    g2.setComposite( AlphaComposite.SrcOver );
+                    g2.translate( 0, -y );
+                    g2.clipRect( 0, y, width, rows );
+                    chart.draw( g2, chartArea, null, null );
+                } finally {
+                    g2.dispose();
                 }
-
-                plot.setRenderer( datasetIndex, lineRenderer );
+                writer.writeRows( band, 0, rows );
             }
         }
+    }
 
-        // 设置渲染顺序，让折线图在柱形图之上
-        plot.setDatasetRenderingOrder( DatasetRenderingOrder.FORWARD );
+    /**
+     * 借用与配置布局和渲染质量档位相同的图表模板，换入数据后绘制并编码，完成后归还模板
+     */
+    private void renderChart( CategorySeries seriesData, ChartConfiguration configuration, OutputStream out, RenderOptions options,
+                              RenderProgressListener listener ) throws IOException {
+        ChartTemplate template = templatePool.acquire( configuration, options.profile() );
+        try {
+            JFreeChart chart = template.arm( seriesData );
+            writePng( chart, configuration.imageSettings(), out, options, listener );
+        } finally {
+            templatePool.release( template );
+        }
+    }
 
-        // 创建图表（不自动创建图例）
-        JFreeChart chart = new JFreeChart( null, null, plot, false );
-        chart.setBackgroundPaint( Color.WHITE );
+    /**
+     * 提取图表数据并对齐到分类，再按像素预算合并柱形图分类、对折线数据降采样
+     */
+    private static CategorySeries prepareSeries( ColumnarTable table, ChartConfiguration configuration, RenderOptions options,
+                                                 RenderProgressListener listener ) throws InterruptedIOException {
+        checkpoint( listener, RenderStage.EXTRACT, 0 );
+        CategorySeries data = extractSeries( table, configuration );
+        checkpoint( listener, RenderStage.BUILD_DATASET, 0 );
+        return reduceSeries( data, configuration, options );
+    }
+
+    /**
+     * 提取图表数据并对齐到分类。结果只取决于数据快照、X轴列和系列列，
+     * 只改变图表类型、坐标轴、标题、图例或图片尺寸时可以复用。
+     *
+     * @param table         数据快照
+     * @param configuration 图表配置
+     * @return 按分类对齐的系列数据
+     * @throws IllegalArgumentException 如果配置中的列不存在
+     */
+    public static CategorySeries extractSeries( ColumnarTable table, ChartConfiguration configuration ) {
+        // 一次遍历提取X轴分类和所有系列数据，各数据集共享同一个分类索引
+        ChartData chartData = ExcelDataService.extractChartData( table, configuration );
+        return CategorySeries.of( chartData );
+    }
 
-        // 设置标题
-        if( settings.title() != null && !settings.title().isBlank() ) {
-            TextTitle title = new TextTitle( settings.title(), CHINESE_TITLE_FONT );
-            chart.setTitle( title );
+    /**
+     * 按指定像素尺寸渲染图表，用于界面预览；配置中的图片尺寸被忽略，标题和图例照常绘制
+     *
+     * @param data          由 {@link #extractSeries} 提取的系列数据（可以包含配置未引用的系列）
+     * @param configuration 图表配置
+     * @param width         宽度（像素）
+     * @param height        高度（像素）
+     * @param options       渲染选项，预览通常使用草稿档位
+     * @return 图表图片
+     * @throws InterruptedIOException 如果渲染线程被中断
+     */
+    public BufferedImage renderPreview( CategorySeries data, ChartConfiguration configuration, int width, int height,
+                                        RenderOptions options ) throws InterruptedIOException {
+        ImageSettings settings = configuration.imageSettings();
+        ChartConfiguration sized = new ChartConfiguration( configuration.xAxisColumn(), configuration.yAxisSeries(),
+            new ImageSettings( width, SizeUnit.PIXEL, height, SizeUnit.PIXEL, settings.title(), settings.showLegend() ) );
+        CategorySeries reduced = reduceSeries( data, sized, options );
+        checkpoint( null, RenderStage.RENDER, 0 );
+
+        ChartTemplate template = templatePool.acquire( sized, options.profile() );
+        try {
+            return template.arm( reduced ).createBufferedImage( width, height );
+        } finally {
+            templatePool.release( template );
         }
+    }
 
-        // 设置图例
-        if( settings.showLegend() ) {
-            LegendTitle legend = new LegendTitle( plot );
-            legend.setItemFont( CHINESE_FONT );
-            chart.addLegend( legend );
+    /**
+     * 按渲染选项在像素预算内合并柱形图分类、对折线数据降采样，默认选项两者都不启用
+     */
+    private static CategorySeries reduceSeries( CategorySeries data, ChartConfiguration configuration, RenderOptions options ) {
+        int widthInPixels = configuration.imageSettings().getWidthInPixels();
+
+        // 柱形分类过多且选项启用合并时合并相邻分类，使每个柱形至少占 MIN_BAR_PIXELS 像素
+        long barSeriesCount = configuration.yAxisSeries().stream()
+            .filter( series -> series.chartType() == ChartType.BAR )
+            .count();
+        if( barSeriesCount > 0 ) {
+            int maxCategories = (int) Math.max( 1, widthInPixels / ( MIN_BAR_PIXELS * barSeriesCount ) );
+            data = CategoryBinner.bin( data, maxCategories, options.barAggregation() );
         }
 
-        return chart;
+        // 折线数据点远多于像素宽度时降采样到约两倍像素宽度
+        List<String> lineSeries = configuration.yAxisSeries().stream()
+            .filter( series -> series.chartType() == ChartType.LINE )
+            .map( YAxisSeriesConfig::columnName )
+            .toList();
+        return Downsampler.downsample( data, lineSeries, widthInPixels * 2, options.downsampling() );
+    }
+
+    /**
+     * 内存中的PNG及其数值转换报告，关闭时归还缓冲区
+     */
+    private record Rendered( PooledByteArrayOutputStream png, Map<String, CoercionReport> reports ) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            png.close();
+        }
     }
 }
@@ -0,0 +1,225 @@
+package com.gwill.tools.graphics.excelcombochartplotter.service;
+
+import com.gwill.tools.graphics.excelcombochartplotter.chart.CategorySeries;
+import com.gwill.tools.graphics.excelcombochartplotter.chart.ColumnarCategoryDataset;
+import com.gwill.tools.graphics.excelcombochartplotter.chart.ThinningCategoryAxis;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ChartConfiguration;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ChartType;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ImageSettings;
+import com.gwill.tools.graphics.excelcombochartplotter.model.RenderProfile;
+import com.gwill.tools.graphics.excelcombochartplotter.model.YAxisSeriesConfig;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.CategoryAxis;
+import org.jfree.chart.axis.CategoryLabelPositions;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.labels.StandardCategoryToolTipGenerator;
+import org.jfree.chart.plot.CategoryPlot;
+import org.jfree.chart.plot.DatasetRenderingOrder;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.renderer.category.BarRenderer;
+import org.jfree.chart.renderer.category.CategoryItemRenderer;
+import org.jfree.chart.renderer.category.LineAndShapeRenderer;
+import org.jfree.chart.renderer.category.StandardBarPainter;
+import org.jfree.chart.title.LegendTitle;
+import org.jfree.chart.title.TextTitle;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.RenderingHints;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 编译好的图表模板：由图表配置中与数据无关的部分（X轴列名、系列的类型和坐标轴、标题、图例）和渲染质量档位
+ * 一次性构建坐标轴、渲染器、字体、图例和渲染提示，每次渲染只需换入新的数据集。
+ * <p>
+ * 模板持有可变的JFreeChart对象，同一时刻只能由一个线程使用，由 {@link ChartTemplatePool} 负责借出和归还。
+ */
+final class ChartTemplate {
+
+    // 预定义的系列颜色
+    private static final Color[] SERIES_COLORS = {
+        new Color( 79, 129, 189 ),   // 蓝色
+        new Color( 192, 80, 77 ),    // 红色
+        new Color( 155, 187, 89 ),   // 绿色
+        new Color( 128, 100, 162 ),  // 紫色
+        new Color( 75, 172, 198 ),   // 青色
+        new Color( 247, 150, 70 ),   // 橙色
+        new Color( 119, 119, 119 ),  // 灰色
+        new Color( 193, 152, 89 )    // 棕色
+    };
+
+    private static final Font CHINESE_FONT = new Font( "PingFang SC", Font.PLAIN, 12 );
+    private static final Font CHINESE_TITLE_FONT = new Font( "PingFang SC", Font.BOLD, 16 );
+
+    private static final BasicStroke LINE_STROKE = new BasicStroke( 2.0f );
+
+    private final Layout layout;
+
+    private final boolean draft;
+
+    private final JFreeChart chart;
+
+    private final CategoryPlot plot;
+
+    // 按数据集索引排列的各数据集的系列名
+    private final List<List<String>> datasetSeries = new ArrayList<>();
+
+    // 构建时下一个系列使用的颜色
+    private int colorIndex;
+
+    /**
+     * 按图表配置和渲染质量档位构建模板，不涉及任何数据
+     */
+    ChartTemplate( ChartConfiguration configuration, RenderProfile profile ) {
+        this.layout = Layout.of( configuration, profile );
+        this.draft = profile == RenderProfile.DRAFT;
+
+        // 创建X轴（分类过多时自动稀疏刻度标签）
+        CategoryAxis domainAxis = new ThinningCategoryAxis( configuration.xAxisColumn() );
+        domainAxis.setLabelFont( CHINESE_FONT );
+        domainAxis.setTickLabelFont( CHINESE_FONT );
+        domainAxis.setCategoryLabelPositions( CategoryLabelPositions.UP_45 );
+
+        // 创建CategoryPlot
+        plot = new CategoryPlot();
+        plot.setDomainAxis( domainAxis );
+        plot.setRangeAxis( 0, createRangeAxis() );
+        plot.setOrientation( PlotOrientation.VERTICAL );
+        plot.setBackgroundPaint( Color.WHITE );
+        plot.setRangeGridlinePaint( Color.LIGHT_GRAY );
+
+        // 先主轴后次轴，每个坐标轴上先柱形图后折线图，使柱形图在底层
+        addDatasets( configuration.getPrimaryAxisSeries(), 0 );
+        List<YAxisSeriesConfig> secondaryAxisSeries = configuration.getSecondaryAxisSeries();
+        if( !secondaryAxisSeries.isEmpty() ) {
+            plot.setRangeAxis( 1, createRangeAxis() );
+            addDatasets( secondaryAxisSeries, 1 );
+        }
+
+        // 设置渲染顺序，让折线图在柱形图之上
+        plot.setDatasetRenderingOrder( DatasetRenderingOrder.FORWARD );
+
+        // 创建图表（不自动创建图例）
+        chart = new JFreeChart( null, null, plot, false );
+        chart.setBackgroundPaint( Color.WHITE );
+
+        ImageSettings settings = configuration.imageSettings();
+        if( settings.title() != null && !settings.title().isBlank() ) {
+            chart.setTitle( new TextTitle( settings.title(), CHINESE_TITLE_FONT ) );
+        }
+        if( settings.showLegend() ) {
+            LegendTitle legend = new LegendTitle( plot );
+            legend.setItemFont( CHINESE_FONT );
+            chart.addLegend( legend );
+        }
+
+        if( draft ) {
+            // 草稿质量：不抗锯齿，渲染提示偏向速度，描边坐标不做亚像素修正
+            RenderingHints hints = new RenderingHints( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF );
+            hints.put( RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_OFF );
+            hints.put( RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED );
+            hints.put( RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_SPEED );
+            hints.put( RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_NORMALIZE );
+            chart.setRenderingHints( hints );
+        }
+    }
+
+    Layout getLayout() {
+        return layout;
+    }
+
+    /**
+     * 换入新数据，返回可以直接绘制的图表
+     *
+     * @param data 按分类对齐（已合并、降采样）的系列数据
+     */
+    JFreeChart arm( CategorySeries data ) {
+        for( int i = 0; i < datasetSeries.size(); i++ ) {
+            ColumnarCategoryDataset.Builder builder = ColumnarCategoryDataset.builder( data.categories() );
+            for( String series : datasetSeries.get( i ) ) {
+                builder.addSeries( series, data.getValues( series ) );
+            }
+            // 设置数据集时绘图区重新计算坐标轴范围
+            plot.setDataset( i, builder.build() );
+        }
+        return chart;
+    }
+
+    /**
+     * 移除数据集，归还模板时不再引用上一次渲染的数据
+     */
+    void disarm() {
+        for( int i = 0; i < datasetSeries.size(); i++ ) {
+            plot.setDataset( i, null );
+        }
+    }
+
+    private void addDatasets( List<YAxisSeriesConfig> axisSeries, int rangeAxisIndex ) {
+        // 与数据集一致，同一数据集中重复的系列名只计一次
+        Set<String> bars = new LinkedHashSet<>();
+        Set<String> lines = new LinkedHashSet<>();
+        for( YAxisSeriesConfig series : axisSeries ) {
+            ( series.chartType() == ChartType.BAR ? bars : lines ).add( series.columnName() );
+        }
+
+        if( !bars.isEmpty() ) {
+            BarRenderer barRenderer = new BarRenderer();
+            barRenderer.setBarPainter( new StandardBarPainter() );
+            barRenderer.setDrawBarOutline( false );
+            barRenderer.setItemMargin( 0.0 );  // 同一分类内柱形之间零间距
+            barRenderer.setShadowVisible( false );
+            if( !draft ) {
+                barRenderer.setDefaultToolTipGenerator( new StandardCategoryToolTipGenerator() );
+            }
+            for( int i = 0; i < bars.size(); i++ ) {
+                barRenderer.setSeriesPaint( i, SERIES_COLORS[colorIndex++ % SERIES_COLORS.length] );
+            }
+            addDataset( bars, rangeAxisIndex, barRenderer );
+        }
+
+        if( !lines.isEmpty() ) {
+            LineAndShapeRenderer lineRenderer = new LineAndShapeRenderer();
+            if( !draft ) {
+                lineRenderer.setDefaultToolTipGenerator( new StandardCategoryToolTipGenerator() );
+            }
+            for( int i = 0; i < lines.size(); i++ ) {
+                lineRenderer.setSeriesPaint( i, SERIES_COLORS[colorIndex++ % SERIES_COLORS.length] );
+                lineRenderer.setSeriesStroke( i, LINE_STROKE );
+                // 草稿不绘制数据点标记
+                lineRenderer.setSeriesShapesVisible( i, !draft );
+            }
+            addDataset( lines, rangeAxisIndex, lineRenderer );
+        }
+    }
+
+    private void addDataset( Set<String> series, int rangeAxisIndex, CategoryItemRenderer renderer ) {
+        int datasetIndex = datasetSeries.size();
+        datasetSeries.add( List.copyOf( series ) );
+        plot.mapDatasetToRangeAxis( datasetIndex, rangeAxisIndex );
+        plot.setRenderer( datasetIndex, renderer );
+    }
+
+    private static NumberAxis createRangeAxis() {
+        NumberAxis axis = new NumberAxis();
+        axis.setLabelFont( CHINESE_FONT );
+        axis.setTickLabelFont( CHINESE_FONT );
+        axis.setAutoRangeIncludesZero( true );
+        return axis;
+    }
+
+    /**
+     * 模板的布局：图表配置中决定图表对象结构的部分及渲染质量档位，图片尺寸和数据不在其中
+     */
+    record Layout( String xAxisColumn, List<YAxisSeriesConfig> series, String title, boolean showLegend, RenderProfile profile ) {
+
+        static Layout of( ChartConfiguration configuration, RenderProfile profile ) {
+            ImageSettings settings = configuration.imageSettings();
+            return new Layout( configuration.xAxisColumn(), List.copyOf( configuration.yAxisSeries() ),
+                settings.title(), settings.showLegend(), profile );
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.gwill.tools.graphics.excelcombochartplotter.service;
+
+import com.gwill.tools.graphics.excelcombochartplotter.model.ChartConfiguration;
+import com.gwill.tools.graphics.excelcombochartplotter.model.RenderProfile;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按布局缓存空闲的图表模板：同一布局的重复渲染借用已构建的模板，只换入数据集。
+ * 最近最少使用的布局超出上限时被丢弃，每种布局保留的空闲模板数不超过处理器核数。所有方法线程安全。
+ */
+final class ChartTemplatePool {
+
+    private static final int MAX_LAYOUTS = 32;
+
+    private final int maxIdlePerLayout = Runtime.getRuntime().availableProcessors();
+
+    private final Map<ChartTemplate.Layout, Deque<ChartTemplate>> idle = new LinkedHashMap<>( 16, 0.75f, true ) {
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<ChartTemplate.Layout, Deque<ChartTemplate>> eldest ) {
+            return size() > MAX_LAYOUTS;
+        }
+    };
+
+    /**
+     * 借出一个与配置布局和质量档位相同的模板，没有空闲模板时新建
+     */
+    ChartTemplate acquire( ChartConfiguration configuration, RenderProfile profile ) {
+        ChartTemplate.Layout layout = ChartTemplate.Layout.of( configuration, profile );
+        synchronized( this ) {
+            Deque<ChartTemplate> templates = idle.get( layout );
+            ChartTemplate template = templates != null ? templates.pollFirst() : null;
+            if( template != null ) {
+                return template;
+            }
+        }
+        // 在锁外构建，避免阻塞其他布局的借用
+        return new ChartTemplate( configuration, profile );
+    }
+
+    /**
+     * 归还借出的模板
+     */
+    void release( ChartTemplate template ) {
+        template.disarm();
+        synchronized( this ) {
+            Deque<ChartTemplate> templates = idle.computeIfAbsent( template.getLayout(), layout -> new ArrayDeque<>() );
+            if( templates.size() < maxIdlePerLayout ) {
+                templates.addFirst( template );
+            }
+        }
+    }
+}
@@ -1,60 +1,203 @@
 package com.gwill.tools.graphics.excelcombochartplotter.service;
 
-import com.gwill.io.excel.ExcelIO;
-import lombok.Getter;
+import com.gwill.tools.graphics.excelcombochartplotter.data.ChartData;
+import com.gwill.tools.graphics.excelcombochartplotter.data.Column;
+import com.gwill.tools.graphics.excelcombochartplotter.data.ColumnarDiskCache;
+import com.gwill.tools.graphics.excelcombochartplotter.data.ColumnarTable;
+import com.gwill.tools.graphics.excelcombochartplotter.data.NumericSeries;
+import com.gwill.tools.graphics.excelcombochartplotter.data.SheetHeader;
+import com.gwill.tools.graphics.excelcombochartplotter.data.XlsxStreamReader;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ChartConfiguration;
+import com.gwill.tools.graphics.excelcombochartplotter.model.YAxisSeriesConfig;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.RandomAccess;
 import java.util.Set;
 
 /**
  * Excel数据读取服务
+ * <p>
+ * 加载得到的 {@link ColumnarTable} 是不可变快照，可以在任意线程间共享并同时用于生成多张图表；
+ * 服务本身只保存最近一次加载的快照引用，重新加载或清除时整体替换，不影响正在使用旧快照的线程。
  */
 public class ExcelDataService {
 
-    @Getter
-    private List<String> columnNames;
+    private final WorkbookCache workbookCache;
 
-    @Getter
-    private List<Map<String, Object>> data;
+    private final ColumnarDiskCache diskCache;
 
-    private boolean dataLoaded = false;
+    private volatile LoadedTable current;
+
+    /**
+     * 创建数据服务，使用进程内共享的工作簿缓存，磁盘缓存按系统属性配置
+     */
+    public ExcelDataService() {
+        this( WorkbookCache.shared(), ColumnarDiskCache.fromSystemProperties() );
+    }
+
+    /**
+     * 创建数据服务
+     *
+     * @param workbookCache 进程内工作簿缓存，为null时不使用
+     * @param diskCache     列式数据磁盘缓存，为null时不使用
+     */
+    public ExcelDataService( WorkbookCache workbookCache, ColumnarDiskCache diskCache ) {
+        this.workbookCache = workbookCache;
+        this.diskCache = diskCache;
+    }
+
+    /**
+     * 获取进程内工作簿缓存（可能为null）
+     */
+    public WorkbookCache getWorkbookCache() {
+        return workbookCache;
+    }
+
+    /**
+     * 只读取Excel文件的表头，用于快速填充列选择界面，不解码任何数据行
+     *
+     * @param filePath Excel文件路径
+     * @return 表头列名及数据行数（来自工作表dimension标记，可能未知）
+     * @throws Exception 如果读取失败或列名重复
+     */
+    public SheetHeader scanHeader( String filePath ) throws Exception {
+        SheetHeader header = XlsxStreamReader.readHeader( Path.of( filePath ) );
+        if( header.columnNames().isEmpty() ) {
+            throw new Exception( "Excel文件中没有数据" );
+        }
+        return header;
+    }
 
     /**
      * 从Excel文件加载数据
      *
      * @param filePath Excel文件路径
+     * @return 已加载数据的不可变快照
      * @throws Exception 如果读取失败或列名重复
      */
-    public void loadData( String filePath ) throws Exception {
-        // 读取第一个Sheet的数据
-        data = ExcelIO.read( filePath )
-            .sheet( 0 )
-            .asMaps();
+    public ColumnarTable loadData( String filePath ) throws Exception {
+        return loadData( filePath, null );
+    }
+
+    /**
+     * 从Excel文件加载指定的列，其余列在解析时直接跳过
+     *
+     * @param filePath Excel文件路径
+     * @param columns  需要加载的列名，为null时加载全部列
+     * @return 已加载数据的不可变快照
+     * @throws Exception 如果读取失败、列名重复或指定列不存在
+     */
+    public ColumnarTable loadData( String filePath, Collection<String> columns ) throws Exception {
+        return loadData( filePath, columns, null );
+    }
+
+    /**
+     * 从Excel文件加载指定的列，解析工作表时定期报告进度（命中缓存时不报告）。
+     * 加载线程被中断时停止解析并抛出 {@link java.io.InterruptedIOException}，已加载的数据保持不变。
+     *
+     * @param filePath         Excel文件路径
+     * @param columns          需要加载的列名，为null时加载全部列
+     * @param progressListener 进度监听器，可以为null
+     * @return 已加载数据的不可变快照
+     * @throws Exception 如果读取失败、列名重复、指定列不存在或加载被取消
+     */
+    public ColumnarTable loadData( String filePath, Collection<String> columns, XlsxStreamReader.ProgressListener progressListener ) throws Exception {
+        Path path = Path.of( filePath );
+        Set<String> projection = columns != null ? new HashSet<>( columns ) : null;
+        // 在读取之前记录文件版本，读取期间文件被修改时下次调用会重新加载
+        long size = Files.size( path );
+        long lastModified = Files.getLastModifiedTime( path ).toMillis();
+
+        // 依次查找内存缓存、磁盘缓存，都未命中时流式读取第一个Sheet的数据，单元格直接写入列式存储
+        ColumnarTable loaded = workbookCache != null ? workbookCache.get( path, projection ) : null;
+        if( loaded == null ) {
+            loaded = diskCache != null ? diskCache.load( path, projection ) : null;
+            if( loaded == null ) {
+                loaded = XlsxStreamReader.read( path, projection, progressListener );
+                if( diskCache != null ) {
+                    diskCache.store( path, loaded, projection == null );
+                }
+            }
+            if( workbookCache != null ) {
+                workbookCache.put( path, loaded, projection == null );
+            }
+        }
 
-        if( data == null || data.isEmpty() ) {
+        if( loaded.getRowCount() == 0 || loaded.getColumnNames().isEmpty() ) {
             throw new Exception( "Excel文件中没有数据" );
         }
 
-        // 获取列名
-        columnNames = new ArrayList<>( data.getFirst().keySet() );
+        current = new LoadedTable( filePath, size, lastModified, loaded );
+        return loaded;
+    }
+
+    /**
+     * 确保指定文件的指定列已加载；已加载的数据来自同一文件版本（大小和修改时间不变）且覆盖所需列时直接复用，
+     * 否则按列投影重新加载
+     *
+     * @param filePath Excel文件路径
+     * @param columns  需要的列名
+     * @return 包含所需列的不可变快照
+     * @throws Exception 如果读取失败或指定列不存在
+     */
+    public ColumnarTable ensureLoaded( String filePath, Collection<String> columns ) throws Exception {
+        return ensureLoaded( filePath, columns, null );
+    }
 
-        // 检查列名是否有重复
-        Set<String> uniqueNames = new HashSet<>( columnNames );
-        if( uniqueNames.size() != columnNames.size() ) {
-            throw new Exception( "Excel文件中存在重复的列名，请确保所有列名唯一" );
+    /**
+     * 确保指定文件的指定列已加载，需要重新解析时报告进度
+     *
+     * @param filePath         Excel文件路径
+     * @param columns          需要的列名
+     * @param progressListener 进度监听器，可以为null
+     * @return 包含所需列的不可变快照
+     * @throws Exception 如果读取失败、指定列不存在或加载被取消
+     */
+    public ColumnarTable ensureLoaded( String filePath, Collection<String> columns, XlsxStreamReader.ProgressListener progressListener ) throws Exception {
+        LoadedTable loaded = current;
+        if( loaded != null && loaded.isCurrent( filePath ) && columns.stream().allMatch( loaded.table()::hasColumn ) ) {
+            return loaded.table();
         }
+        return loadData( filePath, columns, progressListener );
+    }
 
-        dataLoaded = true;
+    /**
+     * 获取最近一次加载的数据快照
+     *
+     * @return 不可变快照，未加载时为null
+     */
+    public ColumnarTable getTable() {
+        LoadedTable loaded = current;
+        return loaded != null ? loaded.table() : null;
     }
 
     /**
      * 检查数据是否已加载
      */
     public boolean isDataLoaded() {
-        return dataLoaded;
+        return current != null;
+    }
+
+    /**
+     * 获取列名列表
+     */
+    public List<String> getColumnNames() {
+        ColumnarTable table = getTable();
+        return table != null ? table.getColumnNames() : null;
+    }
+
+    /**
+     * 获取数据行数
+     */
+    public int getRowCount() {
+        ColumnarTable table = getTable();
+        return table != null ? table.getRowCount() : 0;
     }
 
     /**
@@ -64,40 +207,77 @@ public class ExcelDataService {
      * @return 该列的所有数据值
      */
     public List<Object> getColumnData( String columnName ) {
-        if( !dataLoaded ) {
-            throw new IllegalStateException( "数据尚未加载" );
-        }
-        return data.stream()
-            .map( row -> row.get( columnName ) )
-            .toList();
+        Column column = requireColumn( columnName );
+        return new ColumnView<>() {
+            @Override
+            public Object get( int index ) {
+                return column.getValue( index );
+            }
+
+            @Override
+            public int size() {
+                return column.size();
+            }
+        };
+    }
+
+    /**
+     * 将指定列转换为数值，并给出转换报告
+     *
+     * @param columnName 列名
+     * @return 每行的数值（空单元格和无法转换的单元格为NaN）及成功、空白、无法转换的单元格数
+     */
+    public NumericSeries getNumericSeries( String columnName ) {
+        return NumericSeries.of( requireColumn( columnName ) );
     }
 
     /**
-     * 获取指定列的数值数据（用于Y轴）
+     * 获取指定列的数值数据（用于Y轴），空单元格和无法转换的单元格为null，绘图时显示为缺口而不是0
      *
      * @param columnName 列名
      * @return 数值列表
      */
     public List<Number> getNumericColumnData( String columnName ) {
-        if( !dataLoaded ) {
-            throw new IllegalStateException( "数据尚未加载" );
-        }
-        List<Number> numbers = new ArrayList<>();
-        for( Map<String, Object> row : data ) {
-            Object value = row.get( columnName );
-            if( value instanceof Number number ) {
-                numbers.add( number );
-            } else if( value != null ) {
-                try {
-                    numbers.add( Double.parseDouble( value.toString() ) );
-                } catch( NumberFormatException e ) {
-                    numbers.add( 0.0 );
-                }
-            } else {
-                numbers.add( 0.0 );
+        NumericSeries series = getNumericSeries( columnName );
+        return new ColumnView<>() {
+            @Override
+            public Number get( int index ) {
+                return series.getOrNull( index );
+            }
+
+            @Override
+            public int size() {
+                return series.size();
             }
+        };
+    }
+
+    /**
+     * 一次遍历最近加载的数据，提取图表配置所需的X轴分类和全部系列数值
+     *
+     * @param configuration 图表配置
+     * @return 图表数据
+     */
+    public ChartData extractChartData( ChartConfiguration configuration ) {
+        ColumnarTable table = getTable();
+        if( table == null ) {
+            throw new IllegalStateException( "数据尚未加载" );
         }
-        return numbers;
+        return extractChartData( table, configuration );
+    }
+
+    /**
+     * 一次遍历数据快照，提取图表配置所需的X轴分类和全部系列数值
+     *
+     * @param table         数据快照
+     * @param configuration 图表配置
+     * @return 图表数据
+     */
+    public static ChartData extractChartData( ColumnarTable table, ChartConfiguration configuration ) {
+        List<String> seriesColumns = configuration.yAxisSeries().stream()
+            .map( YAxisSeriesConfig::columnName )
+            .toList();
+        return ChartData.extract( table, configuration.xAxisColumn(), seriesColumns );
     }
 
     /**
@@ -107,23 +287,59 @@ public class ExcelDataService {
      * @return 字符串列表
      */
     public List<String> getStringColumnData( String columnName ) {
-        if( !dataLoaded ) {
-            throw new IllegalStateException( "数据尚未加载" );
-        }
-        return data.stream()
-            .map( row -> {
-                Object value = row.get( columnName );
-                return value != null ? value.toString() : "";
-            } )
-            .toList();
+        Column column = requireColumn( columnName );
+        return new ColumnView<>() {
+            @Override
+            public String get( int index ) {
+                return column.getString( index );
+            }
+
+            @Override
+            public int size() {
+                return column.size();
+            }
+        };
     }
 
     /**
      * 清除已加载的数据
      */
     public void clear() {
-        columnNames = null;
-        data = null;
-        dataLoaded = false;
+        current = null;
+    }
+
+    private Column requireColumn( String columnName ) {
+        ColumnarTable table = getTable();
+        if( table == null ) {
+            throw new IllegalStateException( "数据尚未加载" );
+        }
+        return table.getColumn( columnName );
+    }
+
+    /**
+     * 已加载的文件版本及其数据快照，作为一个整体原子替换
+     */
+    private record LoadedTable( String filePath, long size, long lastModified, ColumnarTable table ) {
+
+        /**
+         * 快照是否来自该文件的当前版本
+         */
+        boolean isCurrent( String path ) {
+            if( !filePath.equals( path ) ) {
+                return false;
+            }
+            try {
+                Path file = Path.of( path );
+                return Files.size( file ) == size && Files.getLastModifiedTime( file ).toMillis() == lastModified;
+            } catch( IOException e ) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 直接读取列数组的只读列表视图
+     */
+    private abstract static class ColumnView<E> extends AbstractList<E> implements RandomAccess {
     }
 }
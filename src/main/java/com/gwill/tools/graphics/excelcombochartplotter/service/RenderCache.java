@@ -0,0 +1,203 @@
+package com.gwill.tools.graphics.excelcombochartplotter.service;
+
+import com.gwill.tools.graphics.excelcombochartplotter.data.CoercionReport;
+import com.gwill.tools.graphics.excelcombochartplotter.data.ColumnarTable;
+import com.gwill.tools.graphics.excelcombochartplotter.model.AggregationReducer;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ChartConfiguration;
+import com.gwill.tools.graphics.excelcombochartplotter.model.DownsamplingMode;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ImageSettings;
+import com.gwill.tools.graphics.excelcombochartplotter.model.PngCompression;
+import com.gwill.tools.graphics.excelcombochartplotter.model.RenderOptions;
+import com.gwill.tools.graphics.excelcombochartplotter.model.RenderProfile;
+import com.gwill.tools.graphics.excelcombochartplotter.model.YAxisSeriesConfig;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 已编码PNG图表的LRU缓存，以图表配置、影响输出图像的渲染选项和所引用列的数据指纹为键，按字节数限制容量。
+ * 相同数据、相同配置的重复渲染直接复制缓存的PNG，并返回生成时的数值转换报告。可在多个图表服务之间共享，所有方法线程安全。
+ */
+public class RenderCache {
+
+    /**
+     * 缓存容量（字节）的系统属性名
+     */
+    public static final String MAX_BYTES_PROPERTY = "excelcombochartplotter.renderCache.maxBytes";
+
+    private static final RenderCache SHARED = new RenderCache( defaultMaxBytes() );
+
+    private final long maxBytes;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>( 16, 0.75f, true );
+    private long currentBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public RenderCache( long maxBytes ) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 获取进程内共享的缓存实例
+     */
+    public static RenderCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * 计算一次渲染的缓存键。数据指纹只覆盖配置引用的列，首次计算需遍历这些列，之后由列缓存结果。
+     * 是否并行编码、是否逐带绘制只影响性能，不影响图像，因此不属于缓存键。
+     *
+     * @param table         数据快照
+     * @param configuration 图表配置
+     * @param options       渲染选项
+     * @return 缓存键
+     */
+    public static Key keyOf( ColumnarTable table, ChartConfiguration configuration, RenderOptions options ) {
+        return new Key( canonicalForm( configuration ), options.downsampling(), options.barAggregation(), options.pngCompression(),
+            options.profile(), table.fingerprint( configuration.getReferencedColumns() ) );
+    }
+
+    /**
+     * 查找缓存的PNG
+     *
+     * @return 缓存的PNG及数值转换报告（调用方不得修改PNG数据），未命中时返回null
+     */
+    public synchronized Entry get( Key key ) {
+        Entry entry = entries.get( key );
+        if( entry != null ) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return entry;
+    }
+
+    /**
+     * 放入PNG，数据会被复制
+     *
+     * @param key     缓存键
+     * @param png     PNG数据所在的数组
+     * @param length  有效字节数
+     * @param reports 以列名为键的数值转换报告
+     */
+    public synchronized void put( Key key, byte[] png, int length, Map<String, CoercionReport> reports ) {
+        if( length > maxBytes ) {
+            return;
+        }
+        Entry existing = entries.put( key, new Entry( Arrays.copyOf( png, length ), reports ) );
+        if( existing != null ) {
+            currentBytes -= existing.png().length;
+        }
+        currentBytes += length;
+
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while( currentBytes > maxBytes && iterator.hasNext() ) {
+            Map.Entry<Key, Entry> eldest = iterator.next();
+            if( eldest.getKey().equals( key ) ) {
+                continue;
+            }
+            currentBytes -= eldest.getValue().png().length;
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * 清空缓存（统计计数保留）
+     */
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    /**
+     * 获取缓存统计信息
+     */
+    public synchronized Stats stats() {
+        return new Stats( hits, misses, evictions, entries.size(), currentBytes, maxBytes );
+    }
+
+    /**
+     * 图表配置的规范文本：只包含影响输出的字段，枚举使用常量名，与界面语言无关
+     */
+    private static String canonicalForm( ChartConfiguration configuration ) {
+        StringBuilder builder = new StringBuilder();
+        builder.append( configuration.xAxisColumn().length() ).append( ':' ).append( configuration.xAxisColumn() );
+        for( YAxisSeriesConfig series : configuration.yAxisSeries() ) {
+            builder.append( '|' ).append( series.columnName().length() ).append( ':' ).append( series.columnName() )
+                .append( ',' ).append( series.chartType().name() )
+                .append( ',' ).append( series.useSecondaryAxis() );
+        }
+        ImageSettings settings = configuration.imageSettings();
+        String title = settings.title() != null ? settings.title() : "";
+        builder.append( '|' ).append( settings.getWidthInPixels() ).append( 'x' ).append( settings.getHeightInPixels() )
+            .append( ',' ).append( settings.showLegend() )
+            .append( ',' ).append( title.length() ).append( ':' ).append( title );
+        return builder.toString();
+    }
+
+    private static long defaultMaxBytes() {
+        String value = System.getProperty( MAX_BYTES_PROPERTY );
+        if( value != null ) {
+            try {
+                return Long.parseLong( value );
+            } catch( NumberFormatException e ) {
+                // 使用默认容量
+            }
+        }
+        return Runtime.getRuntime().maxMemory() / 16;
+    }
+
+    /**
+     * 缓存键
+     *
+     * @param configuration   图表配置的规范文本
+     * @param downsampling    折线系列降采样方式
+     * @param barAggregation  柱形分类合并方式
+     * @param pngCompression  PNG压缩级别
+     * @param profile         渲染质量档位
+     * @param dataFingerprint 所引用列的数据指纹
+     */
+    public record Key(
+        String configuration,
+        DownsamplingMode downsampling,
+        AggregationReducer barAggregation,
+        PngCompression pngCompression,
+        RenderProfile profile,
+        long dataFingerprint
+    ) {
+    }
+
+    /**
+     * 缓存统计信息
+     *
+     * @param hits       命中次数
+     * @param misses     未命中次数
+     * @param evictions  因容量不足被淘汰的条目数
+     * @param entryCount 当前条目数
+     * @param bytes      当前缓存的PNG总字节数
+     * @param maxBytes   容量上限（字节）
+     */
+    public record Stats(
+        long hits,
+        long misses,
+        long evictions,
+        int entryCount,
+        long bytes,
+        long maxBytes
+    ) {
+    }
+
+    /**
+     * 缓存条目
+     *
+     * @param png     PNG数据
+     * @param reports 以列名为键的数值转换报告
+     */
+    public record Entry( byte[] png, Map<String, CoercionReport> reports ) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.gwill.tools.graphics.excelcombochartplotter.service;
+
+import com.gwill.tools.graphics.excelcombochartplotter.model.RenderStage;
+
+/**
+ * 图表生成进度监听器，在生成图表的线程中调用
+ */
+@FunctionalInterface
+public interface RenderProgressListener {
+
+    /**
+     * @param stage    当前阶段
+     * @param fraction 当前阶段已完成的比例（0~1）
+     */
+    void onProgress( RenderStage stage, double fraction );
+}
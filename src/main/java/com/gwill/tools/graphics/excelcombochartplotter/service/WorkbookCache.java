@@ -0,0 +1,194 @@
+package com.gwill.tools.graphics.excelcombochartplotter.service;
+
+import com.gwill.tools.graphics.excelcombochartplotter.data.ColumnarTable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 进程内已解析工作簿的LRU缓存，以文件路径、大小和修改时间为键，按估算的堆内存字节数限制容量。
+ * 可在多个数据服务之间共享，所有方法线程安全。
+ */
+public class WorkbookCache {
+
+    /**
+     * 缓存容量（字节）的系统属性名
+     */
+    public static final String MAX_BYTES_PROPERTY = "excelcombochartplotter.memoryCache.maxBytes";
+
+    private static final WorkbookCache SHARED = new WorkbookCache( defaultMaxBytes() );
+
+    private final long maxBytes;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>( 16, 0.75f, true );
+    private long currentBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public WorkbookCache( long maxBytes ) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 获取进程内共享的缓存实例
+     */
+    public static WorkbookCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * 查找缓存的数据表
+     *
+     * @param source  源xlsx文件
+     * @param columns 需要的列名，为null时要求缓存包含全部列
+     * @return 包含所需列的数据表（可能包含更多列），未命中时返回null
+     */
+    public synchronized ColumnarTable get( Path source, Collection<String> columns ) {
+        Key key = keyOf( source );
+        Entry entry = key != null ? entries.get( key ) : null;
+        if( entry != null && covers( entry, columns ) ) {
+            hits++;
+            return entry.table();
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * 放入数据表；同一文件版本已有缓存、且两张表逐行对应同一组工作表行时合并列，否则替换原有缓存
+     *
+     * @param source   源xlsx文件
+     * @param table    数据表
+     * @param complete 数据表是否包含源文件的全部列
+     */
+    public synchronized void put( Path source, ColumnarTable table, boolean complete ) {
+        Key key = keyOf( source );
+        if( key == null ) {
+            return;
+        }
+        Entry existing = entries.remove( key );
+        if( existing != null ) {
+            currentBytes -= existing.bytes();
+            if( table.hasSameRows( existing.table() ) ) {
+                table = table.union( existing.table() );
+                complete |= existing.complete();
+            } else if( existing.complete() && !complete ) {
+                // 行不对应时保留已有的完整数据表，不用部分列替换它
+                table = existing.table();
+                complete = true;
+            }
+        }
+        removeStaleVersions( key.path() );
+
+        Entry entry = new Entry( table, complete, table.estimatedBytes() );
+        if( entry.bytes() > maxBytes ) {
+            return;
+        }
+        entries.put( key, entry );
+        currentBytes += entry.bytes();
+
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while( currentBytes > maxBytes && iterator.hasNext() ) {
+            Map.Entry<Key, Entry> eldest = iterator.next();
+            if( eldest.getKey().equals( key ) ) {
+                continue;
+            }
+            currentBytes -= eldest.getValue().bytes();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * 清空缓存（统计计数保留）
+     */
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    /**
+     * 获取缓存统计信息
+     */
+    public synchronized Stats stats() {
+        return new Stats( hits, misses, evictions, entries.size(), currentBytes, maxBytes );
+    }
+
+    /**
+     * 移除同一路径的旧版本缓存
+     */
+    private void removeStaleVersions( String path ) {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while( iterator.hasNext() ) {
+            Map.Entry<Key, Entry> entry = iterator.next();
+            if( entry.getKey().path().equals( path ) ) {
+                currentBytes -= entry.getValue().bytes();
+                iterator.remove();
+            }
+        }
+    }
+
+    private static boolean covers( Entry entry, Collection<String> columns ) {
+        if( columns == null ) {
+            return entry.complete();
+        }
+        for( String column : columns ) {
+            if( !entry.table().hasColumn( column ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Key keyOf( Path source ) {
+        try {
+            Path absolute = source.toAbsolutePath().normalize();
+            return new Key( absolute.toString(), Files.size( absolute ), Files.getLastModifiedTime( absolute ).toMillis() );
+        } catch( IOException e ) {
+            return null;
+        }
+    }
+
+    private static long defaultMaxBytes() {
+        String value = System.getProperty( MAX_BYTES_PROPERTY );
+        if( value != null ) {
+            try {
+                return Long.parseLong( value );
+            } catch( NumberFormatException e ) {
+                // 使用默认容量
+            }
+        }
+        return Runtime.getRuntime().maxMemory() / 4;
+    }
+
+    /**
+     * 缓存统计信息
+     *
+     * @param hits           命中次数
+     * @param misses         未命中次数
+     * @param evictions      因容量不足被淘汰的条目数
+     * @param entryCount     当前条目数
+     * @param estimatedBytes 当前条目估算占用的字节数
+     * @param maxBytes       容量上限（字节）
+     */
+    public record Stats(
+        long hits,
+        long misses,
+        long evictions,
+        int entryCount,
+        long estimatedBytes,
+        long maxBytes
+    ) {
+    }
+
+    private record Key( String path, long size, long lastModified ) {
+    }
+
+    private record Entry( ColumnarTable table, boolean complete, long bytes ) {
+    }
+}
@@ -12,6 +12,8 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
 import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.FlowLayout;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
@@ -142,6 +144,34 @@ public class ImageSettingsPanel extends JPanel implements LocaleChangeListener {
         heightUnitCombo.setSelectedItem( selectedHeight );
     }
 
+    /**
+     * Set listener notified whenever any setting is edited
+     */
+    public void setOnChangeListener( Runnable listener ) {
+        DocumentListener documentListener = new DocumentListener() {
+            @Override
+            public void insertUpdate( DocumentEvent e ) {
+                listener.run();
+            }
+
+            @Override
+            public void removeUpdate( DocumentEvent e ) {
+                listener.run();
+            }
+
+            @Override
+            public void changedUpdate( DocumentEvent e ) {
+                listener.run();
+            }
+        };
+        widthField.getDocument().addDocumentListener( documentListener );
+        heightField.getDocument().addDocumentListener( documentListener );
+        titleField.getDocument().addDocumentListener( documentListener );
+        widthUnitCombo.addActionListener( e -> listener.run() );
+        heightUnitCombo.addActionListener( e -> listener.run() );
+        showLegendCheckBox.addActionListener( e -> listener.run() );
+    }
+
     /**
      * Get image settings
      */
@@ -1,9 +1,14 @@
 package com.gwill.tools.graphics.excelcombochartplotter.ui;
 
+import com.gwill.tools.graphics.excelcombochartplotter.data.CoercionReport;
+import com.gwill.tools.graphics.excelcombochartplotter.data.ColumnarTable;
+import com.gwill.tools.graphics.excelcombochartplotter.data.SheetHeader;
 import com.gwill.tools.graphics.excelcombochartplotter.i18n.I18nManager;
 import com.gwill.tools.graphics.excelcombochartplotter.i18n.I18nManager.LocaleChangeListener;
 import com.gwill.tools.graphics.excelcombochartplotter.model.ChartConfiguration;
 import com.gwill.tools.graphics.excelcombochartplotter.model.ImageSettings;
+import com.gwill.tools.graphics.excelcombochartplotter.model.RenderOptions;
+import com.gwill.tools.graphics.excelcombochartplotter.model.RenderStage;
 import com.gwill.tools.graphics.excelcombochartplotter.model.YAxisSeriesConfig;
 import com.gwill.tools.graphics.excelcombochartplotter.service.ChartGenerationService;
 import com.gwill.tools.graphics.excelcombochartplotter.service.ExcelDataService;
@@ -16,7 +21,9 @@ import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JSplitPane;
 import javax.swing.JTextField;
+import javax.swing.SwingWorker;
 import javax.swing.border.TitledBorder;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.BorderLayout;
@@ -26,19 +33,27 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Application main window
  */
 public class MainFrame extends JFrame implements LocaleChangeListener {
 
-    private static final int DEFAULT_WIDTH = 800;
+    private static final int DEFAULT_WIDTH = 1200;
     private static final int DEFAULT_HEIGHT = 700;
+    private static final double BYTES_PER_MB = 1024.0 * 1024.0;
 
     private final ExcelDataService excelDataService;
     private final ChartGenerationService chartGenerationService;
@@ -61,14 +76,26 @@ public class MainFrame extends JFrame implements LocaleChangeListener {
     private XAxisPanel xAxisPanel;
     private YAxisPanel yAxisPanel;
     private ImageSettingsPanel imageSettingsPanel;
+    private ProgressPanel progressPanel;
+    private PreviewPanel previewPanel;
+
+    // Background tasks in progress, or null
+    private LoadWorker loadWorker;
+    private GenerateWorker generateWorker;
+
+    // Number of the latest generation run; only that run may replace the output file
+    private final Object outputLock = new Object();
+    private long generationCounter;
+    private long latestGeneration;
 
     // Column name tracking
+    private String loadedFilePath;
     private List<String> allColumnNames = new ArrayList<>();
     private Set<String> unselectedColumnNames = new LinkedHashSet<>();
 
     public MainFrame() {
         this.excelDataService = new ExcelDataService();
-        this.chartGenerationService = new ChartGenerationService( excelDataService );
+        this.chartGenerationService = new ChartGenerationService();
         this.i18n = I18nManager.getInstance();
 
         initializeUI();
@@ -92,9 +119,12 @@ public class MainFrame extends JFrame implements LocaleChangeListener {
         JPanel filePanel = createFilePanel();
         mainPanel.add( filePanel, BorderLayout.NORTH );
 
-        // Center: configuration area
+        // Center: configuration area and live preview
         JPanel configPanel = createConfigPanel();
-        mainPanel.add( configPanel, BorderLayout.CENTER );
+        previewPanel = createPreviewPanel();
+        JSplitPane splitPane = new JSplitPane( JSplitPane.HORIZONTAL_SPLIT, configPanel, previewPanel );
+        splitPane.setResizeWeight( 0.4 );
+        mainPanel.add( splitPane, BorderLayout.CENTER );
 
         // Bottom: action area
         actionPanel = createActionPanel();
@@ -117,6 +147,7 @@ public class MainFrame extends JFrame implements LocaleChangeListener {
             if( newSelection != null && !newSelection.isBlank() ) {
                 unselectedColumnNames.remove( newSelection );
             }
+            previewPanel.requestRender();
         } );
 
         // When Y-axis selection changes, update unselectedColumnNames and sync X-axis ComboBox
@@ -137,6 +168,18 @@ public class MainFrame extends JFrame implements LocaleChangeListener {
         yAxisPanel.setUnselectedColumnsSupplier( () -> new ArrayList<>( unselectedColumnNames ) );
     }
 
+    /**
+     * Create the preview and re-render it whenever the chart configuration changes
+     */
+    private PreviewPanel createPreviewPanel() {
+        PreviewPanel panel = new PreviewPanel( excelDataService, chartGenerationService );
+        panel.setFilePathSupplier( () -> loadedFilePath );
+        panel.setConfigurationSupplier( this::currentConfiguration );
+        yAxisPanel.setOnConfigChangeListener( panel::requestRender );
+        imageSettingsPanel.setOnChangeListener( panel::requestRender );
+        return panel;
+    }
+
     private JPanel createFilePanel() {
         JPanel panel = new JPanel( new GridBagLayout() );
         panel.setBorder( BorderFactory.createEmptyBorder( 0, 0, 10, 0 ) );
@@ -187,6 +230,18 @@ public class MainFrame extends JFrame implements LocaleChangeListener {
         browseOutputButton.addActionListener( e -> selectOutputFile() );
         panel.add( browseOutputButton, gbc );
 
+        // Progress row for loading and generation (hidden while idle)
+        gbc.gridx = 0;
+        gbc.gridy = 2;
+        gbc.gridwidth = 4;
+        gbc.weightx = 1.0;
+        progressPanel = new ProgressPanel();
+        progressPanel.setOnCancel( () -> {
+            cancelLoad();
+            cancelGeneration();
+        } );
+        panel.add( progressPanel, gbc );
+
         return panel;
     }
 
@@ -324,47 +379,121 @@ public class MainFrame extends JFrame implements LocaleChangeListener {
             return;
         }
 
-        try {
-            excelDataService.loadData( filePath );
-            List<String> columnNames = excelDataService.getColumnNames();
+        // Only the header is read here, on a background thread; cell data is decoded for the charted columns on demand
+        cancelLoad();
+        loadWorker = new LoadWorker( filePath );
+        setLoading( true );
+        progressPanel.start( () -> i18n.getString( "load.progress.header" ) );
+        loadWorker.execute();
+    }
 
-            if( columnNames.size() < 2 ) {
-                JOptionPane.showMessageDialog( this,
-                    i18n.getString( "msg.min.columns.error", columnNames.size() ),
-                    i18n.getString( "dialog.error" ),
-                    JOptionPane.ERROR_MESSAGE );
-                return;
+    /**
+     * Cancel the background header scan, if any
+     */
+    private void cancelLoad() {
+        if( loadWorker != null ) {
+            loadWorker.cancel( true );
+            loadWorker = null;
+            progressPanel.finish();
+            setLoading( false );
+        }
+    }
+
+    /**
+     * Cancel the background generation, if any; its output is never written
+     */
+    private void cancelGeneration() {
+        if( generateWorker != null ) {
+            generateWorker.cancel( true );
+            generateWorker = null;
+            // Invalidate the run in case it is already past its last cancellation check
+            synchronized( outputLock ) {
+                latestGeneration = ++generationCounter;
             }
+            progressPanel.finish();
+            loadDataButton.setEnabled( true );
+        }
+    }
 
-            // Save all column names
-            allColumnNames = new ArrayList<>( columnNames );
+    /**
+     * Replace the output file with a finished render unless a newer run has started meanwhile
+     *
+     * @return whether the output was replaced
+     */
+    private boolean commitOutput( Path temp, Path target, long generation ) throws IOException {
+        synchronized( outputLock ) {
+            if( generation != latestGeneration ) {
+                return false;
+            }
+            try {
+                Files.move( temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+            } catch( AtomicMoveNotSupportedException e ) {
+                Files.move( temp, target, StandardCopyOption.REPLACE_EXISTING );
+            }
+            return true;
+        }
+    }
 
-            // Initialize unselected column names (first column defaults to X-axis)
-            unselectedColumnNames.clear();
-            unselectedColumnNames.addAll( columnNames.subList( 1, columnNames.size() ) );
+    private String loadProgressMessage( LoadProgress progress ) {
+        if( progress.totalBytes() > 0 ) {
+            return i18n.getString( "load.progress.rows", progress.rows(),
+                String.format( "%.1f", progress.bytesRead() / BYTES_PER_MB ), String.format( "%.1f", progress.totalBytes() / BYTES_PER_MB ) );
+        }
+        return i18n.getString( "load.progress.rows.unknown", progress.rows() );
+    }
 
-            // Update X-axis panel (auto-selects first item)
-            xAxisPanel.setAllColumnNames( columnNames );
+    private static double loadProgressFraction( LoadProgress progress ) {
+        return progress.totalBytes() > 0 ? (double) progress.bytesRead() / progress.totalBytes() : -1;
+    }
 
-            // Clear Y-axis panel
-            yAxisPanel.clear();
+    private void setLoading( boolean loading ) {
+        loadDataButton.setEnabled( !loading );
+        generateButton.setEnabled( !loading );
+    }
 
-            JOptionPane.showMessageDialog( this,
-                i18n.getString( "msg.load.success", excelDataService.getData().size(), columnNames.size() ),
-                i18n.getString( "dialog.success" ),
-                JOptionPane.INFORMATION_MESSAGE );
+    /**
+     * Fill the axis panels from the sheet header
+     */
+    private void applyHeader( String filePath, SheetHeader header ) {
+        List<String> columnNames = header.columnNames();
 
-        } catch( Exception e ) {
-            JOptionPane.showMessageDialog( this,
-                i18n.getString( "msg.load.error", e.getMessage() ),
-                i18n.getString( "dialog.error" ),
-                JOptionPane.ERROR_MESSAGE );
+        // Drop data of the previously loaded file
+        excelDataService.clear();
+        loadedFilePath = filePath;
+
+        // Save all column names
+        allColumnNames = new ArrayList<>( columnNames );
+
+        // Initialize unselected column names (first column defaults to X-axis)
+        unselectedColumnNames.clear();
+        unselectedColumnNames.addAll( columnNames.subList( 1, columnNames.size() ) );
+
+        // Update X-axis panel (auto-selects first item)
+        xAxisPanel.setAllColumnNames( columnNames );
+
+        // Clear Y-axis panel
+        yAxisPanel.clear();
+        previewPanel.reset();
+        previewPanel.requestRender();
+    }
+
+    /**
+     * Build the chart configuration from the current selections
+     *
+     * @return the configuration, or null if no X-axis column or Y-axis series is selected
+     */
+    private ChartConfiguration currentConfiguration() {
+        String xAxisColumn = xAxisPanel.getSelectedColumn();
+        List<YAxisSeriesConfig> yAxisSeries = yAxisPanel.getSeriesConfigs();
+        if( xAxisColumn == null || xAxisColumn.isBlank() || yAxisSeries.isEmpty() ) {
+            return null;
         }
+        return new ChartConfiguration( xAxisColumn, yAxisSeries, imageSettingsPanel.getImageSettings() );
     }
 
     private void generateChart() {
-        // Validate data is loaded
-        if( !excelDataService.isDataLoaded() ) {
+        // Validate columns are loaded
+        if( loadedFilePath == null ) {
             JOptionPane.showMessageDialog( this,
                 i18n.getString( "msg.load.data.first" ),
                 i18n.getString( "dialog.warning" ),
@@ -405,21 +534,174 @@ public class MainFrame extends JFrame implements LocaleChangeListener {
         // Get image settings
         ImageSettings imageSettings = imageSettingsPanel.getImageSettings();
 
-        // Create configuration and generate chart
+        // Create configuration and generate chart in the background; a new run supersedes the running one
         ChartConfiguration config = new ChartConfiguration( xAxisColumn, yAxisSeries, imageSettings );
 
-        try {
-            chartGenerationService.generateChart( config, outputPath );
-            JOptionPane.showMessageDialog( this,
-                i18n.getString( "msg.generate.success", outputPath ),
-                i18n.getString( "dialog.success" ),
-                JOptionPane.INFORMATION_MESSAGE );
-        } catch( Exception e ) {
-            JOptionPane.showMessageDialog( this,
-                i18n.getString( "msg.generate.error", e.getMessage() ),
-                i18n.getString( "dialog.error" ),
-                JOptionPane.ERROR_MESSAGE );
-            e.printStackTrace();
+        cancelGeneration();
+        long generation;
+        synchronized( outputLock ) {
+            generation = ++generationCounter;
+            latestGeneration = generation;
         }
+        generateWorker = new GenerateWorker( loadedFilePath, config, outputPath, generation );
+        loadDataButton.setEnabled( false );
+        progressPanel.start( () -> i18n.getString( RenderStage.EXTRACT.getI18nKey() ) );
+        generateWorker.execute();
+    }
+
+    /**
+     * Reads the sheet header off the event dispatch thread. Cell data is not decoded here; previews and
+     * generation decode just the columns they chart, in their own background workers.
+     */
+    private final class LoadWorker extends SwingWorker<SheetHeader, Void> {
+
+        private final String filePath;
+
+        LoadWorker( String filePath ) {
+            this.filePath = filePath;
+        }
+
+        @Override
+        protected SheetHeader doInBackground() throws Exception {
+            return excelDataService.scanHeader( filePath );
+        }
+
+        @Override
+        protected void done() {
+            if( loadWorker != this || isCancelled() ) {
+                return;
+            }
+            loadWorker = null;
+            progressPanel.finish();
+            setLoading( false );
+
+            try {
+                SheetHeader header = get();
+                List<String> columnNames = header.columnNames();
+                if( columnNames.size() < 2 ) {
+                    JOptionPane.showMessageDialog( MainFrame.this,
+                        i18n.getString( "msg.min.columns.error", columnNames.size() ),
+                        i18n.getString( "dialog.error" ),
+                        JOptionPane.ERROR_MESSAGE );
+                    return;
+                }
+                applyHeader( filePath, header );
+
+                String message = header.isRowCountKnown()
+                    ? i18n.getString( "msg.load.success", header.rowCount(), columnNames.size() )
+                    : i18n.getString( "msg.load.success.columns", columnNames.size() );
+                JOptionPane.showMessageDialog( MainFrame.this,
+                    message,
+                    i18n.getString( "dialog.success" ),
+                    JOptionPane.INFORMATION_MESSAGE );
+            } catch( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+            } catch( ExecutionException e ) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                JOptionPane.showMessageDialog( MainFrame.this,
+                    i18n.getString( "msg.load.error", cause.getMessage() ),
+                    i18n.getString( "dialog.error" ),
+                    JOptionPane.ERROR_MESSAGE );
+            }
+        }
+    }
+
+    /**
+     * Runs the staged generation off the event dispatch thread into a temporary file next to the output,
+     * then moves it over the output if this is still the latest run. Cancelling interrupts the current stage.
+     * Yields the per-series coercion reports, or null if a later run superseded this one.
+     */
+    private final class GenerateWorker extends SwingWorker<Map<String, CoercionReport>, Object> {
+
+        private final String filePath;
+        private final ChartConfiguration configuration;
+        private final String outputPath;
+        private final long generation;
+
+        GenerateWorker( String filePath, ChartConfiguration configuration, String outputPath, long generation ) {
+            this.filePath = filePath;
+            this.configuration = configuration;
+            this.outputPath = outputPath;
+            this.generation = generation;
+        }
+
+        @Override
+        protected Map<String, CoercionReport> doInBackground() throws Exception {
+            ColumnarTable table = excelDataService.ensureLoaded( filePath, configuration.getReferencedColumns(),
+                ( rows, bytesRead, totalBytes ) -> publish( new LoadProgress( rows, bytesRead, totalBytes ) ) );
+
+            Path target = Path.of( outputPath ).toAbsolutePath();
+            Path temp = Files.createTempFile( target.getParent(), ".chart-", ".png.tmp" );
+            try {
+                Map<String, CoercionReport> reports = chartGenerationService.generateChart( table, configuration, temp.toString(),
+                    RenderOptions.defaults(), ( stage, fraction ) -> publish( new StageProgress( stage, fraction ) ) );
+                return commitOutput( temp, target, generation ) ? reports : null;
+            } finally {
+                Files.deleteIfExists( temp );
+            }
+        }
+
+        @Override
+        protected void process( List<Object> chunks ) {
+            if( generateWorker != this ) {
+                return;
+            }
+            Object latest = chunks.getLast();
+            if( latest instanceof LoadProgress progress ) {
+                progressPanel.update( () -> loadProgressMessage( progress ), loadProgressFraction( progress ) );
+            } else if( latest instanceof StageProgress progress ) {
+                // Stages are weighted equally on the bar
+                double overall = ( progress.stage().ordinal() + progress.fraction() ) / RenderStage.values().length;
+                progressPanel.update( () -> i18n.getString( progress.stage().getI18nKey() ), overall );
+            }
+        }
+
+        @Override
+        protected void done() {
+            if( generateWorker != this || isCancelled() ) {
+                return;
+            }
+            generateWorker = null;
+            progressPanel.finish();
+            loadDataButton.setEnabled( true );
+
+            try {
+                Map<String, CoercionReport> reports = get();
+                if( reports != null ) {
+                    JOptionPane.showMessageDialog( MainFrame.this,
+                        i18n.getString( "msg.generate.success", outputPath ) + gapSummary( reports ),
+                        i18n.getString( "dialog.success" ),
+                        JOptionPane.INFORMATION_MESSAGE );
+                }
+            } catch( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+            } catch( ExecutionException e ) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                JOptionPane.showMessageDialog( MainFrame.this,
+                    i18n.getString( "msg.generate.error", cause.getMessage() ),
+                    i18n.getString( "dialog.error" ),
+                    JOptionPane.ERROR_MESSAGE );
+                cause.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * One line per series that has blank or unparseable cells, each prefixed with a line break; empty if all cells are numbers
+     */
+    private String gapSummary( Map<String, CoercionReport> reports ) {
+        StringBuilder summary = new StringBuilder();
+        reports.forEach( ( column, report ) -> {
+            if( !report.isClean() ) {
+                summary.append( '\n' ).append( i18n.getString( "msg.generate.gaps", column, report.blank(), report.rejected() ) );
+            }
+        } );
+        return summary.toString();
+    }
+
+    private record LoadProgress( int rows, long bytesRead, long totalBytes ) {
+    }
+
+    private record StageProgress( RenderStage stage, double fraction ) {
     }
 }
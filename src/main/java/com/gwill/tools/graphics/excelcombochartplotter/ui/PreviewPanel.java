@@ -0,0 +1,248 @@
+package com.gwill.tools.graphics.excelcombochartplotter.ui;
+
+import com.gwill.tools.graphics.excelcombochartplotter.chart.CategorySeries;
+import com.gwill.tools.graphics.excelcombochartplotter.data.ColumnarTable;
+import com.gwill.tools.graphics.excelcombochartplotter.i18n.I18nManager;
+import com.gwill.tools.graphics.excelcombochartplotter.i18n.I18nManager.LocaleChangeListener;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ChartConfiguration;
+import com.gwill.tools.graphics.excelcombochartplotter.model.RenderOptions;
+import com.gwill.tools.graphics.excelcombochartplotter.model.YAxisSeriesConfig;
+import com.gwill.tools.graphics.excelcombochartplotter.service.ChartGenerationService;
+import com.gwill.tools.graphics.excelcombochartplotter.service.ExcelDataService;
+
+import javax.swing.BorderFactory;
+import javax.swing.JPanel;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.border.TitledBorder;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Insets;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Live chart preview. Configuration changes and resizes are debounced, then the chart is rendered in the
+ * background at the panel's size. The background worker first decodes the charted columns if they are not
+ * loaded yet, so the workbook is parsed lazily and only for the columns in use. Extracted series data is
+ * reused as long as the data snapshot and the X-axis column stay the same and it covers all charted columns,
+ * so changing chart types, axis assignment, title or legend only re-renders.
+ */
+public class PreviewPanel extends JPanel implements LocaleChangeListener {
+
+    private static final int DEBOUNCE_MILLIS = 250;
+    private static final int MIN_SIZE = 32;
+
+    // Previews trade antialiasing, point markers and line detail beyond the pixel width for speed
+    private static final RenderOptions PREVIEW_OPTIONS = RenderOptions.draft();
+
+    private final I18nManager i18n;
+    private final ExcelDataService excelDataService;
+    private final ChartGenerationService chartGenerationService;
+    private final Timer debounceTimer;
+
+    private Supplier<ChartConfiguration> configurationSupplier = () -> null;
+    private Supplier<String> filePathSupplier = () -> null;
+
+    // Rendered image and the request it was rendered for
+    private BufferedImage image;
+    private PreviewRequest renderedRequest;
+    private String errorMessage;
+
+    private PreviewWorker worker;
+
+    // Series data of the last extraction; written by background workers
+    private volatile Extraction extraction;
+
+    public PreviewPanel( ExcelDataService excelDataService, ChartGenerationService chartGenerationService ) {
+        this.i18n = I18nManager.getInstance();
+        this.excelDataService = excelDataService;
+        this.chartGenerationService = chartGenerationService;
+
+        setBorder( BorderFactory.createTitledBorder( i18n.getString( "preview.title" ) ) );
+        setPreferredSize( new Dimension( 400, 300 ) );
+        setBackground( Color.WHITE );
+
+        debounceTimer = new Timer( DEBOUNCE_MILLIS, e -> render() );
+        debounceTimer.setRepeats( false );
+
+        addComponentListener( new ComponentAdapter() {
+            @Override
+            public void componentResized( ComponentEvent e ) {
+                requestRender();
+            }
+        } );
+
+        // Register for locale changes
+        i18n.addLocaleChangeListener( this );
+    }
+
+    @Override
+    public void onLocaleChanged( Locale newLocale ) {
+        ( (TitledBorder) getBorder() ).setTitle( i18n.getString( "preview.title" ) );
+        repaint();
+    }
+
+    /**
+     * Set supplier of the current chart configuration; it returns null while the configuration is incomplete
+     */
+    public void setConfigurationSupplier( Supplier<ChartConfiguration> supplier ) {
+        this.configurationSupplier = supplier;
+    }
+
+    /**
+     * Set supplier of the path of the Excel file whose header was loaded; it returns null while no file is loaded
+     */
+    public void setFilePathSupplier( Supplier<String> supplier ) {
+        this.filePathSupplier = supplier;
+    }
+
+    /**
+     * Schedule a re-render; calls within the debounce delay are coalesced
+     */
+    public void requestRender() {
+        debounceTimer.restart();
+    }
+
+    /**
+     * Drop the rendered preview and the extracted series data, e.g. after a file was (re)loaded
+     */
+    public void reset() {
+        cancelWorker();
+        image = null;
+        renderedRequest = null;
+        errorMessage = null;
+        extraction = null;
+        repaint();
+    }
+
+    private void render() {
+        Insets insets = getInsets();
+        int width = getWidth() - insets.left - insets.right;
+        int height = getHeight() - insets.top - insets.bottom;
+        ChartConfiguration configuration = configurationSupplier.get();
+        String filePath = filePathSupplier.get();
+
+        if( configuration == null || filePath == null || width < MIN_SIZE || height < MIN_SIZE ) {
+            cancelWorker();
+            image = null;
+            renderedRequest = null;
+            errorMessage = null;
+            repaint();
+            return;
+        }
+
+        PreviewRequest request = new PreviewRequest( filePath, configuration, width, height );
+        if( request.equals( renderedRequest ) || worker != null && request.equals( worker.request ) ) {
+            return;
+        }
+        cancelWorker();
+        worker = new PreviewWorker( request );
+        worker.execute();
+        repaint();
+    }
+
+    private void cancelWorker() {
+        if( worker != null ) {
+            worker.cancel( true );
+            worker = null;
+        }
+    }
+
+    /**
+     * Return extracted series data for the configuration, extracting again only when the cached data does not cover it
+     */
+    private CategorySeries seriesFor( ColumnarTable table, ChartConfiguration configuration ) {
+        List<String> columns = configuration.yAxisSeries().stream().map( YAxisSeriesConfig::columnName ).toList();
+        Extraction cached = extraction;
+        if( cached != null && cached.table() == table && cached.xAxisColumn().equals( configuration.xAxisColumn() )
+            && cached.series().values().keySet().containsAll( columns ) ) {
+            return cached.series();
+        }
+        CategorySeries series = ChartGenerationService.extractSeries( table, configuration );
+        extraction = new Extraction( table, configuration.xAxisColumn(), series );
+        return series;
+    }
+
+    @Override
+    protected void paintComponent( Graphics g ) {
+        super.paintComponent( g );
+        Insets insets = getInsets();
+        if( image != null ) {
+            g.drawImage( image, insets.left, insets.top, null );
+            return;
+        }
+
+        String message;
+        if( errorMessage != null ) {
+            message = i18n.getString( "preview.error", errorMessage );
+        } else if( worker != null ) {
+            message = i18n.getString( "preview.loading" );
+        } else {
+            message = i18n.getString( "preview.empty" );
+        }
+        FontMetrics metrics = g.getFontMetrics();
+        g.setColor( Color.GRAY );
+        g.drawString( message,
+            Math.max( insets.left, ( getWidth() - metrics.stringWidth( message ) ) / 2 ),
+            getHeight() / 2 );
+    }
+
+    /**
+     * Decodes the charted columns if needed and renders one preview off the event dispatch thread;
+     * cancelling interrupts the decode
+     */
+    private final class PreviewWorker extends SwingWorker<BufferedImage, Void> {
+
+        private final PreviewRequest request;
+
+        PreviewWorker( PreviewRequest request ) {
+            this.request = request;
+        }
+
+        @Override
+        protected BufferedImage doInBackground() throws Exception {
+            ChartConfiguration configuration = request.configuration();
+            ColumnarTable table = excelDataService.ensureLoaded( request.filePath(), configuration.getReferencedColumns() );
+            CategorySeries series = seriesFor( table, configuration );
+            return chartGenerationService.renderPreview( series, configuration,
+                request.width(), request.height(), PREVIEW_OPTIONS );
+        }
+
+        @Override
+        protected void done() {
+            if( worker != this || isCancelled() ) {
+                return;
+            }
+            worker = null;
+            renderedRequest = request;
+            try {
+                image = get();
+                errorMessage = null;
+            } catch( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+            } catch( ExecutionException e ) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                image = null;
+                errorMessage = cause.getMessage();
+            }
+            repaint();
+        }
+    }
+
+    /**
+     * Everything a preview depends on; reloading the file goes through {@link #reset()}
+     */
+    private record PreviewRequest( String filePath, ChartConfiguration configuration, int width, int height ) {
+    }
+
+    private record Extraction( ColumnarTable table, String xAxisColumn, CategorySeries series ) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.gwill.tools.graphics.excelcombochartplotter.ui;
+
+import com.gwill.tools.graphics.excelcombochartplotter.i18n.I18nManager;
+import com.gwill.tools.graphics.excelcombochartplotter.i18n.I18nManager.LocaleChangeListener;
+
+import javax.swing.JButton;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import java.awt.BorderLayout;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Progress bar with a cancel button, shown while a background task (loading or generation) runs
+ */
+public class ProgressPanel extends JPanel implements LocaleChangeListener {
+
+    private static final int MAXIMUM = 1000;
+
+    private final I18nManager i18n;
+    private final JProgressBar progressBar;
+    private final JButton cancelButton;
+
+    // Produces the progress text in the current locale
+    private Supplier<String> message = () -> "";
+
+    public ProgressPanel() {
+        this.i18n = I18nManager.getInstance();
+
+        setLayout( new BorderLayout( 10, 0 ) );
+
+        progressBar = new JProgressBar( 0, MAXIMUM );
+        progressBar.setStringPainted( true );
+        add( progressBar, BorderLayout.CENTER );
+
+        cancelButton = new JButton( i18n.getString( "progress.cancel" ) );
+        add( cancelButton, BorderLayout.EAST );
+
+        setVisible( false );
+
+        // Register for locale changes
+        i18n.addLocaleChangeListener( this );
+    }
+
+    @Override
+    public void onLocaleChanged( Locale newLocale ) {
+        cancelButton.setText( i18n.getString( "progress.cancel" ) );
+        progressBar.setString( message.get() );
+    }
+
+    /**
+     * Set the action run when the cancel button is pressed
+     */
+    public void setOnCancel( Runnable onCancel ) {
+        cancelButton.addActionListener( e -> onCancel.run() );
+    }
+
+    /**
+     * Show the panel with an indeterminate bar
+     *
+     * @param message progress text, re-evaluated when the locale changes
+     */
+    public void start( Supplier<String> message ) {
+        update( message, -1 );
+        setVisible( true );
+    }
+
+    /**
+     * Update the progress text and bar
+     *
+     * @param message  progress text, re-evaluated when the locale changes
+     * @param fraction completed fraction (0 to 1), or negative if unknown
+     */
+    public void update( Supplier<String> message, double fraction ) {
+        this.message = message;
+        progressBar.setIndeterminate( fraction < 0 );
+        if( fraction >= 0 ) {
+            progressBar.setValue( (int) Math.round( Math.min( 1.0, fraction ) * MAXIMUM ) );
+        }
+        progressBar.setString( message.get() );
+    }
+
+    /**
+     * Hide the panel
+     */
+    public void finish() {
+        setVisible( false );
+    }
+}
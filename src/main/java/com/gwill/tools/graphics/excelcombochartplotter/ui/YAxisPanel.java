@@ -43,6 +43,7 @@ public class YAxisPanel extends JPanel implements LocaleChangeListener {
     private final JButton addButton;
     private BiConsumer<String, String> onSelectionChangeListener;
     private Supplier<List<String>> unselectedColumnsSupplier;
+    private Runnable onConfigChangeListener;
 
     public YAxisPanel() {
         this.i18n = I18nManager.getInstance();
@@ -61,6 +62,11 @@ public class YAxisPanel extends JPanel implements LocaleChangeListener {
         tableModel = new YAxisSeriesTableModel();
         table = new JTable( tableModel );
         table.setRowHeight( 28 );
+        tableModel.addTableModelListener( e -> {
+            if( onConfigChangeListener != null ) {
+                onConfigChangeListener.run();
+            }
+        } );
 
         setupTableColumns();
 
@@ -124,6 +130,13 @@ public class YAxisPanel extends JPanel implements LocaleChangeListener {
         this.onSelectionChangeListener = listener;
     }
 
+    /**
+     * Set listener notified whenever a series is added, removed or edited
+     */
+    public void setOnConfigChangeListener( Runnable listener ) {
+        this.onConfigChangeListener = listener;
+    }
+
     /**
      * Get currently selected Y-axis column names
      */
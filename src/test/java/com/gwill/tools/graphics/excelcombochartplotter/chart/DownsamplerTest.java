@@ -0,0 +1,96 @@
+package com.gwill.tools.graphics.excelcombochartplotter.chart;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DownsamplerTest {
+
+    @Test
+    void minMaxKeepsRealExtremesNextToGaps() {
+        // 每个桶10个点，取值都在100以上，中间夹着缺失值
+        double[] values = new double[100];
+        for( int i = 0; i < values.length; i++ ) {
+            values[i] = 150 + 10 * Math.sin( i / 3.0 );
+        }
+        values[13] = 300;
+        values[14] = Double.NaN;
+        values[15] = Double.NaN;
+        values[16] = 105;
+        values[41] = Double.NaN;
+        values[42] = 90;
+
+        BitSet keep = new BitSet();
+        Downsampler.minMax( values, 10, keep );
+
+        assertTrue( keep.get( 13 ) );
+        assertTrue( keep.get( 16 ) );
+        assertTrue( keep.get( 42 ) );
+        assertFalse( keep.get( 14 ) );
+        assertFalse( keep.get( 15 ) );
+        assertFalse( keep.get( 41 ) );
+        for( int index : keep.stream().toArray() ) {
+            assertFalse( Double.isNaN( values[index] ), "kept gap at " + index );
+        }
+    }
+
+    @Test
+    void minMaxKeepsBucketsThatAreEntirelyMissing() {
+        double[] values = new double[40];
+        Arrays.fill( values, 5 );
+        Arrays.fill( values, 10, 20, Double.NaN );
+
+        BitSet keep = new BitSet();
+        Downsampler.minMax( values, 4, keep );
+
+        assertTrue( keep.get( 10 ) );
+        assertEquals( 1, keep.get( 10, 20 ).cardinality() );
+    }
+
+    @Test
+    void lttbKeepsRealPeaksNextToGaps() {
+        double[] values = new double[1000];
+        for( int i = 0; i < values.length; i++ ) {
+            values[i] = 100 + ( i % 7 );
+        }
+        // 峰值紧挨着缺失值；缺失值若按0处理会被选成三角形的顶点
+        for( int i = 300; i < 310; i++ ) {
+            values[i] = Double.NaN;
+        }
+        values[310] = 500;
+        values[620] = -200;
+        values[621] = Double.NaN;
+        values[622] = Double.NaN;
+
+        BitSet keep = new BitSet();
+        Downsampler.lttb( values, 50, keep );
+
+        assertTrue( keep.get( 310 ) );
+        assertTrue( keep.get( 620 ) );
+        assertTrue( keep.get( 0 ) );
+        assertTrue( keep.get( 999 ) );
+        for( int index : keep.stream().toArray() ) {
+            assertFalse( Double.isNaN( values[index] ), "kept gap at " + index );
+        }
+    }
+
+    @Test
+    void lttbKeepsBucketsThatAreEntirelyMissing() {
+        double[] values = new double[1000];
+        Arrays.fill( values, 1 );
+        Arrays.fill( values, 0, 5, Double.NaN );
+        Arrays.fill( values, 400, 500, Double.NaN );
+
+        BitSet keep = new BitSet();
+        Downsampler.lttb( values, 20, keep );
+
+        // 约每53个点一个桶，400-499之间至少有一个完整的缺失桶
+        assertTrue( keep.get( 400, 500 ).cardinality() > 0 );
+        assertEquals( 20, keep.cardinality() );
+    }
+}
@@ -0,0 +1,234 @@
+package com.gwill.tools.graphics.excelcombochartplotter.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarDiskCacheTest {
+
+    private static final long ROWS = 0x5EED;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void roundTripsNumericAndTextColumns() throws IOException {
+        Path source = source( "book.xlsx", "v1" );
+        ColumnarDiskCache cache = cache();
+        ColumnarTable table = table( "x", "y", "name" );
+
+        cache.store( source, table, true );
+        ColumnarTable loaded = cache.load( source, null );
+
+        assertNotNull( loaded );
+        assertEquals( table.getColumnNames(), loaded.getColumnNames() );
+        assertEquals( table.getRowCount(), loaded.getRowCount() );
+        for( String column : table.getColumnNames() ) {
+            assertEquals( values( table.getColumn( column ) ), values( loaded.getColumn( column ) ), column );
+        }
+        assertInstanceOf( NumericColumn.class, loaded.getColumn( "x" ) );
+        assertInstanceOf( StringColumn.class, loaded.getColumn( "name" ) );
+        assertTrue( loaded.getColumn( "y" ).isNull( 1 ) );
+        assertEquals( table.fingerprint( table.getColumnNames() ), loaded.fingerprint( table.getColumnNames() ) );
+        assertTrue( loaded.hasSameRows( table ) );
+    }
+
+    @Test
+    void loadsOnlyRequestedColumns() throws IOException {
+        Path source = source( "book.xlsx", "v1" );
+        ColumnarDiskCache cache = cache();
+        cache.store( source, table( "x", "y", "name" ), true );
+
+        ColumnarTable loaded = cache.load( source, List.of( "name", "x" ) );
+
+        assertNotNull( loaded );
+        assertEquals( List.of( "x", "name" ), loaded.getColumnNames() );
+        assertNull( cache.load( source, List.of( "x", "missing" ) ) );
+    }
+
+    @Test
+    void partialTablesAreMergedButNeverReplaceACompleteOne() throws IOException {
+        Path source = source( "book.xlsx", "v1" );
+        ColumnarDiskCache cache = cache();
+
+        cache.store( source, table( "x" ), false );
+        assertNull( cache.load( source, null ) );
+        cache.store( source, table( "name" ), false );
+        ColumnarTable merged = cache.load( source, List.of( "x", "name" ) );
+        assertNotNull( merged );
+        assertNull( cache.load( source, null ) );
+
+        cache.store( source, table( "x", "y", "name" ), true );
+        cache.store( source, table( "y" ), false );
+        ColumnarTable complete = cache.load( source, null );
+        assertNotNull( complete );
+        assertEquals( List.of( "x", "y", "name" ), complete.getColumnNames() );
+    }
+
+    @Test
+    void partialTableFromOtherRowsReplacesThePartialCache() throws IOException {
+        Path source = source( "book.xlsx", "v1" );
+        ColumnarDiskCache cache = cache();
+        cache.store( source, table( "x" ), false );
+
+        ColumnBuilder builder = new ColumnBuilder( "y" );
+        builder.addNumber( 1 );
+        cache.store( source, ColumnarTable.build( List.of( builder ), ROWS + 1 ), false );
+
+        assertNull( cache.load( source, List.of( "x" ) ) );
+        ColumnarTable loaded = cache.load( source, List.of( "y" ) );
+        assertNotNull( loaded );
+        assertEquals( 1, loaded.getRowCount() );
+
+        cache.store( source, table( "name" ), true );
+        assertEquals( List.of( "name" ), cache.load( source, null ).getColumnNames() );
+    }
+
+    @Test
+    void ignoresEntriesForAModifiedSource() throws IOException {
+        Path source = source( "book.xlsx", "v1" );
+        ColumnarDiskCache cache = cache();
+        cache.store( source, table( "x" ), true );
+        assertNotNull( cache.load( source, null ) );
+
+        // 大小不变、只有修改时间变化
+        FileTime modified = Files.getLastModifiedTime( source );
+        Files.setLastModifiedTime( source, FileTime.fromMillis( modified.toMillis() + 60_000 ) );
+        assertNull( cache.load( source, null ) );
+        assertNull( cache.load( source, List.of( "x" ) ) );
+
+        // 改回原来的修改时间后仍指向同一版本
+        Files.setLastModifiedTime( source, modified );
+        assertNotNull( cache.load( source, null ) );
+
+        // 内容和大小都变化
+        Files.writeString( source, "version 2" );
+        assertNull( cache.load( source, null ) );
+        cache.store( source, table( "y" ), true );
+        assertEquals( List.of( "y" ), cache.load( source, null ).getColumnNames() );
+    }
+
+    @Test
+    void treatsCorruptFilesAsMisses() throws IOException {
+        Path source = source( "book.xlsx", "v1" );
+        ColumnarDiskCache cache = cache();
+        cache.store( source, table( "x", "name" ), true );
+
+        for( Path file : cacheFiles() ) {
+            byte[] bytes = Files.readAllBytes( file );
+            Files.write( file, Arrays.copyOf( bytes, bytes.length / 2 ) );
+        }
+        assertNull( cache.load( source, null ) );
+
+        for( Path file : cacheFiles() ) {
+            Files.writeString( file, "not a cache file" );
+        }
+        assertNull( cache.load( source, null ) );
+
+        cache.store( source, table( "x" ), true );
+        assertNotNull( cache.load( source, null ) );
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedFilesOverTheLimit() throws IOException {
+        ColumnarDiskCache probe = new ColumnarDiskCache( tempDir.resolve( "probe" ), Long.MAX_VALUE );
+        Path first = source( "a.xlsx", "a" );
+        probe.store( first, table( "x", "y", "name" ), true );
+        long fileSize;
+        try( Stream<Path> files = Files.list( probe.getDirectory() ) ) {
+            fileSize = Files.size( files.findFirst().orElseThrow() );
+        }
+
+        ColumnarDiskCache cache = new ColumnarDiskCache( tempDir.resolve( "cache" ), fileSize * 2 );
+        Path second = source( "b.xlsx", "b" );
+        Path third = source( "c.xlsx", "c" );
+        cache.store( first, table( "x", "y", "name" ), true );
+        cache.store( second, table( "x", "y", "name" ), true );
+        setLastUsed( cache, -10_000 );
+        assertNotNull( cache.load( first, null ) );
+        cache.store( third, table( "x", "y", "name" ), true );
+
+        assertNotNull( cache.load( first, null ) );
+        assertNull( cache.load( second, null ) );
+        assertNotNull( cache.load( third, null ) );
+
+        cache.clear();
+        assertNull( cache.load( first, null ) );
+    }
+
+    private ColumnarDiskCache cache() {
+        return new ColumnarDiskCache( tempDir.resolve( "cache" ), ColumnarDiskCache.DEFAULT_MAX_BYTES );
+    }
+
+    private Path source( String name, String content ) throws IOException {
+        return Files.writeString( tempDir.resolve( name ), content );
+    }
+
+    private List<Path> cacheFiles() throws IOException {
+        try( Stream<Path> files = Files.list( tempDir.resolve( "cache" ) ) ) {
+            return files.toList();
+        }
+    }
+
+    /**
+     * 把缓存目录中所有文件的最近使用时间调早，之后读取的文件就成为最近使用的
+     */
+    private static void setLastUsed( ColumnarDiskCache cache, long offsetMillis ) throws IOException {
+        try( Stream<Path> files = Files.list( cache.getDirectory() ) ) {
+            for( Path file : files.toList() ) {
+                Files.setLastModifiedTime( file, FileTime.fromMillis( System.currentTimeMillis() + offsetMillis ) );
+            }
+        }
+    }
+
+    /**
+     * 三行的测试表，各表的行来源相同，可以互相合并
+     */
+    private static ColumnarTable table( String... columns ) {
+        List<ColumnBuilder> builders = new ArrayList<>();
+        for( String column : columns ) {
+            ColumnBuilder builder = new ColumnBuilder( column );
+            switch( column ) {
+                case "x" -> {
+                    builder.addNumber( 1.5 );
+                    builder.addNumber( -2 );
+                    builder.addNumber( 1e12 );
+                }
+                case "y" -> {
+                    builder.addNumber( 0 );
+                    builder.addNull();
+                    builder.addNumber( 3 );
+                }
+                default -> {
+                    builder.addString( "苹果" );
+                    builder.addNull();
+                    builder.addString( "苹果" );
+                }
+            }
+            builders.add( builder );
+        }
+        return ColumnarTable.build( builders, ROWS );
+    }
+
+    private static List<Object> values( Column column ) {
+        List<Object> values = new ArrayList<>();
+        for( int row = 0; row < column.size(); row++ ) {
+            values.add( column.getValue( row ) );
+        }
+        return values;
+    }
+}
@@ -0,0 +1,380 @@
+package com.gwill.tools.graphics.excelcombochartplotter.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XlsxStreamReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsSharedAndInlineStrings() throws IOException {
+        Path file = workbook()
+            .sharedStrings( "名称", "数值", "苹果",
+                "<r><t>香</t></r><r><t>蕉</t></r><rPh><t>xiangjiao</t></rPh>" )
+            .sheet( """
+                <row r="1"><c r="A1" t="s"><v>0</v></c><c r="B1" t="inlineStr"><is><t>数值</t></is></c></row>
+                <row r="2"><c r="A2" t="s"><v>2</v></c><c r="B2"><v>1.5</v></c></row>
+                <row r="3"><c r="A3" t="inlineStr"><is><t>橙子</t></is></c><c r="B3"><v>2</v></c></row>
+                <row r="4"><c r="A4" t="s"><v>3</v></c><c r="B4" t="str"><v>3</v></c></row>
+                <row r="5"><c r="A5" t="b"><v>1</v></c><c r="B5"><v>-4</v></c></row>
+                """ )
+            .write();
+
+        ColumnarTable table = XlsxStreamReader.read( file );
+
+        assertEquals( List.of( "名称", "数值" ), table.getColumnNames() );
+        assertEquals( 4, table.getRowCount() );
+        assertEquals( List.of( "苹果", "橙子", "香蕉", "true" ), strings( table.getColumn( "名称" ) ) );
+        // 文本单元格 "3" 使整列转为文本列，数值按文本形式保存
+        assertInstanceOf( StringColumn.class, table.getColumn( "数值" ) );
+        assertEquals( List.of( "1.5", "2", "3", "-4" ), strings( table.getColumn( "数值" ) ) );
+    }
+
+    @Test
+    void formatsDateStyledCells() throws IOException {
+        Path file = workbook()
+            .styles( """
+                <numFmts count="2">
+                  <numFmt numFmtId="164" formatCode="yyyy/mm/dd hh:mm"/>
+                  <numFmt numFmtId="165" formatCode="&quot;day&quot;0.00"/>
+                </numFmts>
+                <cellXfs count="5">
+                  <xf numFmtId="0"/><xf numFmtId="14"/><xf numFmtId="164"/><xf numFmtId="20"/><xf numFmtId="165"/>
+                </cellXfs>
+                """ )
+            .sheet( """
+                <row r="1"><c r="A1" t="inlineStr"><is><t>日期</t></is></c><c r="B1" t="inlineStr"><is><t>值</t></is></c></row>
+                <row r="2"><c r="A2" s="1"><v>45292</v></c><c r="B2" s="4"><v>1.25</v></c></row>
+                <row r="3"><c r="A3" s="2"><v>45292.5</v></c><c r="B3" s="0"><v>2</v></c></row>
+                <row r="4"><c r="A4" s="3"><v>0.25</v></c><c r="B4"><v>3</v></c></row>
+                """ )
+            .write();
+
+        ColumnarTable table = XlsxStreamReader.read( file );
+
+        assertEquals( List.of( "2024-01-01", "2024-01-01 12:00:00", "06:00:00" ), strings( table.getColumn( "日期" ) ) );
+        NumericColumn values = assertInstanceOf( NumericColumn.class, table.getColumn( "值" ) );
+        assertEquals( 1.25, values.getDouble( 0 ) );
+        assertEquals( 2.0, values.getDouble( 1 ) );
+        assertEquals( 3.0, values.getDouble( 2 ) );
+    }
+
+    @Test
+    void usesThe1904DateSystem() throws IOException {
+        Path file = workbook()
+            .date1904()
+            .styles( "<cellXfs count=\"2\"><xf numFmtId=\"0\"/><xf numFmtId=\"14\"/></cellXfs>" )
+            .sheet( """
+                <row r="1"><c r="A1" t="inlineStr"><is><t>日期</t></is></c></row>
+                <row r="2"><c r="A2" s="1"><v>1</v></c></row>
+                """ )
+            .write();
+
+        assertEquals( List.of( "1904-01-02" ), strings( XlsxStreamReader.read( file ).getColumn( "日期" ) ) );
+    }
+
+    @Test
+    void readsSparseAndImplicitCellReferences() throws IOException {
+        Path file = workbook()
+            .sheet( """
+                <row r="1"><c r="A1" t="inlineStr"><is><t>a</t></is></c><c t="inlineStr"><is><t>b</t></is></c><c r="D1" t="inlineStr"><is><t>d</t></is></c></row>
+                <row r="2"><c r="A2"><v>1</v></c><c r="D2"><v>4</v></c></row>
+                <row r="3"><c r="B3"><v>2</v></c><c><v>3</v></c><c><v>5</v></c></row>
+                <row r="4"><c><v>6</v></c></row>
+                """ )
+            .write();
+
+        ColumnarTable table = XlsxStreamReader.read( file );
+
+        assertEquals( List.of( "a", "b", "d" ), table.getColumnNames() );
+        assertEquals( 3, table.getRowCount() );
+        assertEquals( Arrays.asList( 1.0, null, 6.0 ), values( table.getColumn( "a" ) ) );
+        assertEquals( Arrays.asList( null, 2.0, null ), values( table.getColumn( "b" ) ) );
+        // C3 没有表头，被忽略；其后的单元格按顺序落在D列
+        assertEquals( Arrays.asList( 4.0, 5.0, null ), values( table.getColumn( "d" ) ) );
+    }
+
+    @Test
+    void skipsBlankRows() throws IOException {
+        Path file = workbook()
+            .sheet( """
+                <row r="1"/>
+                <row r="2"><c r="A2"/><c r="B2" t="inlineStr"><is><t> </t></is></c></row>
+                <row r="3"><c r="A3" t="inlineStr"><is><t>x</t></is></c><c r="B3" t="inlineStr"><is><t>y</t></is></c></row>
+                <row r="4"><c r="A4"><v>1</v></c><c r="B4"><v>10</v></c></row>
+                <row r="5"/>
+                <row r="6"><c r="A6"/><c r="B6" t="e"><v>#N/A</v></c></row>
+                <row r="8"><c r="C8"><v>99</v></c></row>
+                <row r="9"><c r="A9"><v>2</v></c></row>
+                """ )
+            .write();
+
+        ColumnarTable table = XlsxStreamReader.read( file );
+
+        assertEquals( List.of( "x", "y" ), table.getColumnNames() );
+        assertEquals( 2, table.getRowCount() );
+        assertEquals( List.of( 1.0, 2.0 ), values( table.getColumn( "x" ) ) );
+        assertEquals( Arrays.asList( 10.0, null ), values( table.getColumn( "y" ) ) );
+    }
+
+    @Test
+    void projectionsKeepTheSameRows() throws IOException {
+        Path file = workbook()
+            .sheet( """
+                <row r="1"><c r="A1" t="inlineStr"><is><t>x</t></is></c><c r="B1" t="inlineStr"><is><t>y</t></is></c><c r="C1" t="inlineStr"><is><t>z</t></is></c></row>
+                <row r="2"><c r="A2"><v>1</v></c><c r="B2"><v>10</v></c></row>
+                <row r="3"><c r="A3"><v>2</v></c></row>
+                <row r="4"><c r="C4" t="inlineStr"><is><t>only z</t></is></c></row>
+                <row r="5"><c r="B5"><v>50</v></c></row>
+                """ )
+            .write();
+
+        ColumnarTable full = XlsxStreamReader.read( file );
+        ColumnarTable onlyY = XlsxStreamReader.read( file, Set.of( "y" ) );
+        ColumnarTable xAndZ = XlsxStreamReader.read( file, Set.of( "z", "x" ) );
+
+        assertEquals( 4, full.getRowCount() );
+        assertEquals( List.of( "y" ), onlyY.getColumnNames() );
+        assertEquals( List.of( "x", "z" ), xAndZ.getColumnNames() );
+        assertEquals( full.getRowCount(), onlyY.getRowCount() );
+        assertEquals( full.getRowCount(), xAndZ.getRowCount() );
+        assertEquals( values( full.getColumn( "y" ) ), values( onlyY.getColumn( "y" ) ) );
+        assertEquals( values( full.getColumn( "x" ) ), values( xAndZ.getColumn( "x" ) ) );
+        assertEquals( strings( full.getColumn( "z" ) ), strings( xAndZ.getColumn( "z" ) ) );
+
+        assertTrue( onlyY.hasSameRows( xAndZ ) );
+        assertTrue( onlyY.hasSameRows( full ) );
+        ColumnarTable merged = onlyY.union( xAndZ );
+        assertEquals( List.of( "y", "x", "z" ), merged.getColumnNames() );
+        assertEquals( full.fingerprint( List.of( "x", "y", "z" ) ), merged.fingerprint( List.of( "x", "y", "z" ) ) );
+    }
+
+    @Test
+    void tablesFromDifferentSheetRowsDoNotMatch() throws IOException {
+        String header = "<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>x</t></is></c></row>";
+        ColumnarTable first = XlsxStreamReader.read( workbook()
+            .sheet( header + "<row r=\"2\"><c r=\"A2\"><v>1</v></c></row>" ).write() );
+        ColumnarTable second = XlsxStreamReader.read( workbook()
+            .sheet( header + "<row r=\"3\"><c r=\"A3\"><v>1</v></c></row>" ).write() );
+
+        assertEquals( first.getRowCount(), second.getRowCount() );
+        assertFalse( first.hasSameRows( second ) );
+        assertThrows( IllegalArgumentException.class, () -> first.union( second ) );
+    }
+
+    @Test
+    void rejectsUnknownProjectedColumnsAndDuplicateHeaders() throws IOException {
+        Path file = workbook()
+            .sheet( "<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>x</t></is></c></row>" )
+            .write();
+        IOException missing = assertThrows( IOException.class, () -> XlsxStreamReader.read( file, Set.of( "y" ) ) );
+        assertEquals( "Excel文件中不存在列: y", missing.getMessage() );
+
+        Path duplicate = workbook()
+            .sheet( "<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>x</t></is></c><c r=\"B1\" t=\"inlineStr\"><is><t>x</t></is></c></row>" )
+            .write();
+        assertThrows( IOException.class, () -> XlsxStreamReader.read( duplicate ) );
+    }
+
+    @Test
+    void readsHeaderWithoutDataRows() throws IOException {
+        Path file = workbook()
+            .sharedStrings( "名称", "数值" )
+            .sheet( """
+                <dimension ref="A2:B11"/>
+                <sheetData>
+                <row r="2"><c r="A2" t="s"><v>0</v></c><c r="B2" t="s"><v>1</v></c></row>
+                <row r="3"><c r="A3"><v>1</v></c></row>
+                </sheetData>
+                """ )
+            .write();
+
+        SheetHeader header = XlsxStreamReader.readHeader( file );
+
+        assertEquals( List.of( "名称", "数值" ), header.columnNames() );
+        assertEquals( 9, header.rowCount() );
+        assertTrue( header.isRowCountKnown() );
+    }
+
+    @Test
+    void headerScanAndFullReadSkipTheSameBlankRows() throws IOException {
+        Path file = workbook()
+            .sharedStrings( "   ", "名称", "数值" )
+            .sheet( """
+                <dimension ref="A1:B4"/>
+                <sheetData>
+                <row r="1"><c r="A1" t="s"><v>0</v></c><c r="B1" t="inlineStr"><is><t> </t></is></c></row>
+                <row r="2"><c r="A2" t="str"><v></v></c><c r="B2" t="e"><v>#REF!</v></c></row>
+                <row r="3"><c r="A3" t="s"><v>1</v></c><c r="B3" t="s"><v>2</v></c></row>
+                <row r="4"><c r="A4" t="inlineStr"><is><t>苹果</t></is></c><c r="B4"><v>1</v></c></row>
+                </sheetData>
+                """ )
+            .write();
+
+        SheetHeader header = XlsxStreamReader.readHeader( file );
+        ColumnarTable table = XlsxStreamReader.read( file );
+
+        assertEquals( List.of( "名称", "数值" ), header.columnNames() );
+        assertEquals( table.getColumnNames(), header.columnNames() );
+        assertEquals( 1, header.rowCount() );
+        assertEquals( 1, table.getRowCount() );
+    }
+
+    @Test
+    void readsWorkbookRelationships() throws IOException {
+        Path file = workbook()
+            .sheetEntry( "xl/worksheets/data.xml" )
+            .sharedStringsEntry( "xl/strings.xml" )
+            .sharedStrings( "名称" )
+            .sheet( "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c></row><row r=\"2\"><c r=\"A2\"><v>7</v></c></row>" )
+            .write();
+
+        ColumnarTable table = XlsxStreamReader.read( file );
+
+        assertEquals( List.of( "名称" ), table.getColumnNames() );
+        assertEquals( List.of( 7.0 ), values( table.getColumn( "名称" ) ) );
+    }
+
+    @Test
+    void columnIndexHandlesMultipleLetters() {
+        assertEquals( 0, XlsxStreamReader.columnIndex( "A1" ) );
+        assertEquals( 25, XlsxStreamReader.columnIndex( "Z9" ) );
+        assertEquals( 26, XlsxStreamReader.columnIndex( "AA10" ) );
+        assertEquals( 27, XlsxStreamReader.columnIndex( "ab3" ) );
+        assertEquals( 16383, XlsxStreamReader.columnIndex( "XFD1048576" ) );
+    }
+
+    private static List<Object> values( Column column ) {
+        Object[] values = new Object[column.size()];
+        for( int row = 0; row < values.length; row++ ) {
+            values[row] = column.getValue( row );
+        }
+        return Arrays.asList( values );
+    }
+
+    private static List<String> strings( Column column ) {
+        String[] values = new String[column.size()];
+        for( int row = 0; row < values.length; row++ ) {
+            values[row] = column.getString( row );
+        }
+        return List.of( values );
+    }
+
+    private WorkbookBuilder workbook() {
+        return new WorkbookBuilder();
+    }
+
+    /**
+     * 在临时目录中生成只包含读取器所需部件的最小xlsx文件
+     */
+    private final class WorkbookBuilder {
+
+        private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+        private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+        private String sheetEntry;
+        private String sharedStringsEntry;
+        private boolean date1904;
+        private String[] sharedStrings;
+        private String styles;
+        private String sheet = "";
+
+        WorkbookBuilder sheetEntry( String entry ) {
+            this.sheetEntry = entry;
+            return this;
+        }
+
+        WorkbookBuilder sharedStringsEntry( String entry ) {
+            this.sharedStringsEntry = entry;
+            return this;
+        }
+
+        WorkbookBuilder date1904() {
+            this.date1904 = true;
+            return this;
+        }
+
+        /**
+         * 共享字符串，以 "&lt;" 开头的按 &lt;si&gt; 的内部XML原样写入，其余作为纯文本
+         */
+        WorkbookBuilder sharedStrings( String... strings ) {
+            this.sharedStrings = strings;
+            return this;
+        }
+
+        WorkbookBuilder styles( String cellStyles ) {
+            this.styles = cellStyles;
+            return this;
+        }
+
+        /**
+         * 工作表内容；不含 &lt;sheetData&gt; 时自动包在其中
+         */
+        WorkbookBuilder sheet( String rows ) {
+            this.sheet = rows.contains( "<sheetData>" ) ? rows : "<sheetData>" + rows + "</sheetData>";
+            return this;
+        }
+
+        Path write() throws IOException {
+            Map<String, String> entries = new LinkedHashMap<>();
+            entries.put( "xl/workbook.xml", "<workbook xmlns=\"" + MAIN_NS + "\" xmlns:r=\"" + REL_NS + "\">"
+                + ( date1904 ? "<workbookPr date1904=\"1\"/>" : "" )
+                + "<sheets><sheet name=\"Sheet1\" sheetId=\"1\" r:id=\"rId1\"/></sheets></workbook>" );
+            if( sheetEntry != null || sharedStringsEntry != null ) {
+                entries.put( "xl/_rels/workbook.xml.rels", "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                    + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/worksheet\" Target=\""
+                    + relativeTarget( sheetEntry, "xl/worksheets/sheet1.xml" ) + "\"/>"
+                    + "<Relationship Id=\"rId2\" Type=\"" + REL_NS + "/sharedStrings\" Target=\""
+                    + relativeTarget( sharedStringsEntry, "xl/sharedStrings.xml" ) + "\"/>"
+                    + "</Relationships>" );
+            }
+            entries.put( sheetEntry != null ? sheetEntry : "xl/worksheets/sheet1.xml",
+                "<worksheet xmlns=\"" + MAIN_NS + "\">" + sheet + "</worksheet>" );
+            if( sharedStrings != null ) {
+                StringBuilder sst = new StringBuilder( "<sst xmlns=\"" + MAIN_NS + "\">" );
+                for( String string : sharedStrings ) {
+                    sst.append( "<si>" ).append( string.startsWith( "<" ) ? string : "<t>" + string + "</t>" ).append( "</si>" );
+                }
+                entries.put( sharedStringsEntry != null ? sharedStringsEntry : "xl/sharedStrings.xml", sst.append( "</sst>" ).toString() );
+            }
+            if( styles != null ) {
+                entries.put( "xl/styles.xml", "<styleSheet xmlns=\"" + MAIN_NS + "\">" + styles + "</styleSheet>" );
+            }
+
+            Path file = Files.createTempFile( tempDir, "test", ".xlsx" );
+            try( OutputStream out = Files.newOutputStream( file ); ZipOutputStream zip = new ZipOutputStream( out ) ) {
+                for( Map.Entry<String, String> entry : entries.entrySet() ) {
+                    zip.putNextEntry( new ZipEntry( entry.getKey() ) );
+                    zip.write( entry.getValue().getBytes( StandardCharsets.UTF_8 ) );
+                    zip.closeEntry();
+                }
+            }
+            return file;
+        }
+
+        private static String relativeTarget( String entry, String defaultEntry ) {
+            return ( entry != null ? entry : defaultEntry ).substring( "xl/".length() );
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.gwill.tools.graphics.excelcombochartplotter.io;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PngEncoderTest {
+
+    private static final int FILTER_NONE = 0;
+    private static final int FILTER_SUB = 1;
+    private static final int FILTER_PAETH = 4;
+
+    // 超过两个并行条带（约2MB原始数据），保证并行模式真正分条带压缩
+    private static final int LARGE_WIDTH = 1031;
+    private static final int LARGE_HEIGHT = 797;
+
+    @Test
+    void roundTripsEveryCompressionLevelSerially() throws IOException {
+        for( boolean alpha : new boolean[]{ false, true } ) {
+            BufferedImage image = testImage( 173, 91, alpha );
+            for( int level = 0; level <= 9; level++ ) {
+                assertRoundTrip( image, new PngEncoder( level, false ), "level " + level + ", alpha " + alpha );
+            }
+        }
+    }
+
+    @Test
+    void roundTripsEveryCompressionLevelInParallel() throws IOException {
+        for( boolean alpha : new boolean[]{ false, true } ) {
+            BufferedImage image = testImage( LARGE_WIDTH, LARGE_HEIGHT, alpha );
+            for( int level = 0; level <= 9; level++ ) {
+                assertRoundTrip( image, new PngEncoder( level, true ), "level " + level + ", alpha " + alpha );
+            }
+        }
+    }
+
+    @Test
+    void serialAndParallelDecodeToTheSameIdatData() throws IOException, DataFormatException {
+        BufferedImage image = testImage( LARGE_WIDTH, LARGE_HEIGHT, false );
+        for( int level : new int[]{ 1, 6, 9 } ) {
+            byte[] serial = inflateIdat( encode( image, new PngEncoder( level, false ) ) );
+            byte[] parallel = inflateIdat( encode( image, new PngEncoder( level, true ) ) );
+            assertArrayEquals( serial, parallel );
+        }
+    }
+
+    @Test
+    void fastLevelUsesOnlySubFilter() throws IOException, DataFormatException {
+        BufferedImage image = testImage( 173, 91, false );
+        for( boolean parallel : new boolean[]{ false, true } ) {
+            int[] counts = filterCounts( inflateIdat( encode( image, new PngEncoder( 1, parallel ) ) ), 173 * 3, 91 );
+            assertEquals( 91, counts[FILTER_SUB] );
+        }
+    }
+
+    @Test
+    void adaptiveLevelsUseEveryFilterType() throws IOException, DataFormatException {
+        BufferedImage image = testImage( LARGE_WIDTH, LARGE_HEIGHT, true );
+        for( boolean parallel : new boolean[]{ false, true } ) {
+            byte[] filtered = inflateIdat( encode( image, new PngEncoder( 6, parallel ) ) );
+            int[] counts = filterCounts( filtered, LARGE_WIDTH * 4, LARGE_HEIGHT );
+            for( int type = FILTER_NONE; type <= FILTER_PAETH; type++ ) {
+                assertTrue( counts[type] > 0, "filter " + type + " unused: " + Arrays.toString( counts ) );
+            }
+        }
+    }
+
+    @Test
+    void writingRowsInPiecesMatchesWholeImageEncoding() throws IOException {
+        BufferedImage image = testImage( LARGE_WIDTH, LARGE_HEIGHT, false );
+        for( boolean parallel : new boolean[]{ false, true } ) {
+            PngEncoder encoder = new PngEncoder( 6, parallel );
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try( PngEncoder.RowWriter writer = encoder.start( out, LARGE_WIDTH, LARGE_HEIGHT, false ) ) {
+                int y = 0;
+                for( int rows : new int[]{ 1, 100, 333, LARGE_HEIGHT - 434 } ) {
+                    BufferedImage band = image.getSubimage( 0, y, LARGE_WIDTH, rows );
+                    writer.writeRows( band, 0, rows );
+                    y += rows;
+                }
+            }
+            assertArrayEquals( encode( image, encoder ), out.toByteArray() );
+        }
+    }
+
+    @Test
+    void rejectsIncompleteAndOversizedImages() throws IOException {
+        PngEncoder encoder = new PngEncoder( 6, false );
+        BufferedImage image = testImage( 10, 10, false );
+
+        PngEncoder.RowWriter incomplete = encoder.start( new ByteArrayOutputStream(), 10, 10, false );
+        incomplete.writeRows( image, 0, 5 );
+        assertThrows( IOException.class, incomplete::close );
+
+        try( PngEncoder.RowWriter writer = encoder.start( new ByteArrayOutputStream(), 10, 5, false ) ) {
+            assertThrows( IllegalStateException.class, () -> writer.writeRows( image, 0, 6 ) );
+            assertThrows( IllegalArgumentException.class, () -> writer.writeRows( testImage( 11, 5, false ), 0, 5 ) );
+            writer.writeRows( image, 0, 5 );
+        }
+
+        assertThrows( IllegalArgumentException.class, () -> encoder.start( new ByteArrayOutputStream(), 0, 10, false ) );
+        assertThrows( IllegalArgumentException.class, () -> new PngEncoder( 10, false ) );
+        assertThrows( IllegalArgumentException.class, () -> new PngEncoder( -1, true ) );
+    }
+
+    @Test
+    void combinesAdler32LikeZlib() {
+        Random random = new Random( 7 );
+        for( int length : new int[]{ 0, 1, 100, 65521, 65522, 300000 } ) {
+            byte[] first = new byte[random.nextInt( 5000 )];
+            byte[] second = new byte[length];
+            random.nextBytes( first );
+            random.nextBytes( second );
+
+            Adler32 whole = new Adler32();
+            whole.update( first );
+            whole.update( second );
+            assertEquals( whole.getValue(), PngEncoder.combineAdler32( adler32( first ), adler32( second ), length ) );
+        }
+    }
+
+    private static void assertRoundTrip( BufferedImage image, PngEncoder encoder, String message ) throws IOException {
+        BufferedImage decoded = ImageIO.read( new ByteArrayInputStream( encode( image, encoder ) ) );
+        assertNotNull( decoded, message );
+        assertEquals( image.getWidth(), decoded.getWidth(), message );
+        assertEquals( image.getHeight(), decoded.getHeight(), message );
+        assertEquals( image.getColorModel().hasAlpha(), decoded.getColorModel().hasAlpha(), message );
+        int[] expected = image.getRGB( 0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth() );
+        int[] actual = decoded.getRGB( 0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth() );
+        assertArrayEquals( expected, actual, message );
+    }
+
+    private static byte[] encode( BufferedImage image, PngEncoder encoder ) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoder.encode( image, out );
+        return out.toByteArray();
+    }
+
+    /**
+     * 拼接所有IDAT块并解压（Inflater同时校验zlib流末尾的Adler-32）
+     */
+    private static byte[] inflateIdat( byte[] png ) throws DataFormatException {
+        ByteBuffer buffer = ByteBuffer.wrap( png, 8, png.length - 8 );
+        ByteArrayOutputStream idat = new ByteArrayOutputStream();
+        while( buffer.hasRemaining() ) {
+            int length = buffer.getInt();
+            byte[] type = new byte[4];
+            buffer.get( type );
+            if( "IDAT".equals( new String( type, StandardCharsets.US_ASCII ) ) ) {
+                idat.write( png, buffer.position(), length );
+            }
+            buffer.position( buffer.position() + length + 4 );
+        }
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput( idat.toByteArray() );
+            ByteArrayOutputStream raw = new ByteArrayOutputStream();
+            byte[] chunk = new byte[64 * 1024];
+            while( !inflater.finished() ) {
+                int n = inflater.inflate( chunk );
+                if( n == 0 && inflater.needsInput() ) {
+                    throw new DataFormatException( "IDAT数据不完整" );
+                }
+                raw.write( chunk, 0, n );
+            }
+            return raw.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static int[] filterCounts( byte[] filtered, int rowBytes, int height ) {
+        assertEquals( height * ( rowBytes + 1 ), filtered.length );
+        int[] counts = new int[FILTER_PAETH + 1];
+        for( int row = 0; row < height; row++ ) {
+            counts[filtered[row * ( rowBytes + 1 )]]++;
+        }
+        return counts;
+    }
+
+    private static long adler32( byte[] data ) {
+        Adler32 adler = new Adler32();
+        adler.update( data );
+        return adler.getValue();
+    }
+
+    /**
+     * 由几种不同特征的区块组成的测试图，让自适应过滤在不同的行上选中不同的过滤方式
+     */
+    private static BufferedImage testImage( int width, int height, boolean alpha ) {
+        BufferedImage image = new BufferedImage( width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB );
+        Random random = new Random( 42 );
+        for( int y = 0; y < height; y++ ) {
+            int band = ( y / 16 ) % 6;
+            for( int x = 0; x < width; x++ ) {
+                if( band == 5 ) {
+                    // 各字节在 -1、0、1 之间随机取值：不过滤时绝对值之和最小
+                    image.setRGB( x, y, smallNoise( random ) << 24 | smallNoise( random ) << 16
+                        | smallNoise( random ) << 8 | smallNoise( random ) );
+                    continue;
+                }
+                int rgb = switch( band ) {
+                    case 0 -> random.nextInt();
+                    case 1 -> gray( x * 3 );
+                    case 2 -> gray( y * 5 + ( x / 64 ) * 40 );
+                    case 3 -> gray( x + y );
+                    default -> ( ( x / 8 + y / 8 ) % 2 == 0 ) ? 0x3366CC : 0xF0E0D0 + ( x % 7 );
+                };
+                int a = alpha ? ( x * 255 / width ) : 0xFF;
+                image.setRGB( x, y, ( a << 24 ) | ( rgb & 0xFFFFFF ) );
+            }
+        }
+        return image;
+    }
+
+    private static int smallNoise( Random random ) {
+        return ( random.nextInt( 3 ) - 1 ) & 0xFF;
+    }
+
+    private static int gray( int value ) {
+        int v = value & 0xFF;
+        return ( v << 16 ) | ( v << 8 ) | ( v ^ 0x55 );
+    }
+}
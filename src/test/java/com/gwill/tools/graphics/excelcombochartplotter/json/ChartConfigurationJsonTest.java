@@ -0,0 +1,114 @@
+package com.gwill.tools.graphics.excelcombochartplotter.json;
+
+import com.gwill.tools.graphics.excelcombochartplotter.model.ChartConfiguration;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ChartType;
+import com.gwill.tools.graphics.excelcombochartplotter.model.ImageSettings;
+import com.gwill.tools.graphics.excelcombochartplotter.model.SizeUnit;
+import com.gwill.tools.graphics.excelcombochartplotter.model.YAxisSeriesConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChartConfigurationJsonTest {
+
+    @Test
+    void readsFullConfiguration() throws IOException {
+        ChartConfiguration configuration = read( """
+            {
+              "xAxis": "月份",
+              "series": [
+                { "column": "销售额", "type": "BAR" },
+                { "column": "增长率", "type": "line", "secondaryAxis": true }
+              ],
+              "image": { "width": 800, "height": 600, "unit": "PIXEL", "title": "销售", "showLegend": false }
+            }
+            """ );
+
+        assertEquals( "月份", configuration.xAxisColumn() );
+        assertEquals( List.of(
+            new YAxisSeriesConfig( "销售额", ChartType.BAR, false ),
+            new YAxisSeriesConfig( "增长率", ChartType.LINE, true )
+        ), configuration.yAxisSeries() );
+        assertEquals( new ImageSettings( 800, SizeUnit.PIXEL, 600, SizeUnit.PIXEL, "销售", false ),
+            configuration.imageSettings() );
+    }
+
+    @Test
+    void appliesDefaults() throws IOException {
+        ChartConfiguration configuration = read( "{\"xAxis\": \"x\", \"series\": [{\"column\": \"y\"}]}" );
+
+        YAxisSeriesConfig series = configuration.yAxisSeries().get( 0 );
+        assertEquals( ChartType.BAR, series.chartType() );
+        assertFalse( series.useSecondaryAxis() );
+        assertEquals( ImageSettings.defaultSettings(), configuration.imageSettings() );
+    }
+
+    @Test
+    void appliesImageDefaultsPerField() throws IOException {
+        ImageSettings defaults = ImageSettings.defaultSettings();
+        ImageSettings settings = read(
+            "{\"xAxis\": \"x\", \"series\": [{\"column\": \"y\"}], \"image\": {\"width\": 10, \"unit\": \"cm\"}}"
+        ).imageSettings();
+
+        assertEquals( 10.0, settings.width() );
+        assertEquals( SizeUnit.CM, settings.widthUnit() );
+        // 省略高度时单位也取默认值，而不是沿用unit
+        assertEquals( defaults.height(), settings.height() );
+        assertEquals( defaults.heightUnit(), settings.heightUnit() );
+        assertEquals( defaults.title(), settings.title() );
+        assertEquals( defaults.showLegend(), settings.showLegend() );
+    }
+
+    @Test
+    void perAxisUnitOverridesSharedUnit() throws IOException {
+        ImageSettings settings = read(
+            "{\"xAxis\": \"x\", \"series\": [{\"column\": \"y\"}],"
+                + " \"image\": {\"width\": 100, \"height\": 50, \"unit\": \"MM\", \"heightUnit\": \"PIXEL\"}}"
+        ).imageSettings();
+
+        assertEquals( SizeUnit.MM, settings.widthUnit() );
+        assertEquals( SizeUnit.PIXEL, settings.heightUnit() );
+    }
+
+    @Test
+    void rejectsMissingRequiredFields() {
+        assertInvalid( "[]", "图表配置必须是JSON对象" );
+        assertInvalid( "{\"series\": [{\"column\": \"y\"}]}", "缺少字段: xAxis" );
+        assertInvalid( "{\"xAxis\": \" \", \"series\": [{\"column\": \"y\"}]}", "缺少字段: xAxis" );
+        assertInvalid( "{\"xAxis\": \"x\"}", "图表配置缺少系列（series）" );
+        assertInvalid( "{\"xAxis\": \"x\", \"series\": []}", "图表配置缺少系列（series）" );
+        assertInvalid( "{\"xAxis\": \"x\", \"series\": [\"y\"]}", "系列配置必须是JSON对象" );
+        assertInvalid( "{\"xAxis\": \"x\", \"series\": [{\"type\": \"BAR\"}]}", "缺少字段: column" );
+    }
+
+    @Test
+    void rejectsInvalidValues() {
+        assertInvalid( "{\"xAxis\": \"x\", \"series\": [{\"column\": \"y\", \"type\": \"PIE\"}]}", "无法识别的取值: PIE" );
+        assertInvalid( "{\"xAxis\": \"x\", \"series\": [{\"column\": \"y\"}], \"image\": 1}", "图片设置必须是JSON对象" );
+        assertInvalid( "{\"xAxis\": \"x\", \"series\": [{\"column\": \"y\"}], \"image\": {\"width\": \"800\"}}",
+            "字段取值必须是数字: 800" );
+        assertInvalid( "{\"xAxis\": \"x\", \"series\": [{\"column\": \"y\"}], \"image\": {\"unit\": \"inch\"}}",
+            "无法识别的取值: inch" );
+        assertInvalid( "{\"xAxis\": \"x\", \"series\": [{\"column\": \"y\"}], \"image\": {\"width\": 0}}",
+            "图片宽度和高度必须大于0" );
+        assertInvalid( "{\"xAxis\": \"x\", \"series\": [{\"column\": \"y\"}], \"image\": {\"height\": -5}}",
+            "图片宽度和高度必须大于0" );
+    }
+
+    private static ChartConfiguration read( String json ) throws IOException {
+        ChartConfiguration configuration = ChartConfigurationJson.fromJson( JsonParser.parse( json ) );
+        assertTrue( configuration.isValid() );
+        return configuration;
+    }
+
+    private static void assertInvalid( String json, String message ) {
+        IOException e = assertThrows( IOException.class, () -> ChartConfigurationJson.fromJson( JsonParser.parse( json ) ) );
+        assertEquals( message, e.getMessage() );
+    }
+}
@@ -0,0 +1,152 @@
+package com.gwill.tools.graphics.excelcombochartplotter.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonParserTest {
+
+    @Test
+    void parsesLiterals() throws IOException {
+        assertEquals( Boolean.TRUE, JsonParser.parse( "true" ) );
+        assertEquals( Boolean.FALSE, JsonParser.parse( " false " ) );
+        assertNull( JsonParser.parse( "null" ) );
+        assertEquals( "abc", JsonParser.parse( "\"abc\"" ) );
+    }
+
+    @Test
+    void parsesEscapes() throws IOException {
+        assertEquals( "\" \\ / \b \f \n \r \t", JsonParser.parse( "\"\\\" \\\\ \\/ \\b \\f \\n \\r \\t\"" ) );
+        assertEquals( "月份", JsonParser.parse( "\"\\u6708\\u4efd\"" ) );
+        assertEquals( "A", JsonParser.parse( "\"\\u0041\"" ) );
+    }
+
+    @Test
+    void parsesSurrogatePairEscape() throws IOException {
+        String value = (String) JsonParser.parse( "\"\\ud83d\\ude00\"" );
+        assertEquals( "\uD83D\uDE00", value );
+        assertEquals( 0x1F600, value.codePointAt( 0 ) );
+        assertEquals( 1, value.codePointCount( 0, value.length() ) );
+    }
+
+    @Test
+    void rejectsMalformedEscapes() {
+        assertInvalid( "\"\\u12\"" );
+        assertInvalid( "\"\\u12g4\"" );
+        assertInvalid( "\"\\u+123\"" );
+        assertInvalid( "\"\\x41\"" );
+        assertInvalid( "\"abc\\" );
+        assertInvalid( "\"abc" );
+    }
+
+    @Test
+    void rejectsUnescapedControlCharacters() {
+        assertInvalid( "\"a\nb\"" );
+        assertInvalid( "\"a\tb\"" );
+        assertInvalid( "\"a\u0000b\"" );
+    }
+
+    @Test
+    void parsesNestedStructuresInOrder() throws IOException {
+        Object json = JsonParser.parse( "{ \"z\": [1, [2, {\"a\": []}], {}], \"a\": {\"b\": {\"c\": null}} }" );
+        Map<?, ?> object = (Map<?, ?>) json;
+        assertEquals( List.of( "z", "a" ), List.copyOf( object.keySet() ) );
+
+        List<?> z = (List<?>) object.get( "z" );
+        assertEquals( 3, z.size() );
+        assertEquals( 1.0, z.get( 0 ) );
+        List<?> inner = (List<?>) z.get( 1 );
+        assertEquals( 2.0, inner.get( 0 ) );
+        assertEquals( List.of(), ( (Map<?, ?>) inner.get( 1 ) ).get( "a" ) );
+        assertEquals( Map.of(), z.get( 2 ) );
+
+        Map<?, ?> b = (Map<?, ?>) ( (Map<?, ?>) object.get( "a" ) ).get( "b" );
+        assertTrue( b.containsKey( "c" ) );
+        assertNull( b.get( "c" ) );
+    }
+
+    @Test
+    void rejectsMalformedStructures() {
+        assertInvalid( "" );
+        assertInvalid( "[1, 2" );
+        assertInvalid( "[1 2]" );
+        assertInvalid( "[1,]" );
+        assertInvalid( "{\"a\" 1}" );
+        assertInvalid( "{\"a\": 1,}" );
+        assertInvalid( "{a: 1}" );
+        assertInvalid( "tru" );
+        assertInvalid( "nul" );
+    }
+
+    @Test
+    void rejectsTrailingGarbage() {
+        assertInvalid( "{} x" );
+        assertInvalid( "[1]]" );
+        assertInvalid( "1 2" );
+        assertInvalid( "\"a\"\"b\"" );
+        assertInvalid( "truex" );
+        assertInvalid( "12abc" );
+    }
+
+    @Test
+    void parsesValidNumbers() throws IOException {
+        assertEquals( 0.0, JsonParser.parse( "0" ) );
+        assertEquals( -0.0, JsonParser.parse( "-0" ) );
+        assertEquals( 42.0, JsonParser.parse( "42" ) );
+        assertEquals( -42.0, JsonParser.parse( "-42" ) );
+        assertEquals( 0.5, JsonParser.parse( "0.5" ) );
+        assertEquals( 3.25, JsonParser.parse( "3.25" ) );
+        assertEquals( 1e10, JsonParser.parse( "1e10" ) );
+        assertEquals( 1e10, JsonParser.parse( "1E+10" ) );
+        assertEquals( -2.5e-3, JsonParser.parse( "-2.5e-3" ) );
+        assertEquals( 1e308, JsonParser.parse( "1e308" ) );
+        assertEquals( List.of( 1.0, 2.0 ), JsonParser.parse( "[1,2]" ) );
+    }
+
+    @Test
+    void rejectsNumbersOutsideTheGrammar() {
+        for( String number : Arrays.asList(
+            "01", "-01", "00", "+1", ".5", "-.5", "1.", "1.e5", "1e", "1e+", "-", "--1", "0x10",
+            "Infinity", "-Infinity", "NaN", "1f", "1d"
+        ) ) {
+            assertInvalid( number );
+            assertInvalid( "[" + number + "]" );
+        }
+    }
+
+    @Test
+    void rejectsNumbersOutOfRange() {
+        assertInvalid( "1e999" );
+        assertInvalid( "-1e999" );
+    }
+
+    @Test
+    void limitsNestingDepth() throws IOException {
+        String nested = "[".repeat( JsonParser.MAX_DEPTH ) + "]".repeat( JsonParser.MAX_DEPTH );
+        Object value = JsonParser.parse( nested );
+        for( int i = 1; i < JsonParser.MAX_DEPTH; i++ ) {
+            value = ( (List<?>) value ).get( 0 );
+        }
+        assertEquals( List.of(), value );
+        assertEquals( Map.of( "a", List.of( Map.of() ) ), JsonParser.parse( "{\"a\": [{}]}" ) );
+
+        assertInvalid( "[".repeat( JsonParser.MAX_DEPTH + 1 ) + "]".repeat( JsonParser.MAX_DEPTH + 1 ) );
+        assertInvalid( "{\"a\":".repeat( JsonParser.MAX_DEPTH ) + "[]" + "}".repeat( JsonParser.MAX_DEPTH ) );
+        // 远超调用栈能承受的深度时同样以IOException结束，而不是StackOverflowError
+        IOException e = assertThrows( IOException.class, () -> JsonParser.parse( "[".repeat( 1_000_000 ) ) );
+        assertTrue( e.getMessage().contains( "位置 " + JsonParser.MAX_DEPTH ), e.getMessage() );
+    }
+
+    private static void assertInvalid( String text ) {
+        IOException e = assertThrows( IOException.class, () -> JsonParser.parse( text ), text );
+        assertTrue( e.getMessage().startsWith( "JSON格式错误" ), e.getMessage() );
+    }
+}
@@ -0,0 +1,72 @@
+package com.gwill.tools.graphics.excelcombochartplotter.service;
+
+import com.gwill.tools.graphics.excelcombochartplotter.data.ColumnarTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ExcelDataServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void ensureLoadedReusesTheSnapshotWhileTheFileIsUnchanged() throws Exception {
+        Path file = tempDir.resolve( "book.xlsx" );
+        writeWorkbook( file, 1, 2 );
+        ExcelDataService service = new ExcelDataService( null, null );
+
+        ColumnarTable first = service.ensureLoaded( file.toString(), List.of( "x" ) );
+
+        assertSame( first, service.ensureLoaded( file.toString(), List.of( "x" ) ) );
+    }
+
+    @Test
+    void ensureLoadedReloadsAfterTheFileChanges() throws Exception {
+        Path file = tempDir.resolve( "book.xlsx" );
+        writeWorkbook( file, 1, 2 );
+        ExcelDataService service = new ExcelDataService( null, null );
+        FileTime modified = FileTime.fromMillis( 1_700_000_000_000L );
+        Files.setLastModifiedTime( file, modified );
+
+        assertEquals( 1.0, service.ensureLoaded( file.toString(), List.of( "x" ) ).getColumn( "x" ).getValue( 0 ) );
+
+        // 大小相同、只有修改时间变化
+        writeWorkbook( file, 3, 4 );
+        Files.setLastModifiedTime( file, FileTime.fromMillis( modified.toMillis() + 2000 ) );
+        ColumnarTable reloaded = service.ensureLoaded( file.toString(), List.of( "x" ) );
+
+        assertEquals( 3.0, reloaded.getColumn( "x" ).getValue( 0 ) );
+        assertEquals( 4.0, reloaded.getColumn( "x" ).getValue( 1 ) );
+    }
+
+    private static void writeWorkbook( Path file, int first, int second ) throws IOException {
+        String ns = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+        String workbook = "<workbook xmlns=\"" + ns + "\"><sheets><sheet name=\"Sheet1\" sheetId=\"1\"/></sheets></workbook>";
+        String sheet = "<worksheet xmlns=\"" + ns + "\"><sheetData>"
+            + "<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>x</t></is></c></row>"
+            + "<row r=\"2\"><c r=\"A2\"><v>" + first + "</v></c></row>"
+            + "<row r=\"3\"><c r=\"A3\"><v>" + second + "</v></c></row>"
+            + "</sheetData></worksheet>";
+        try( OutputStream out = Files.newOutputStream( file ); ZipOutputStream zip = new ZipOutputStream( out ) ) {
+            zip.putNextEntry( new ZipEntry( "xl/workbook.xml" ) );
+            zip.write( workbook.getBytes( StandardCharsets.UTF_8 ) );
+            zip.closeEntry();
+            zip.putNextEntry( new ZipEntry( "xl/worksheets/sheet1.xml" ) );
+            zip.write( sheet.getBytes( StandardCharsets.UTF_8 ) );
+            zip.closeEntry();
+        }
+    }
+}